@@ -4,6 +4,7 @@ import com.google.auto.common.GeneratedAnnotations;
 import com.google.auto.common.MoreElements;
 import com.google.auto.common.MoreTypes;
 import com.google.auto.service.AutoService;
+import com.google.auto.value.AutoValue;
 import com.google.auto.value.extension.AutoValueExtension;
 import com.google.common.base.Defaults;
 import com.google.common.base.Joiner;
@@ -11,9 +12,11 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Primitives;
+import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
@@ -21,6 +24,11 @@ import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import com.ryanharter.auto.value.gson.internal.AdapterIndex;
+import com.ryanharter.auto.value.gson.internal.Counter;
+import com.ryanharter.auto.value.gson.internal.JsonPrimitives;
+import com.ryanharter.auto.value.gson.internal.LinkableAdapter;
+import com.ryanharter.auto.value.gson.internal.Util;
 import com.ryanharter.auto.value.gson.internal.WildcardUtil;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ArrayTypeName;
@@ -39,14 +47,20 @@ import com.squareup.javapoet.TypeVariableName;
 import com.squareup.javapoet.WildcardTypeName;
 import io.sweers.autotransient.AutoTransient;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.processing.Filer;
@@ -55,6 +69,8 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.SupportedOptions;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.TypeParameterElement;
 import javax.lang.model.type.DeclaredType;
@@ -62,10 +78,21 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
 
 import static com.google.common.base.CaseFormat.LOWER_CAMEL;
 import static com.google.common.base.CaseFormat.UPPER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_UNDERSCORE;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.EAGER_ADAPTERS;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.ENCODED_NAMES;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.FIELD_NAMING_POLICY;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.LINK_NESTED_ADAPTERS;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.PREDICT_FIELD_ORDER;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.PROJECTIONS;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.SPECIALIZE_PRIMITIVES;
 import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.USE_FIELD_NAME_POLICY;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.UTF8_READER;
+import static com.ryanharter.auto.value.gson.AutoValueGsonExtension.UTF8_WRITER;
 import static javax.lang.model.element.Modifier.ABSTRACT;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
@@ -74,12 +101,42 @@ import static javax.lang.model.element.Modifier.STATIC;
 import static javax.lang.model.element.Modifier.VOLATILE;
 import static javax.lang.model.util.ElementFilter.methodsIn;
 
-@SupportedOptions(USE_FIELD_NAME_POLICY)
+@SupportedOptions({
+    USE_FIELD_NAME_POLICY, FIELD_NAMING_POLICY, SPECIALIZE_PRIMITIVES, PREDICT_FIELD_ORDER,
+    EAGER_ADAPTERS, LINK_NESTED_ADAPTERS, UTF8_WRITER, UTF8_READER, ENCODED_NAMES,
+    PROJECTIONS
+})
 @AutoService(AutoValueExtension.class)
 public class AutoValueGsonExtension extends AutoValueExtension {
 
   public static final String GENERATED_COMMENTS = "https://github.com/rharter/auto-value-gson";
   static final String USE_FIELD_NAME_POLICY = "autovaluegson.useFieldNamePolicy";
+  static final String FIELD_NAMING_POLICY = "autovaluegson.fieldNamingPolicy";
+  static final String SPECIALIZE_PRIMITIVES = "autovaluegson.specializePrimitives";
+  static final String PREDICT_FIELD_ORDER = "autovaluegson.predictFieldOrder";
+  static final String EAGER_ADAPTERS = "autovaluegson.eagerAdapters";
+  static final String LINK_NESTED_ADAPTERS = "autovaluegson.linkNestedAdapters";
+  static final String UTF8_WRITER = "autovaluegson.utf8Writer";
+  static final String UTF8_READER = "autovaluegson.utf8Reader";
+  static final String ENCODED_NAMES = "autovaluegson.encodedNames";
+  static final String PROJECTIONS = "autovaluegson.projections";
+
+  /**
+   * HotSpot doesn't JIT-compile methods with more bytecode than this ({@code -XX:HugeMethodLimit}),
+   * so generated methods which might exceed it move their per-property code into helper methods.
+   */
+  private static final int HUGE_METHOD_LIMIT = 8000;
+
+  /**
+   * Types which {@link JsonPrimitives} can read and write without going through a boxed adapter,
+   * mapped to the name of the {@code JsonPrimitives} method reading them.
+   */
+  private static final ImmutableMap<TypeName, String> SPECIALIZED_READS = ImmutableMap.of(
+      TypeName.INT, "readInt",
+      TypeName.LONG, "readLong",
+      TypeName.DOUBLE, "readDouble",
+      TypeName.BOOLEAN, "readBoolean",
+      ClassName.get(String.class), "readString");
 
   static class Property {
 
@@ -94,6 +151,10 @@ public class AutoValueGsonExtension extends AutoValueExtension {
       if (property.isTransient() && !property.nullable()) {
         messager.printMessage(Diagnostic.Kind.ERROR, "Required property cannot be transient!", element);
         return null;
+      } else if (property.lazy && property.lazyValueType() == null) {
+        messager.printMessage(Diagnostic.Kind.ERROR,
+            "@LazyJson property must be a java.util.function.Supplier of a type", element);
+        return null;
       } else {
         return property;
       }
@@ -108,6 +169,9 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     final ImmutableSet<AnnotationMirror> methodAnnotations;
     final boolean nullable;
     final boolean isTransient;
+    final boolean lazy;
+    /** Looked up once, as each lookup creates a new annotation proxy. */
+    @Nullable final SerializedName serializedName;
 
     private Property(String humanName, ExecutableElement element, TypeMirror actualType) {
       this.methodName = element.getSimpleName().toString();
@@ -120,10 +184,11 @@ public class AutoValueGsonExtension extends AutoValueExtension {
       methodAnnotations = ImmutableSet.copyOf(element.getAnnotationMirrors());
       nullable = nullableTypeAnnotation().isPresent() || nullableMethodAnnotation().isPresent();
       isTransient = element.getAnnotation(AutoTransient.class) != null;
+      lazy = element.getAnnotation(LazyJson.class) != null;
+      serializedName = element.getAnnotation(SerializedName.class);
     }
 
     String serializedName() {
-      SerializedName serializedName = element.getAnnotation(SerializedName.class);
       if (serializedName != null) {
         return serializedName.value();
       } else {
@@ -132,7 +197,6 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     }
 
     String[] serializedNameAlternate() {
-      SerializedName serializedName = element.getAnnotation(SerializedName.class);
       if (serializedName != null) {
         return serializedName.alternate();
       } else {
@@ -141,7 +205,6 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     }
 
     boolean hasSerializedNameAnnotation() {
-      SerializedName serializedName = element.getAnnotation(SerializedName.class);
       return serializedName != null;
     }
 
@@ -149,6 +212,27 @@ public class AutoValueGsonExtension extends AutoValueExtension {
       return isTransient;
     }
 
+    /**
+     * Returns the type decoded by a {@link LazyJson} property, or null if the property isn't a
+     * {@code Supplier} of a type.
+     */
+    @Nullable TypeName lazyValueType() {
+      return lazyValueType(type);
+    }
+
+    @Nullable static TypeName lazyValueType(TypeName type) {
+      if (!(type instanceof ParameterizedTypeName)) {
+        return null;
+      }
+      ParameterizedTypeName parameterized = (ParameterizedTypeName) type;
+      TypeName valueType = parameterized.typeArguments.get(0);
+      if (!parameterized.rawType.equals(ClassName.get(Supplier.class))
+          || valueType instanceof WildcardTypeName) {
+        return null;
+      }
+      return valueType;
+    }
+
     boolean nullable() {
       return nullable;
     }
@@ -173,6 +257,15 @@ public class AutoValueGsonExtension extends AutoValueExtension {
   }
 
   private boolean useFieldNamePolicy = false;
+  @Nullable private FieldNamingPolicy fieldNamingPolicy = null;
+  private boolean specializePrimitives = false;
+  private boolean predictFieldOrder = false;
+  private boolean eagerAdapters = false;
+  private boolean linkNestedAdapters = false;
+  private boolean utf8Writer = false;
+  private boolean utf8Reader = false;
+  private boolean encodedNames = false;
+  private boolean projections = false;
 
   @Override
   public IncrementalExtensionType incrementalType(ProcessingEnvironment processingEnvironment) {
@@ -181,12 +274,47 @@ public class AutoValueGsonExtension extends AutoValueExtension {
 
   @Override
   public boolean applicable(Context context) {
-    useFieldNamePolicy = context.processingEnvironment()
-        .getOptions()
-        .containsKey(USE_FIELD_NAME_POLICY);
+    Map<String, String> options = context.processingEnvironment().getOptions();
+    useFieldNamePolicy = options.containsKey(USE_FIELD_NAME_POLICY);
+    specializePrimitives = options.containsKey(SPECIALIZE_PRIMITIVES);
+    predictFieldOrder = options.containsKey(PREDICT_FIELD_ORDER);
+    eagerAdapters = options.containsKey(EAGER_ADAPTERS);
+    linkNestedAdapters = options.containsKey(LINK_NESTED_ADAPTERS);
+    utf8Writer = options.containsKey(UTF8_WRITER);
+    utf8Reader = options.containsKey(UTF8_READER);
+    encodedNames = options.containsKey(ENCODED_NAMES);
+    projections = options.containsKey(PROJECTIONS);
+    fieldNamingPolicy = null;
+    String policyName = options.get(FIELD_NAMING_POLICY);
+    if (policyName != null) {
+      try {
+        fieldNamingPolicy = FieldNamingPolicy.valueOf(policyName);
+      } catch (IllegalArgumentException e) {
+        context.processingEnvironment().getMessager().printMessage(Diagnostic.Kind.ERROR,
+            String.format("Unknown %s \"%s\". Expected one of %s.", FIELD_NAMING_POLICY,
+                policyName, Arrays.toString(FieldNamingPolicy.values())));
+        return false;
+      }
+      if (useFieldNamePolicy) {
+        context.processingEnvironment().getMessager().printMessage(Diagnostic.Kind.WARNING,
+            String.format("%s is set, ignoring %s.", FIELD_NAMING_POLICY, USE_FIELD_NAME_POLICY));
+        useFieldNamePolicy = false;
+      }
+    }
     return isApplicable(context.autoValueClass(), context.processingEnvironment().getMessager());
   }
 
+  /**
+   * Returns true if {@code method} returns a {@code TypeAdapter}. This is much cheaper than
+   * converting its return type to a {@link TypeName}, so callers check it first.
+   */
+  public static boolean returnsTypeAdapter(ExecutableElement method) {
+    TypeMirror returnType = method.getReturnType();
+    return returnType.getKind() == TypeKind.DECLARED
+        && MoreTypes.asTypeElement(returnType).getQualifiedName()
+            .contentEquals(TypeAdapter.class.getCanonicalName());
+  }
+
   public static boolean isApplicable(TypeElement type, Messager messager) {
     //noinspection UnstableApiUsage
     if (MoreElements.isAnnotationPresent(type, GenerateTypeAdapter.class)) {
@@ -199,7 +327,8 @@ public class AutoValueGsonExtension extends AutoValueExtension {
         ClassName.get(TypeAdapter.class), typeName);
     TypeName returnedTypeAdapter = null;
     for (ExecutableElement method : methodsIn(type.getEnclosedElements())) {
-      if (method.getModifiers().contains(STATIC) && !method.getModifiers().contains(PRIVATE)) {
+      if (method.getModifiers().contains(STATIC) && !method.getModifiers().contains(PRIVATE)
+          && returnsTypeAdapter(method)) {
         TypeMirror rType = method.getReturnType();
         TypeName returnType = TypeName.get(rType);
         if (returnType.equals(typeAdapterType)) {
@@ -260,6 +389,16 @@ public class AutoValueGsonExtension extends AutoValueExtension {
       }
       properties.add(property);
     }
+    for (Property property : properties) {
+      // The properties of a type share an adapter, so they must all be lazy or none.
+      if (!property.lazy && !property.isTransient() && properties.stream()
+          .anyMatch(p -> p.lazy && !p.isTransient() && p.type.equals(property.type))) {
+        context.processingEnvironment().getMessager().printMessage(Diagnostic.Kind.ERROR,
+            String.format("All properties of type %s must be @LazyJson", property.type),
+            property.element);
+        return null;
+      }
+    }
 
     Map<String, TypeName> types = convertPropertiesToTypes(context.properties());
 
@@ -327,6 +466,21 @@ public class AutoValueGsonExtension extends AutoValueExtension {
                     context.autoValueClass(),
                     e.getMessage()));
       }
+
+      // Lets GenerateTypeAdapter.FACTORY find the adapter without probing for class names.
+      String indexFile = AdapterIndex.RESOURCE_PREFIX + proguardTarget.reflectionName();
+      try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", indexFile,
+          context.autoValueClass()).openWriter()) {
+        writer.write(adapterClassName.reflectionName());
+        writer.write("\n");
+      } catch (IOException e) {
+        context.processingEnvironment().getMessager()
+            .printMessage(Diagnostic.Kind.ERROR,
+                String.format(
+                    "Failed to write adapter index for element \"%s\" with reason \"%s\"",
+                    context.autoValueClass(),
+                    e.getMessage()));
+      }
       return null;
     } else {
       TypeSpec.Builder subclass = TypeSpec.classBuilder(classNameClass)
@@ -364,6 +518,11 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     ClassName jsonAdapter = ClassName.get(TypeAdapter.class);
     Set<TypeName> seenTypes = Sets.newHashSet();
     NameAllocator nameAllocator = new NameAllocator();
+    // Eagerly resolved adapters are assigned once in the constructor, so they can be final instead
+    // of being lazily published through a volatile field.
+    Modifier[] modifiers = eagerAdapters
+        ? new Modifier[] {PRIVATE, FINAL}
+        : new Modifier[] {PRIVATE, VOLATILE};
     for (Property property : properties) {
       if (property.isTransient()) {
         continue;
@@ -373,7 +532,7 @@ public class AutoValueGsonExtension extends AutoValueExtension {
       if (!seenTypes.contains(property.type)) {
         fields.put(property.type,
                 FieldSpec.builder(adp,
-                    nameAllocator.newName(simpleName(property.type)) + "_adapter", PRIVATE, VOLATILE)
+                    nameAllocator.newName(simpleName(property.type)) + "_adapter", modifiers)
                     .build());
         seenTypes.add(property.type);
       }
@@ -382,6 +541,58 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     return fields.build();
   }
 
+  /**
+   * Creates a flag for each adapter whose type can be specialized, which tells whether the
+   * {@code Gson} instance still uses its built-in adapter for that type.
+   */
+  private ImmutableMap<TypeName, FieldSpec> createSpecializedFlags(
+      ImmutableMap<TypeName, FieldSpec> adapters, boolean enabled) {
+    ImmutableMap.Builder<TypeName, FieldSpec> flags = ImmutableMap.builder();
+    if (!enabled) {
+      return flags.build();
+    }
+    for (Map.Entry<TypeName, FieldSpec> adapter : adapters.entrySet()) {
+      if (SPECIALIZED_READS.containsKey(adapter.getKey().withoutAnnotations())) {
+        String name = adapter.getValue().name.replaceFirst("_adapter$", "_specialized");
+        flags.put(adapter.getKey(),
+            FieldSpec.builder(TypeName.BOOLEAN, name, PRIVATE, FINAL).build());
+      }
+    }
+    return flags.build();
+  }
+
+  /**
+   * Returns the generated adapter class of each property type that is another
+   * {@code @GenerateTypeAdapter} AutoValue class in the same package, which the adapter being
+   * generated can call directly. Generic types are left out since their adapters depend on the
+   * type arguments.
+   */
+  private ImmutableMap<TypeName, ClassName> createLinkedAdapters(TypeElement autoValueType,
+      List<Property> properties) {
+    if (!linkNestedAdapters) {
+      return ImmutableMap.of();
+    }
+    Map<TypeName, ClassName> linked = new LinkedHashMap<>();
+    PackageElement packageElement = MoreElements.getPackage(autoValueType);
+    for (Property property : properties) {
+      TypeMirror returnType = property.element.getReturnType();
+      if (property.isTransient() || returnType.getKind() != TypeKind.DECLARED) {
+        continue;
+      }
+      TypeElement element = MoreElements.asType(MoreTypes.asDeclared(returnType).asElement());
+      if (!MoreElements.isAnnotationPresent(element, AutoValue.class)
+          || !MoreElements.isAnnotationPresent(element, GenerateTypeAdapter.class)
+          || !element.getTypeParameters().isEmpty()
+          || !MoreElements.getPackage(element).equals(packageElement)) {
+        continue;
+      }
+      ClassName elementName = ClassName.get(element);
+      linked.put(property.type, ClassName.get(elementName.packageName(),
+          Joiner.on("_").join(elementName.simpleNames()) + "_GsonTypeAdapter"));
+    }
+    return ImmutableMap.copyOf(linked);
+  }
+
   private static String simpleName(TypeName typeName) {
     if (typeName instanceof ClassName) {
       return UPPER_CAMEL.to(LOWER_CAMEL, ((ClassName) typeName).simpleName());
@@ -484,6 +695,13 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     }
 
     ImmutableMap<TypeName, FieldSpec> adapters = createFields(properties);
+    ImmutableMap<TypeName, FieldSpec> flags =
+        createSpecializedFlags(adapters, specializePrimitives || utf8Writer || utf8Reader);
+    // write() and read() only take the specialized paths with specializePrimitives.
+    ImmutableMap<TypeName, FieldSpec> specializedFlags =
+        specializePrimitives ? flags : ImmutableMap.of();
+    ImmutableMap<TypeName, ClassName> linkedAdapters =
+        createLinkedAdapters(autoValueType, properties);
     if (useFieldNamePolicy) {
       constructor.addStatement("$1T fields = new $1T()", ParameterizedTypeName.get(ArrayList.class, String.class));
       for (Property prop : properties) {
@@ -496,6 +714,50 @@ public class AutoValueGsonExtension extends AutoValueExtension {
           ClassName.get("com.ryanharter.auto.value.gson.internal", "Util"),
           superClassType);
     }
+    if (eagerAdapters) {
+      Set<TypeName> lazyTypes = properties.stream()
+          .filter(prop -> prop.lazy)
+          .map(prop -> prop.type)
+          .collect(Collectors.toSet());
+      // Cycles need no special handling: when this constructor runs within Gson.getAdapter(), as
+      // it does for adapters created by a TypeAdapterFactory, asking for a type that is already
+      // being resolved returns Gson's FutureTypeAdapter, which is linked to the real adapter
+      // once that call completes.
+      boolean unchecked = false;
+      for (Map.Entry<TypeName, FieldSpec> adapter : adapters.entrySet()) {
+        boolean lazy = lazyTypes.contains(adapter.getKey());
+        constructor.addStatement("this.$N = $L", adapter.getValue(),
+            adapterLookup(adapter.getKey(), ClassName.get(TypeAdapter.class), typeParams, lazy));
+        unchecked |= adapterLookupCasts(adapter.getKey(), lazy);
+      }
+      if (unchecked) {
+        constructor.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+            .addMember("value", "\"unchecked\"")
+            .build());
+      }
+    }
+    for (Map.Entry<TypeName, FieldSpec> flag : flags.entrySet()) {
+      // box() only recognizes the primitive constants, which withoutAnnotations() doesn't return.
+      TypeName type = flag.getKey().isPrimitive() ? flag.getKey().box() : flag.getKey();
+      constructor.addStatement("this.$N = $T.usesDefaultAdapter(gson, $T.class)", flag.getValue(),
+          JsonPrimitives.class, type.withoutAnnotations());
+    }
+    if (predictFieldOrder) {
+      // The names in the order write() emits them, which is what read() expects to see.
+      CodeBlock.Builder expectedNames = CodeBlock.builder();
+      for (Property prop : properties) {
+        if (prop.isTransient()) {
+          continue;
+        }
+        if (!expectedNames.isEmpty()) {
+          expectedNames.add(", ");
+        }
+        expectedNames.add(writtenName(prop));
+      }
+      constructor.addStatement("this.expectedNames = new $T[] {$L}", String.class,
+          expectedNames.build());
+    }
+    Utf8Names utf8Names = utf8Reader ? createUtf8Names(constructor, properties) : null;
 
     ClassName jsonAdapter = ClassName.get(TypeAdapter.class);
     TypeSpec.Builder classBuilder = TypeSpec.classBuilder(gsonTypeAdapterName)
@@ -503,18 +765,32 @@ public class AutoValueGsonExtension extends AutoValueExtension {
         .addTypeVariables(typeParams)
         .addModifiers(FINAL)
         .superclass(superClass)
-        .addFields(adapters.values());
+        .addFields(adapters.values())
+        .addFields(flags.values());
 
     if (useFieldNamePolicy) {
       classBuilder.addField(FieldSpec.builder(ParameterizedTypeName.get(Map.class, String.class, String.class), "realFieldNames", PRIVATE, FINAL).build());
     }
 
+    if (predictFieldOrder || projections) {
+      classBuilder.addMethod(createReadIndexMethod(properties));
+    }
+    if (predictFieldOrder) {
+      addFieldOrderPrediction(classBuilder);
+    }
+    if (projections) {
+      addProjectionReader(classBuilder, properties, adapters, jsonAdapter, typeParams);
+    }
+
+    List<MethodSpec> helperMethods = new ArrayList<>();
+    MethodSpec readMethod = createReadMethod(className, autoValueClassName, autoValueTypeName,
+        properties, adapters, specializedFlags, linkedAdapters, jsonAdapter, typeParams,
+        builderContext, processingEnvironment, helperMethods, null);
     classBuilder.addField(FieldSpec.builder(Gson.class, "gson", PRIVATE, FINAL).build())
         .addMethod(constructor.build())
-        .addMethod(createWriteMethod(autoValueTypeName, properties, adapters,
-            jsonAdapter, typeParams))
-        .addMethod(createReadMethod(className, autoValueClassName, autoValueTypeName, properties,
-            adapters, jsonAdapter, typeParams, builderContext, processingEnvironment))
+        .addMethod(createWriteMethod(classBuilder, autoValueTypeName, properties, adapters,
+            specializedFlags, linkedAdapters, jsonAdapter, typeParams, helperMethods))
+        .addMethod(readMethod)
         .addMethod(MethodSpec.methodBuilder("toString")
             .addAnnotation(Override.class)
             .addModifiers(PUBLIC)
@@ -527,6 +803,27 @@ public class AutoValueGsonExtension extends AutoValueExtension {
             )
             .build());
 
+    if (utf8Writer) {
+      addUtf8Writer(classBuilder, autoValueTypeName, properties, adapters, flags, jsonAdapter,
+          typeParams, helperMethods);
+    }
+
+    // An empty read() means the builder was rejected, which has already been reported.
+    if (utf8Names != null && !readMethod.code.isEmpty()) {
+      classBuilder.addSuperinterface(
+          ParameterizedTypeName.get(ClassName.get(Utf8TypeReader.class), autoValueTypeName))
+          .addField(utf8Names.field)
+          .addMethod(createReadMethod(className, autoValueClassName, autoValueTypeName,
+              properties, adapters, flags, linkedAdapters, jsonAdapter, typeParams,
+              builderContext, processingEnvironment, helperMethods, utf8Names));
+    }
+
+    if (!eagerAdapters && !adapters.isEmpty()) {
+      addLinkMethod(classBuilder, properties, adapters, jsonAdapter, typeParams);
+    }
+
+    classBuilder.addMethods(helperMethods);
+
     if (!typeParams.isEmpty()) {
       classBuilder.addField(FieldSpec.builder(Type[].class, "typeArgs", PRIVATE, FINAL).build());
     }
@@ -534,29 +831,334 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     return classBuilder.build();
   }
 
+  /**
+   * Adds the members backing the expected-order fast path of read(): the names in write order, and
+   * the counters exposed through {@link FieldOrderStatistics}. Names which aren't the expected one
+   * are dispatched by readIndex().
+   */
+  private void addFieldOrderPrediction(TypeSpec.Builder classBuilder) {
+    // Counter falls back to AtomicLong where LongAdder doesn't exist (Android before API 24).
+    FieldSpec hits = FieldSpec.builder(Counter.class, "expectedOrderHits", PRIVATE, FINAL)
+        .initializer("$T.create()", Counter.class)
+        .build();
+    FieldSpec misses = FieldSpec.builder(Counter.class, "expectedOrderMisses", PRIVATE, FINAL)
+        .initializer("$T.create()", Counter.class)
+        .build();
+    classBuilder.addSuperinterface(FieldOrderStatistics.class)
+        .addField(FieldSpec.builder(String[].class, "expectedNames", PRIVATE, FINAL).build())
+        .addField(hits)
+        .addField(misses)
+        .addMethod(MethodSpec.methodBuilder("expectedOrderHits")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.LONG)
+            .addStatement("return $N.sum()", hits)
+            .build())
+        .addMethod(MethodSpec.methodBuilder("expectedOrderMisses")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.LONG)
+            .addStatement("return $N.sum()", misses)
+            .build());
+  }
+
+  /**
+   * Implements {@link LinkableAdapter}, whose link() looks up the adapters which read() and write()
+   * would otherwise look up on first use.
+   */
+  private static void addLinkMethod(TypeSpec.Builder classBuilder,
+      List<Property> properties,
+      Map<TypeName, FieldSpec> adapters,
+      ClassName jsonAdapter,
+      List<TypeVariableName> typeParams) {
+    MethodSpec.Builder link = MethodSpec.methodBuilder("link")
+        .addAnnotation(Override.class)
+        .addModifiers(PUBLIC);
+    Set<TypeName> linked = Sets.newHashSet();
+    boolean unchecked = false;
+    for (Property prop : properties) {
+      FieldSpec adapterField = adapters.get(prop.type);
+      if (adapterField == null || !linked.add(prop.type)) {
+        continue;
+      }
+      link.beginControlFlow("if (this.$N == null)", adapterField);
+      link.addStatement("this.$N = $L", adapterField,
+          adapterLookup(prop.type, jsonAdapter, typeParams, prop.lazy));
+      link.endControlFlow();
+      unchecked |= adapterLookupCasts(prop.type, prop.lazy);
+    }
+    if (unchecked) {
+      link.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+          .addMember("value", "\"unchecked\"")
+          .build());
+    }
+    classBuilder.addSuperinterface(LinkableAdapter.class)
+        .addMethod(link.build());
+  }
+
+  /**
+   * Returns readIndex(), which dispatches any name to the index of the property read from it, like
+   * read() does, or returns -1.
+   */
+  private MethodSpec createReadIndexMethod(List<Property> properties) {
+    ParameterSpec name = ParameterSpec.builder(String.class, "name").build();
+    MethodSpec.Builder readIndex = MethodSpec.methodBuilder("readIndex")
+        .addModifiers(PRIVATE)
+        .returns(TypeName.INT)
+        .addParameter(name);
+    Map<Property, Integer> indices = readIndices(properties);
+    Set<String> caseLabels = Sets.newHashSet();
+    readIndex.beginControlFlow("switch ($N)", name);
+    for (Map.Entry<Property, Integer> entry : indices.entrySet()) {
+      Property prop = entry.getKey();
+      if (prop.hasSerializedNameAnnotation()) {
+        addIndexCase(readIndex, readLabels(prop.serializedName(), prop.serializedNameAlternate(),
+            caseLabels), entry.getValue());
+      }
+    }
+    if (!useFieldNamePolicy) {
+      for (Map.Entry<Property, Integer> entry : indices.entrySet()) {
+        if (!entry.getKey().hasSerializedNameAnnotation()) {
+          addIndexCase(readIndex, readLabels(fieldName(entry.getKey()), new String[0],
+              caseLabels), entry.getValue());
+        }
+      }
+    }
+    readIndex.beginControlFlow("default:");
+    if (useFieldNamePolicy) {
+      for (Map.Entry<Property, Integer> entry : indices.entrySet()) {
+        if (!entry.getKey().hasSerializedNameAnnotation()) {
+          readIndex.beginControlFlow("if (realFieldNames.get($S).equals($N))",
+              entry.getKey().humanName, name);
+          readIndex.addStatement("return $L", entry.getValue());
+          readIndex.endControlFlow();
+        }
+      }
+    }
+    readIndex.addStatement("return -1");
+    readIndex.endControlFlow(); // default case
+    readIndex.endControlFlow(); // switch
+    return readIndex.build();
+  }
+
+  /**
+   * Implements {@link ProjectionReader} for {@code autovaluegson.projections}, with the indices of
+   * readIndex(). Each property is read with its adapter, even where read() has a faster path, as
+   * projections are about the properties which aren't read.
+   */
+  private static void addProjectionReader(TypeSpec.Builder classBuilder,
+      List<Property> properties,
+      Map<TypeName, FieldSpec> adapters,
+      ClassName jsonAdapter,
+      List<TypeVariableName> typeParams) {
+    Map<Property, Integer> indices = readIndices(properties);
+    CodeBlock.Builder names = CodeBlock.builder();
+    for (Property prop : indices.keySet()) {
+      if (!names.isEmpty()) {
+        names.add(", ");
+      }
+      names.add("$S", prop.humanName);
+    }
+    FieldSpec propertyNames = FieldSpec.builder(
+        ParameterizedTypeName.get(List.class, String.class), "PROPERTY_NAMES",
+        PRIVATE, STATIC, FINAL)
+        .initializer("$T.unmodifiableList($T.asList($L))", Collections.class, Arrays.class,
+            names.build())
+        .build();
+
+    ParameterSpec index = ParameterSpec.builder(TypeName.INT, "index").build();
+    ParameterSpec jsonReader = ParameterSpec.builder(JsonReader.class, "jsonReader").build();
+    MethodSpec.Builder readProperty = MethodSpec.methodBuilder("readProperty")
+        .addAnnotation(Override.class)
+        .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+            .addMember("value", "\"unchecked\"")
+            .build())
+        .addModifiers(PUBLIC)
+        .returns(Object.class)
+        .addParameter(index)
+        .addParameter(jsonReader)
+        .addException(IOException.class);
+    readProperty.beginControlFlow("if ($N.peek() == $T.NULL)", jsonReader, JsonToken.class);
+    readProperty.addStatement("$N.nextNull()", jsonReader);
+    readProperty.addStatement("return null");
+    readProperty.endControlFlow();
+    readProperty.beginControlFlow("switch ($N)", index);
+    for (Map.Entry<Property, Integer> entry : indices.entrySet()) {
+      Property prop = entry.getKey();
+      FieldSpec adapterField = adapters.get(prop.type);
+      CodeBlock.Builder block = CodeBlock.builder();
+      addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
+      readProperty.beginControlFlow("case $L:", entry.getValue());
+      readProperty.addCode(block.build());
+      readProperty.addStatement("return $N.read($N)", adapterField, jsonReader);
+      readProperty.endControlFlow();
+    }
+    readProperty.endControlFlow(); // switch
+    readProperty.addStatement("throw new $T($S + $N)", IllegalArgumentException.class,
+        "Unknown property index ", index);
+
+    classBuilder.addSuperinterface(ProjectionReader.class)
+        .addField(propertyNames)
+        .addMethod(MethodSpec.methodBuilder("propertyNames")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(propertyNames.type)
+            .addStatement("return $N", propertyNames)
+            .build())
+        .addMethod(MethodSpec.methodBuilder("propertyIndex")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.INT)
+            .addParameter(String.class, "name")
+            .addStatement("return readIndex(name)")
+            .build())
+        .addMethod(readProperty.build());
+  }
+
+  private static void addIndexCase(MethodSpec.Builder readIndex, List<String> labels, int index) {
+    for (String label : labels) {
+      readIndex.addCode("case $S:\n", label);
+    }
+    if (!labels.isEmpty()) {
+      readIndex.addStatement("$>return $L$<", index);
+    }
+  }
+
+  /**
+   * Returns the position of each serialized property in write order, which read() uses in place of
+   * its name when {@code autovaluegson.predictFieldOrder} is set.
+   */
+  private static Map<Property, Integer> readIndices(List<Property> properties) {
+    Map<Property, Integer> indices = new LinkedHashMap<>();
+    for (Property prop : properties) {
+      if (!prop.isTransient()) {
+        indices.put(prop, indices.size());
+      }
+    }
+    return indices;
+  }
+
+  /**
+   * The names readUtf8() selects from, in the precedence of read()'s switch: {@code SerializedName}
+   * names first, then the names of the other properties. The names are encoded once, in a static
+   * constant, unless some are only known at runtime with {@code autovaluegson.useFieldNamePolicy}.
+   */
+  private static final class Utf8Names {
+    final FieldSpec field;
+    /** The indices in {@link #field} of the names each property is read from. */
+    final Map<Property, List<Integer>> indices;
+
+    Utf8Names(FieldSpec field, Map<Property, List<Integer>> indices) {
+      this.field = field;
+      this.indices = indices;
+    }
+  }
+
+  private Utf8Names createUtf8Names(MethodSpec.Builder constructor, List<Property> properties) {
+    Map<Property, List<Integer>> indices = new LinkedHashMap<>();
+    CodeBlock.Builder names = CodeBlock.builder();
+    Set<String> caseLabels = Sets.newHashSet();
+    int count = 0;
+    for (Property prop : properties) {
+      if (prop.isTransient()) {
+        continue;
+      }
+      indices.put(prop, Lists.newArrayList());
+      if (prop.hasSerializedNameAnnotation()) {
+        for (String label : readLabels(prop.serializedName(), prop.serializedNameAlternate(),
+            caseLabels)) {
+          names.add(count == 0 ? "$S" : ", $S", label);
+          indices.get(prop).add(count++);
+        }
+      }
+    }
+    for (Property prop : indices.keySet()) {
+      if (prop.hasSerializedNameAnnotation()) {
+        continue;
+      }
+      if (useFieldNamePolicy) {
+        names.add(count == 0 ? "$L" : ", $L", writtenName(prop));
+        indices.get(prop).add(count++);
+      } else {
+        for (String label : readLabels(fieldName(prop), new String[0], caseLabels)) {
+          names.add(count == 0 ? "$S" : ", $S", label);
+          indices.get(prop).add(count++);
+        }
+      }
+    }
+
+    CodeBlock initializer = CodeBlock.of("$T.of($L)", Utf8JsonReader.Names.class, names.build());
+    FieldSpec field;
+    if (useFieldNamePolicy) {
+      field = FieldSpec.builder(Utf8JsonReader.Names.class, "utf8Names", PRIVATE, FINAL).build();
+      constructor.addStatement("this.$N = $L", field, initializer);
+    } else {
+      field = FieldSpec.builder(Utf8JsonReader.Names.class, "UTF8_NAMES", PRIVATE, STATIC, FINAL)
+          .initializer(initializer)
+          .build();
+    }
+    return new Utf8Names(field, indices);
+  }
+
+  /**
+   * Returns the expression for the name {@code prop} is written with.
+   */
+  private CodeBlock writtenName(Property prop) {
+    if (prop.hasSerializedNameAnnotation()) {
+      return CodeBlock.of("$S", prop.serializedName());
+    } else if (useFieldNamePolicy) {
+      return CodeBlock.of("realFieldNames.get($S)", prop.humanName);
+    } else {
+      return CodeBlock.of("$S", fieldName(prop));
+    }
+  }
+
   private static void addConditionalAdapterAssignment(CodeBlock.Builder block,
                                                FieldSpec adapterField,
                                                Property prop,
                                                ClassName jsonAdapter,
                                                List<TypeVariableName> typeParams) {
-    TypeName type = prop.type.isPrimitive() ? prop.type.box() : prop.type;
-    ParameterizedTypeName adp = ParameterizedTypeName.get(jsonAdapter, type);
-
+    if (adapterField.hasModifier(FINAL)) {
+      // Resolved in the constructor.
+      return;
+    }
     block.addStatement("$T $N = this.$N", adapterField.type, adapterField, adapterField);
     block.beginControlFlow("if ($N == null)", adapterField);
-    if (prop.type instanceof ParameterizedTypeName || prop.type instanceof TypeVariableName) {
-      block.addStatement("this.$N = $N = ($T) gson.getAdapter($L)", adapterField, adapterField,
-          adp, makeParameterizedType(prop.type, typeParams));
-    } else {
-      block.addStatement("this.$N = $N = gson.getAdapter($T.class)", adapterField, adapterField, type);
-    }
+    block.addStatement("this.$N = $N = $L", adapterField, adapterField,
+        adapterLookup(prop.type, jsonAdapter, typeParams, prop.lazy));
     block.endControlFlow();
   }
 
+  /**
+   * Returns the expression asking {@code gson} for the adapter of {@code propertyType}, or if
+   * {@code lazy}, for the adapter of its value type wrapped by {@link LazyJsonValue#adapter}.
+   */
+  private static CodeBlock adapterLookup(TypeName propertyType,
+                                         ClassName jsonAdapter,
+                                         List<TypeVariableName> typeParams,
+                                         boolean lazy) {
+    if (lazy) {
+      return CodeBlock.of("$T.adapter($L)", LazyJsonValue.class,
+          adapterLookup(Property.lazyValueType(propertyType), jsonAdapter, typeParams, false));
+    }
+    TypeName type = propertyType.isPrimitive() ? propertyType.box() : propertyType;
+    if (propertyType instanceof ParameterizedTypeName
+        || propertyType instanceof TypeVariableName) {
+      return CodeBlock.of("($T) gson.getAdapter($L)", ParameterizedTypeName.get(jsonAdapter, type),
+          makeParameterizedType(propertyType, typeParams));
+    }
+    return CodeBlock.of("gson.getAdapter($T.class)", type);
+  }
+
+  /** Returns true if {@link #adapterLookup} casts the adapter it gets from {@code gson}. */
+  private static boolean adapterLookupCasts(TypeName propertyType, boolean lazy) {
+    TypeName type = lazy ? Property.lazyValueType(propertyType) : propertyType;
+    return type instanceof ParameterizedTypeName || type instanceof TypeVariableName;
+  }
+
   private static void addBuilderFieldSetting(Builder block,
                                              Property prop,
-                                             FieldSpec adapter,
-                                             ParameterSpec jsonReader,
+                                             CodeBlock readValue,
                                              FieldSpec builder,
                                              BuilderContext builderContext,
                                              ProcessingEnvironment processingEnv) {
@@ -573,7 +1175,7 @@ public class AutoValueGsonExtension extends AutoValueExtension {
         // ImmutableMap (etc). We have for example `ImmutableList<String> getFoo()` but we don't
         // have `setFoo(ImmutableList<String>)`, we only have
         // `ImmutableList.Builder<String> fooBuilder()`. So we need to do
-        // `builder.fooBuilder().addAll(adapter.read(jsonReader)`.
+        // `builder.fooBuilder().addAll(adapter.read(jsonReader))`.
         Set<String> methodNames =
             methodsIn(
                     MoreTypes.asTypeElement(propertyBuilder.getReturnType()).getEnclosedElements())
@@ -596,12 +1198,11 @@ public class AutoValueGsonExtension extends AutoValueExtension {
           return;
         }
         block.addStatement(
-            "$N.$N().$N($N.read($N))",
+            "$N.$N().$N($L)",
             builder,
             propertyBuilder.getSimpleName(),
             addAllPutAll,
-            adapter,
-            jsonReader);
+            readValue);
       }
       return;
     }
@@ -622,8 +1223,7 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     for (ExecutableElement setter : setters) {
       if (typeUtils.isAssignable(
               typeUtils.erasure(propertyType), typeUtils.erasure(setter.getParameters().get(0).asType()))) {
-        block.addStatement(
-            "$N.$N($N.read($N))", builder, setter.getSimpleName(), adapter, jsonReader);
+        block.addStatement("$N.$N($L)", builder, setter.getSimpleName(), readValue);
         return;
       }
     }
@@ -636,9 +1236,8 @@ public class AutoValueGsonExtension extends AutoValueExtension {
           // `setFoo(String)`.
           // We'll generate `adapter.read(jsonReader).ifPresent(x$ -> builder.setFoo(x$))`.
           block.addStatement(
-              "$N.read($N).ifPresent(x$$ -> $N.$N(x$$))",
-              adapter,
-              jsonReader,
+              "$L.ifPresent(x$$ -> $N.$N(x$$))",
+              readValue,
               builder,
               setter.getSimpleName());
           return;
@@ -680,16 +1279,86 @@ public class AutoValueGsonExtension extends AutoValueExtension {
   private static void addFieldSetting(CodeBlock.Builder block,
                                       Property prop,
                                       Map<Property, FieldSpec> fields,
-                                      FieldSpec adapter,
-                                      ParameterSpec jsonReader) {
-    block.addStatement("$N = $N.read($N)", fields.get(prop), adapter, jsonReader);
+                                      CodeBlock readValue) {
+    block.addStatement("$N = $L", fields.get(prop), readValue);
   }
 
-  private MethodSpec createWriteMethod(TypeName autoValueClassName,
+  /**
+   * Adds the statements reading the value of {@code prop} and storing it in its local variable or
+   * builder.
+   */
+  private static void addPropertyRead(CodeBlock.Builder block,
+      Property prop,
+      FieldSpec adapterField,
+      @Nullable FieldSpec specializedFlag,
+      @Nullable ClassName linkedAdapter,
+      ClassName jsonAdapter,
+      List<TypeVariableName> typeParams,
+      ParameterSpec jsonReader,
+      Map<Property, FieldSpec> fields,
+      Optional<FieldSpec> builderField,
+      @Nullable BuilderContext builderContext,
+      ProcessingEnvironment processingEnvironment,
+      boolean utf8) {
+    if (specializedFlag != null) {
+      block.beginControlFlow("if ($N)", specializedFlag);
+      CodeBlock readValue = CodeBlock.of("$T.$N($N)", JsonPrimitives.class,
+          SPECIALIZED_READS.get(prop.type.withoutAnnotations()), jsonReader);
+      if (builderField.isPresent()) {
+        addBuilderFieldSetting(
+            block, prop, readValue, builderField.get(), builderContext, processingEnvironment);
+      } else {
+        addFieldSetting(block, prop, fields, readValue);
+      }
+      block.nextControlFlow("else");
+    }
+    addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
+    CodeBlock readValue = CodeBlock.of("$N.read($N)", adapterField, jsonReader);
+    if (utf8) {
+      ClassName utf8TypeReader = ClassName.get(Utf8TypeReader.class);
+      readValue = CodeBlock.of(
+          "$1N instanceof $2T ? (($3T) $1N).readUtf8($4N) : $1N.read($4N.jsonReader())",
+          adapterField, utf8TypeReader,
+          ParameterizedTypeName.get(utf8TypeReader, prop.type.box().withoutAnnotations()),
+          jsonReader);
+    } else if (linkedAdapter != null) {
+      // Gson may have resolved a user-registered adapter instead, which is then called as usual.
+      readValue = CodeBlock.of("$1N instanceof $2T ? (($2T) $1N).read($3N) : $1N.read($3N)",
+          adapterField, linkedAdapter, jsonReader);
+    }
+    if (builderField.isPresent()) {
+      addBuilderFieldSetting(
+          block, prop, readValue, builderField.get(), builderContext, processingEnvironment);
+    } else {
+      addFieldSetting(block, prop, fields, readValue);
+    }
+    if (specializedFlag != null) {
+      block.endControlFlow();
+    }
+  }
+
+  /**
+   * Returns the statement writing {@code value} of {@code type} without a boxed adapter.
+   */
+  private static CodeBlock specializedWrite(TypeName type, ParameterSpec jsonWriter,
+      CodeBlock value) {
+    if (type.withoutAnnotations().equals(TypeName.DOUBLE)) {
+      return CodeBlock.builder()
+          .addStatement("$T.writeDouble($N, $L)", JsonPrimitives.class, jsonWriter, value)
+          .build();
+    }
+    return CodeBlock.builder().addStatement("$N.value($L)", jsonWriter, value).build();
+  }
+
+  private MethodSpec createWriteMethod(TypeSpec.Builder classBuilder,
+      TypeName autoValueClassName,
       List<Property> properties,
       ImmutableMap<TypeName, FieldSpec> adapters,
+      ImmutableMap<TypeName, FieldSpec> specializedFlags,
+      ImmutableMap<TypeName, ClassName> linkedAdapters,
       ClassName jsonAdapter,
-      List<TypeVariableName> typeParams) {
+      List<TypeVariableName> typeParams,
+      List<MethodSpec> helperMethods) {
     ParameterSpec jsonWriter = ParameterSpec.builder(JsonWriter.class, "jsonWriter").build();
     ParameterSpec annotatedParam = ParameterSpec.builder(autoValueClassName, "object").build();
     MethodSpec.Builder writeMethod = MethodSpec.methodBuilder("write")
@@ -707,57 +1376,279 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     writeMethod.addStatement("return");
     writeMethod.endControlFlow();
 
+    // Each getter is called once into a local, so the names used unqualified in the method body
+    // must not be shadowed.
+    NameAllocator localNames = new NameAllocator();
+    localNames.newName(jsonWriter.name);
+    localNames.newName(annotatedParam.name);
+    localNames.newName("gson");
+    localNames.newName("typeArgs");
+    localNames.newName("realFieldNames");
+    for (FieldSpec field : Iterables.concat(adapters.values(), specializedFlags.values())) {
+      localNames.newName(field.name);
+    }
+
+    NameAllocator constantNames = new NameAllocator();
+
     writeMethod.addStatement("$N.beginObject()", jsonWriter);
+    Map<Property, CodeBlock> writes = new LinkedHashMap<>();
     for (Property prop : properties) {
       if (prop.isTransient()) {
         continue;
       }
-      if (prop.hasSerializedNameAnnotation()) {
-        writeMethod.addStatement("$N.name($S)", jsonWriter, prop.serializedName());
-      } else if (useFieldNamePolicy) {
-        writeMethod.addStatement("$N.name(realFieldNames.get($S))", jsonWriter, prop.humanName);
+      CodeBlock.Builder propWrite = CodeBlock.builder();
+      if (encodedNames && !(useFieldNamePolicy && !prop.hasSerializedNameAnnotation())) {
+        // Escaped once here, and written as is by an EncodedNameJsonWriter.
+        FieldSpec name = FieldSpec.builder(char[].class,
+            constantNames.newName(LOWER_CAMEL.to(UPPER_UNDERSCORE, prop.humanName) + "_NAME_CHARS"),
+            PRIVATE, STATIC, FINAL)
+            .initializer("$T.encodeName($L)", EncodedNameJsonWriter.class, writtenName(prop))
+            .build();
+        classBuilder.addField(name);
+        propWrite.addStatement("$T.writeName($N, $N, $L)", EncodedNameJsonWriter.class, jsonWriter,
+            name, writtenName(prop));
       } else {
-        writeMethod.addStatement("$N.name($S)", jsonWriter, prop.humanName);
+        propWrite.addStatement("$N.name($L)", jsonWriter, writtenName(prop));
       }
       // for adapters handling non-primitive values, initialize the
       // adapter only when the value is actually present (non-null),
       // otherwise use a generic method of writing the null value
       FieldSpec adapterField = adapters.get(prop.type);
+      FieldSpec specializedFlag = specializedFlags.get(prop.type);
+      CodeBlock value = CodeBlock.of("$N.$N()", annotatedParam, prop.methodName);
       CodeBlock.Builder block = CodeBlock.builder();
       if (!prop.type.isPrimitive()) {
-          writeMethod.beginControlFlow("if ($N.$N() == null)", annotatedParam, prop.methodName);
-          writeMethod.addStatement("$N.nullValue()", jsonWriter);
-          writeMethod.nextControlFlow("else");
-          addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
-          writeMethod.addCode(block.build());
-          writeMethod.addStatement("$N.write($N, $N.$N())", adapterField, jsonWriter, annotatedParam, prop.methodName);
-          writeMethod.endControlFlow();
+        String local = localNames.newName(prop.humanName);
+        propWrite.addStatement("$T $N = $L", prop.type.withoutAnnotations(), local, value);
+        value = CodeBlock.of("$N", local);
+        propWrite.beginControlFlow("if ($L == null)", value);
+        propWrite.addStatement("$N.nullValue()", jsonWriter);
+        if (specializedFlag != null) {
+          propWrite.nextControlFlow("else if ($N)", specializedFlag);
+          propWrite.add(specializedWrite(prop.type, jsonWriter, value));
+        }
+        propWrite.nextControlFlow("else");
+        addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
+        propWrite.add(block.build());
+        ClassName linkedAdapter = linkedAdapters.get(prop.type);
+        if (linkedAdapter != null) {
+          // Gson may have resolved a user-registered adapter instead, which is then called as
+          // usual.
+          propWrite.beginControlFlow("if ($N instanceof $T)", adapterField, linkedAdapter);
+          propWrite.addStatement("(($T) $N).write($N, $L)", linkedAdapter, adapterField,
+              jsonWriter, value);
+          propWrite.nextControlFlow("else");
+          propWrite.addStatement("$N.write($N, $L)", adapterField, jsonWriter, value);
+          propWrite.endControlFlow();
+        } else {
+          propWrite.addStatement("$N.write($N, $L)", adapterField, jsonWriter, value);
+        }
+        propWrite.endControlFlow();
+      } else if (specializedFlag != null) {
+        propWrite.beginControlFlow("if ($N)", specializedFlag);
+        propWrite.add(specializedWrite(prop.type, jsonWriter, value));
+        propWrite.nextControlFlow("else");
+        addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
+        propWrite.add(block.build());
+        propWrite.addStatement("$N.write($N, $L)", adapterField, jsonWriter, value);
+        propWrite.endControlFlow();
       } else {
         block.add("{\n");
         block.indent();
         addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
-        block.addStatement("$N.write($N, $N.$N())", adapterField, jsonWriter, annotatedParam, prop.methodName);
+        block.addStatement("$N.write($N, $L)", adapterField, jsonWriter, value);
         block.unindent();
         block.add("}\n");
-        writeMethod.addCode(block.build());
+        propWrite.add(block.build());
+      }
+      writes.put(prop, propWrite.build());
+    }
+    if (estimateBytecodeSize(writes.values()) > HUGE_METHOD_LIMIT / 2) {
+      for (Map.Entry<Property, CodeBlock> write : writes.entrySet()) {
+        MethodSpec helper = helperMethod("write_" + write.getKey().humanName)
+            .addParameter(jsonWriter)
+            .addParameter(annotatedParam)
+            .addCode(write.getValue())
+            .build();
+        helperMethods.add(helper);
+        write.setValue(CodeBlock.builder()
+            .addStatement("$N($N, $N)", helper, jsonWriter, annotatedParam)
+            .build());
       }
     }
+    for (CodeBlock write : writes.values()) {
+      writeMethod.addCode(write);
+    }
     writeMethod.addStatement("$N.endObject()", jsonWriter);
 
     return writeMethod.build();
   }
 
+  /**
+   * Implements {@link Utf8TypeAdapter}: writeUtf8() mirrors write() with the names encoded once
+   * into static constants, writes the values of the specialized types itself, and hands other
+   * values to their adapter, directly if it is another {@link Utf8TypeAdapter}.
+   */
+  private void addUtf8Writer(TypeSpec.Builder classBuilder,
+      TypeName autoValueClassName,
+      List<Property> properties,
+      ImmutableMap<TypeName, FieldSpec> adapters,
+      ImmutableMap<TypeName, FieldSpec> flags,
+      ClassName jsonAdapter,
+      List<TypeVariableName> typeParams,
+      List<MethodSpec> helperMethods) {
+    ClassName utf8TypeAdapter = ClassName.get(Utf8TypeAdapter.class);
+    ParameterSpec out = ParameterSpec.builder(Utf8JsonWriter.class, "out").build();
+    ParameterSpec annotatedParam = ParameterSpec.builder(autoValueClassName, "object").build();
+    MethodSpec.Builder writeMethod = MethodSpec.methodBuilder("writeUtf8")
+        .addAnnotation(Override.class)
+        .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+            .addMember("value", "\"unchecked\"")
+            .build())
+        .addModifiers(PUBLIC)
+        .addParameter(out)
+        .addParameter(annotatedParam)
+        .addException(IOException.class);
+
+    writeMethod.beginControlFlow("if ($N == null)", annotatedParam);
+    writeMethod.addStatement("$N.nullValue()", out);
+    writeMethod.addStatement("return");
+    writeMethod.endControlFlow();
+
+    NameAllocator localNames = new NameAllocator();
+    localNames.newName(out.name);
+    localNames.newName(annotatedParam.name);
+    localNames.newName("gson");
+    localNames.newName("typeArgs");
+    localNames.newName("realFieldNames");
+    for (FieldSpec field : Iterables.concat(adapters.values(), flags.values())) {
+      localNames.newName(field.name);
+    }
+    NameAllocator constantNames = new NameAllocator();
+
+    writeMethod.addStatement("$N.beginObject()", out);
+    Map<Property, CodeBlock> writes = new LinkedHashMap<>();
+    for (Property prop : properties) {
+      if (prop.isTransient()) {
+        continue;
+      }
+      CodeBlock.Builder propWrite = CodeBlock.builder();
+      if (useFieldNamePolicy && !prop.hasSerializedNameAnnotation()) {
+        // Only known at runtime.
+        propWrite.addStatement("$N.name($L)", out, writtenName(prop));
+      } else {
+        FieldSpec name = FieldSpec.builder(byte[].class,
+            constantNames.newName(LOWER_CAMEL.to(UPPER_UNDERSCORE, prop.humanName) + "_NAME"),
+            PRIVATE, STATIC, FINAL)
+            .initializer("$T.encodeName($L)", Utf8JsonWriter.class, writtenName(prop))
+            .build();
+        classBuilder.addField(name);
+        propWrite.addStatement("$N.name($N)", out, name);
+      }
+      FieldSpec adapterField = adapters.get(prop.type);
+      FieldSpec flag = flags.get(prop.type);
+      CodeBlock value = CodeBlock.of("$N.$N()", annotatedParam, prop.methodName);
+      CodeBlock.Builder block = CodeBlock.builder();
+      addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
+      if (!prop.type.isPrimitive()) {
+        String local = localNames.newName(prop.humanName);
+        propWrite.addStatement("$T $N = $L", prop.type.withoutAnnotations(), local, value);
+        value = CodeBlock.of("$N", local);
+        propWrite.beginControlFlow("if ($L == null)", value);
+        propWrite.addStatement("$N.nullValue()", out);
+        if (flag != null) {
+          propWrite.nextControlFlow("else if ($N)", flag);
+          propWrite.addStatement("$N.value($L)", out, value);
+        }
+        propWrite.nextControlFlow("else");
+        propWrite.add(block.build());
+        propWrite.beginControlFlow("if ($N instanceof $T)", adapterField, utf8TypeAdapter);
+        propWrite.addStatement("(($T) $N).writeUtf8($N, $L)",
+            ParameterizedTypeName.get(utf8TypeAdapter, prop.type.withoutAnnotations()),
+            adapterField, out, value);
+        propWrite.nextControlFlow("else");
+        propWrite.addStatement("$N.write($N.jsonWriter(), $L)", adapterField, out, value);
+        propWrite.endControlFlow();
+        propWrite.endControlFlow();
+      } else if (flag != null) {
+        propWrite.beginControlFlow("if ($N)", flag);
+        propWrite.addStatement("$N.value($L)", out, value);
+        propWrite.nextControlFlow("else");
+        propWrite.add(block.build());
+        propWrite.addStatement("$N.write($N.jsonWriter(), $L)", adapterField, out, value);
+        propWrite.endControlFlow();
+      } else {
+        propWrite.add("{\n");
+        propWrite.indent();
+        propWrite.add(block.build());
+        propWrite.addStatement("$N.write($N.jsonWriter(), $L)", adapterField, out, value);
+        propWrite.unindent();
+        propWrite.add("}\n");
+      }
+      writes.put(prop, propWrite.build());
+    }
+    if (estimateBytecodeSize(writes.values()) > HUGE_METHOD_LIMIT / 2) {
+      for (Map.Entry<Property, CodeBlock> write : writes.entrySet()) {
+        MethodSpec helper = helperMethod("writeUtf8_" + write.getKey().humanName)
+            .addParameter(out)
+            .addParameter(annotatedParam)
+            .addCode(write.getValue())
+            .build();
+        helperMethods.add(helper);
+        write.setValue(CodeBlock.builder()
+            .addStatement("$N($N, $N)", helper, out, annotatedParam)
+            .build());
+      }
+    }
+    for (CodeBlock write : writes.values()) {
+      writeMethod.addCode(write);
+    }
+    writeMethod.addStatement("$N.endObject()", out);
+    MethodSpec writeUtf8 = writeMethod.build();
+
+    ParameterSpec stream = ParameterSpec.builder(OutputStream.class, "stream").build();
+    classBuilder.addSuperinterface(ParameterizedTypeName.get(utf8TypeAdapter, autoValueClassName))
+        .addMethod(writeUtf8)
+        .addMethod(MethodSpec.methodBuilder("toUtf8Bytes")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .addParameter(annotatedParam)
+            .returns(byte[].class)
+            .addException(IOException.class)
+            .addStatement("$1T $2N = $1T.create(gson)", Utf8JsonWriter.class, out)
+            .addStatement("$N($N, $N)", writeUtf8, out, annotatedParam)
+            .addStatement("return $N.toByteArray()", out)
+            .build())
+        .addMethod(MethodSpec.methodBuilder("writeTo")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .addParameter(stream)
+            .addParameter(annotatedParam)
+            .addException(IOException.class)
+            .addStatement("$1T $2N = $1T.create(gson, $3N)", Utf8JsonWriter.class, out, stream)
+            .addStatement("$N($N, $N)", writeUtf8, out, annotatedParam)
+            .addStatement("$N.flush()", out)
+            .build());
+  }
+
   private MethodSpec createReadMethod(ClassName className,
       ClassName autoValueClassName,
       TypeName autoValueTypeName,
       List<Property> properties,
       ImmutableMap<TypeName, FieldSpec> adapters,
+      ImmutableMap<TypeName, FieldSpec> specializedFlags,
+      ImmutableMap<TypeName, ClassName> linkedAdapters,
       ClassName jsonAdapter,
       List<TypeVariableName> typeParams,
       @Nullable BuilderContext builderContext,
-      ProcessingEnvironment processingEnvironment) {
-    ParameterSpec jsonReader = ParameterSpec.builder(JsonReader.class, "jsonReader").build();
-    MethodSpec.Builder readMethod = MethodSpec.methodBuilder("read")
+      ProcessingEnvironment processingEnvironment,
+      List<MethodSpec> helperMethods,
+      @Nullable Utf8Names utf8Names) {
+    // With utf8Names, this is readUtf8(), which reads from a Utf8JsonReader instead.
+    boolean utf8 = utf8Names != null;
+    ParameterSpec jsonReader = ParameterSpec.builder(
+        utf8 ? Utf8JsonReader.class : JsonReader.class, "jsonReader").build();
+    MethodSpec.Builder readMethod = MethodSpec.methodBuilder(utf8 ? "readUtf8" : "read")
         .addAnnotation(Override.class)
         .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
             .addMember("value", "\"unchecked\"")
@@ -852,10 +1743,22 @@ public class AutoValueGsonExtension extends AutoValueExtension {
             autoValueClassName, builderMethod.getSimpleName());
       }
     } else {
+      // Each property is read into a local, so the names used unqualified in the method body must
+      // not be shadowed, like in write().
+      NameAllocator localNames = new NameAllocator();
+      localNames.newName(jsonReader.name);
+      for (String name : Arrays.asList("gson", "typeArgs", "realFieldNames", "expectedNames",
+          "expectedOrderHits", "expectedOrderMisses", "_name", "_expected", "_hits", "_misses",
+          "_index")) {
+        localNames.newName(name);
+      }
+      for (FieldSpec field : Iterables.concat(adapters.values(), specializedFlags.values())) {
+        localNames.newName(field.name);
+      }
       // add the properties
       for (Property prop : properties) {
         TypeName fieldType = prop.type;
-        FieldSpec field = FieldSpec.builder(fieldType, prop.humanName).build();
+        FieldSpec field = FieldSpec.builder(fieldType, localNames.newName(prop.humanName)).build();
         fields.put(prop, field);
 
         CodeBlock defaultValue = getDefaultValue(prop, field);
@@ -869,6 +1772,34 @@ public class AutoValueGsonExtension extends AutoValueExtension {
       }
     }
 
+    Map<Property, CodeBlock> reads = new LinkedHashMap<>();
+    for (Property prop : properties) {
+      if (prop.isTransient()) {
+        continue;
+      }
+      CodeBlock.Builder block = CodeBlock.builder();
+      addPropertyRead(block, prop, adapters.get(prop.type), specializedFlags.get(prop.type),
+          linkedAdapters.get(prop.type), jsonAdapter, typeParams, jsonReader, fields,
+          builderField, builderContext, processingEnvironment, utf8);
+      reads.put(prop, block.build());
+    }
+    if (estimateBytecodeSize(reads.values()) > HUGE_METHOD_LIMIT / 2) {
+      extractReadHelpers(reads, utf8 ? "readUtf8_" : "read_", jsonReader, fields, builderField,
+          helperMethods);
+    }
+
+    if (utf8) {
+      addUtf8ReadLoop(readMethod, reads, jsonReader, utf8Names);
+      return finishReadMethod(readMethod, className, autoValueTypeName, jsonReader, fields,
+          builderField, builderContext);
+    }
+
+    if (predictFieldOrder) {
+      addPredictedReadLoop(readMethod, reads, jsonReader);
+      return finishReadMethod(readMethod, className, autoValueTypeName, jsonReader, fields,
+          builderField, builderContext);
+    }
+
     readMethod.beginControlFlow("while ($N.hasNext())", jsonReader);
 
     FieldSpec name = FieldSpec.builder(String.class, "_name").build();
@@ -879,28 +1810,30 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     readMethod.addStatement("continue");
     readMethod.endControlFlow();
 
+    // Every name that is known at compile time becomes a case label, so javac can dispatch on the
+    // name's hash instead of a chain of equals() checks. @SerializedName properties come first so
+    // that they win over a plain property of the same name, as they always have.
+    Set<String> caseLabels = Sets.newHashSet();
     readMethod.beginControlFlow("switch ($N)", name);
     for (Property prop : properties) {
       if (prop.isTransient()) {
         continue;
       }
       if (prop.hasSerializedNameAnnotation()) {
-        for (String alternate : prop.serializedNameAlternate()) {
-          readMethod.addCode("case $S:\n", alternate);
+        addReadCase(readMethod,
+            readLabels(prop.serializedName(), prop.serializedNameAlternate(), caseLabels),
+            reads.get(prop));
+      }
+    }
+    if (!useFieldNamePolicy) {
+      for (Property prop : properties) {
+        if (prop.isTransient()) {
+          continue;
         }
-        readMethod.beginControlFlow("case $S:", prop.serializedName());
-        FieldSpec adapterField = adapters.get(prop.type);
-        CodeBlock.Builder block = CodeBlock.builder();
-        addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
-        if (builderField.isPresent()) {
-          addBuilderFieldSetting(
-              block, prop, adapterField, jsonReader, builderField.get(), builderContext, processingEnvironment);
-        } else {
-          addFieldSetting(block, prop, fields, adapterField, jsonReader);
+        if (!prop.hasSerializedNameAnnotation()) {
+          addReadCase(readMethod, readLabels(fieldName(prop), new String[0], caseLabels),
+              reads.get(prop));
         }
-        readMethod.addCode(block.build());
-        readMethod.addStatement("break");
-        readMethod.endControlFlow();
       }
     }
 
@@ -910,22 +1843,9 @@ public class AutoValueGsonExtension extends AutoValueExtension {
       if (prop.isTransient()) {
         continue;
       }
-      if (!prop.hasSerializedNameAnnotation()) {
-        if (useFieldNamePolicy) {
-          readMethod.beginControlFlow("if (realFieldNames.get($S).equals(_name))", prop.humanName);
-        } else {
-          readMethod.beginControlFlow("if ($S.equals(_name))", prop.humanName);
-        }
-        FieldSpec adapterField = adapters.get(prop.type);
-        CodeBlock.Builder block = CodeBlock.builder();
-        addConditionalAdapterAssignment(block, adapterField, prop, jsonAdapter, typeParams);
-        if (builderField.isPresent()) {
-          addBuilderFieldSetting(
-              block, prop, adapterField, jsonReader, builderField.get(), builderContext, processingEnvironment);
-        } else {
-          addFieldSetting(block, prop, fields, adapterField, jsonReader);
-        }
-        readMethod.addCode(block.build());
+      if (useFieldNamePolicy && !prop.hasSerializedNameAnnotation()) {
+        readMethod.beginControlFlow("if (realFieldNames.get($S).equals(_name))", prop.humanName);
+        readMethod.addCode(reads.get(prop));
         readMethod.addStatement("continue");
         readMethod.endControlFlow();
       }
@@ -936,6 +1856,107 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     readMethod.endControlFlow(); // switch
     readMethod.endControlFlow(); // while
 
+    return finishReadMethod(readMethod, className, autoValueTypeName, jsonReader, fields,
+        builderField, builderContext);
+  }
+
+  /**
+   * Adds the read loop used with {@code autovaluegson.predictFieldOrder}. Each name is first
+   * compared with the one expected after the previous property, and only dispatched through
+   * readIndex() when it doesn't match. Hits and misses are counted locally and published once per
+   * object.
+   */
+  private static void addPredictedReadLoop(MethodSpec.Builder readMethod,
+      Map<Property, CodeBlock> reads,
+      ParameterSpec jsonReader) {
+    ClassName token = ClassName.get(JsonToken.NULL.getDeclaringClass());
+    readMethod.addStatement("int _expected = 0");
+    readMethod.addStatement("int _hits = 0");
+    readMethod.addStatement("int _misses = 0");
+
+    readMethod.beginControlFlow("while ($N.hasNext())", jsonReader);
+    readMethod.addStatement("$T _name = $N.nextName()", String.class, jsonReader);
+    readMethod.addStatement("int _index");
+    readMethod.beginControlFlow(
+        "if (_expected < expectedNames.length && expectedNames[_expected].equals(_name))");
+    readMethod.addStatement("_index = _expected");
+    readMethod.addStatement("_hits++");
+    readMethod.nextControlFlow("else");
+    readMethod.addStatement("_index = readIndex(_name)");
+    readMethod.addStatement("_misses++");
+    readMethod.endControlFlow();
+    readMethod.beginControlFlow("if (_index >= 0)");
+    readMethod.addStatement("_expected = _index + 1");
+    readMethod.endControlFlow();
+
+    readMethod.beginControlFlow("if ($N.peek() == $T.NULL)", jsonReader, token);
+    readMethod.addStatement("$N.nextNull()", jsonReader);
+    readMethod.addStatement("continue");
+    readMethod.endControlFlow();
+
+    readMethod.beginControlFlow("switch (_index)");
+    int index = 0;
+    for (CodeBlock read : reads.values()) {
+      readMethod.beginControlFlow("case $L:", index++);
+      readMethod.addCode(read);
+      readMethod.addStatement("break");
+      readMethod.endControlFlow();
+    }
+    readMethod.beginControlFlow("default:");
+    readMethod.addStatement("$N.skipValue()", jsonReader);
+    readMethod.endControlFlow(); // default case
+    readMethod.endControlFlow(); // switch
+    readMethod.endControlFlow(); // while
+
+    readMethod.addStatement("expectedOrderHits.add(_hits)");
+    readMethod.addStatement("expectedOrderMisses.add(_misses)");
+  }
+
+  /**
+   * Adds the read loop of readUtf8(), which matches each name against the encoded names without
+   * decoding it, and dispatches on the index of the match.
+   */
+  private static void addUtf8ReadLoop(MethodSpec.Builder readMethod,
+      Map<Property, CodeBlock> reads,
+      ParameterSpec jsonReader,
+      Utf8Names utf8Names) {
+    ClassName token = ClassName.get(JsonToken.NULL.getDeclaringClass());
+    readMethod.beginControlFlow("while ($N.hasNext())", jsonReader);
+    readMethod.addStatement("int _index = $N.selectName($N)", jsonReader, utf8Names.field);
+
+    readMethod.beginControlFlow("if ($N.peek() == $T.NULL)", jsonReader, token);
+    readMethod.addStatement("$N.nextNull()", jsonReader);
+    readMethod.addStatement("continue");
+    readMethod.endControlFlow();
+
+    readMethod.beginControlFlow("switch (_index)");
+    for (Map.Entry<Property, CodeBlock> read : reads.entrySet()) {
+      List<Integer> labels = utf8Names.indices.get(read.getKey());
+      if (labels.isEmpty()) {
+        continue;
+      }
+      for (Integer label : labels.subList(0, labels.size() - 1)) {
+        readMethod.addCode("case $L:\n", label);
+      }
+      readMethod.beginControlFlow("case $L:", labels.get(labels.size() - 1));
+      readMethod.addCode(read.getValue());
+      readMethod.addStatement("break");
+      readMethod.endControlFlow();
+    }
+    readMethod.beginControlFlow("default:");
+    readMethod.addStatement("$N.skipValue()", jsonReader);
+    readMethod.endControlFlow(); // default case
+    readMethod.endControlFlow(); // switch
+    readMethod.endControlFlow(); // while
+  }
+
+  private static MethodSpec finishReadMethod(MethodSpec.Builder readMethod,
+      ClassName className,
+      TypeName autoValueTypeName,
+      ParameterSpec jsonReader,
+      Map<Property, FieldSpec> fields,
+      Optional<FieldSpec> builderField,
+      @Nullable BuilderContext builderContext) {
     readMethod.addStatement("$N.endObject()", jsonReader);
 
     if (builderField.isPresent()) {
@@ -961,6 +1982,115 @@ public class AutoValueGsonExtension extends AutoValueExtension {
     return readMethod.build();
   }
 
+  /**
+   * Returns the JSON name of a property without a {@code SerializedName} annotation, when it is
+   * known at compile time.
+   */
+  private String fieldName(Property prop) {
+    return fieldNamingPolicy != null
+        ? Util.translateName(fieldNamingPolicy, prop.humanName)
+        : prop.humanName;
+  }
+
+  /**
+   * Adds a {@code case} block to the name switch of the read method which reads {@code prop}. Labels
+   * that are already in use by an earlier property are skipped, since the earlier property has
+   * always taken precedence.
+   */
+  private static void addReadCase(MethodSpec.Builder readMethod,
+      List<String> labels,
+      CodeBlock read) {
+    if (labels.isEmpty()) {
+      return;
+    }
+    for (String label : labels.subList(0, labels.size() - 1)) {
+      readMethod.addCode("case $S:\n", label);
+    }
+    readMethod.beginControlFlow("case $S:", labels.get(labels.size() - 1));
+    readMethod.addCode(read);
+    readMethod.addStatement("break");
+    readMethod.endControlFlow();
+  }
+
+  /**
+   * Moves the code reading each property into a helper method, replacing it in {@code reads} with
+   * a call. Without a builder, the helper returns the value to store in the property's local.
+   */
+  private static void extractReadHelpers(Map<Property, CodeBlock> reads,
+      String prefix,
+      ParameterSpec jsonReader,
+      Map<Property, FieldSpec> fields,
+      Optional<FieldSpec> builderField,
+      List<MethodSpec> helperMethods) {
+    for (Map.Entry<Property, CodeBlock> read : reads.entrySet()) {
+      MethodSpec.Builder helper = helperMethod(prefix + read.getKey().humanName)
+          .addParameter(jsonReader);
+      CodeBlock.Builder call = CodeBlock.builder();
+      if (builderField.isPresent()) {
+        FieldSpec builder = builderField.get();
+        helper.addParameter(builder.type, builder.name)
+            .addCode(read.getValue());
+        call.addStatement("$N($N, $N)", helper.build(), jsonReader, builder);
+      } else {
+        FieldSpec field = fields.get(read.getKey());
+        helper.returns(field.type)
+            .addStatement("$T $N", field.type, field)
+            .addCode(read.getValue())
+            .addStatement("return $N", field);
+        call.addStatement("$N = $N($N)", field, helper.build(), jsonReader);
+      }
+      helperMethods.add(helper.build());
+      read.setValue(call.build());
+    }
+  }
+
+  private static MethodSpec.Builder helperMethod(String name) {
+    return MethodSpec.methodBuilder(name)
+        .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+            .addMember("value", "\"unchecked\"")
+            .build())
+        .addModifiers(PRIVATE)
+        .addException(IOException.class);
+  }
+
+  /**
+   * Returns a rough estimate of the bytecode javac emits for {@code blocks}, each of which handles
+   * one property, including its share of the dispatch around it.
+   */
+  private static int estimateBytecodeSize(Collection<CodeBlock> blocks) {
+    int size = 0;
+    for (CodeBlock block : blocks) {
+      size += 32;
+      String code = block.toString();
+      for (int i = 0; i < code.length(); i++) {
+        if (code.charAt(i) == ';') {
+          size += 12;
+        } else if (code.charAt(i) == '{') {
+          size += 4;
+        }
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Returns the names a property is read from, leaving out those already claimed by a previous
+   * property in {@code caseLabels}.
+   */
+  private static List<String> readLabels(String serializedName, String[] alternates,
+      Set<String> caseLabels) {
+    List<String> labels = Lists.newArrayList();
+    for (String alternate : alternates) {
+      if (caseLabels.add(alternate)) {
+        labels.add(alternate);
+      }
+    }
+    if (caseLabels.add(serializedName)) {
+      labels.add(serializedName);
+    }
+    return labels;
+  }
+
   /**
    * Returns a default value for initializing well-known types, or else {@code null}.
    */
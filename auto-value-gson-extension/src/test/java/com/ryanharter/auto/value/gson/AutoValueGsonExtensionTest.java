@@ -4,22 +4,33 @@ import com.google.auto.value.processor.AutoValueProcessor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.lang.reflect.Method;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
 import javax.lang.model.SourceVersion;
 import javax.tools.JavaFileObject;
 import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardLocation;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -140,6 +151,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
         + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.Util;\n"
         + "import com.ryanharter.auto.value.gson.internal.WildcardUtil;\n"
         + "import java.io.IOException;\n"
@@ -169,7 +181,8 @@ public class AutoValueGsonExtensionTest {
         + "    super(a, b, c, d, e, f, g, h, i, j, o);\n"
         + "  }\n"
         + "\n"
-        + "  static final class GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "  static final class GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<String> string_adapter;\n"
         + "    private volatile TypeAdapter<int[]> array__int_adapter;\n"
         + "    private volatile TypeAdapter<Integer> int__adapter;\n"
@@ -211,24 +224,26 @@ public class AutoValueGsonExtensionTest {
         + "      }\n"
         + "      jsonWriter.beginObject();\n"
         + "      jsonWriter.name(realFieldNames.get(\"a\"));\n"
-        + "      if (object.a() == null) {\n"
+        + "      String a = object.a();\n"
+        + "      if (a == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.a());\n"
+        + "        string_adapter.write(jsonWriter, a);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"b\"));\n"
-        + "      if (object.b() == null) {\n"
+        + "      int[] b = object.b();\n"
+        + "      if (b == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<int[]> array__int_adapter = this.array__int_adapter;\n"
         + "        if (array__int_adapter == null) {\n"
         + "          this.array__int_adapter = array__int_adapter = gson.getAdapter(int[].class);\n"
         + "        }\n"
-        + "        array__int_adapter.write(jsonWriter, object.b());\n"
+        + "        array__int_adapter.write(jsonWriter, b);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"c\"));\n"
         + "      {\n"
@@ -239,27 +254,30 @@ public class AutoValueGsonExtensionTest {
         + "        int__adapter.write(jsonWriter, object.c());\n"
         + "      }\n"
         + "      jsonWriter.name(\"_D\");\n"
-        + "      if (object.d() == null) {\n"
+        + "      String d = object.d();\n"
+        + "      if (d == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.d());\n"
+        + "        string_adapter.write(jsonWriter, d);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"e\"));\n"
-        + "      if (object.e() == null) {\n"
+        + "      String e = object.e();\n"
+        + "      if (e == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.e());\n"
+        + "        string_adapter.write(jsonWriter, e);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"f\"));\n"
-        + "      if (object.f() == null) {\n"
+        + "      ImmutableMap<String, Number> f = object.f();\n"
+        + "      if (f == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<ImmutableMap<String, Number>> immutableMap__string_number_adapter "
@@ -270,10 +288,11 @@ public class AutoValueGsonExtensionTest {
         + ".getAdapter(TypeToken.getParameterized(ImmutableMap.class, String.class, Number.class)"
         + ");\n"
         + "        }\n"
-        + "        immutableMap__string_number_adapter.write(jsonWriter, object.f());\n"
+        + "        immutableMap__string_number_adapter.write(jsonWriter, f);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"g\"));\n"
-        + "      if (object.g() == null) {\n"
+        + "      Set<String> g = object.g();\n"
+        + "      if (g == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Set<String>> set__string_adapter = this.set__string_adapter;\n"
@@ -281,10 +300,11 @@ public class AutoValueGsonExtensionTest {
         + "          this.set__string_adapter = set__string_adapter = (TypeAdapter<Set<String>>) "
         + "gson.getAdapter(TypeToken.getParameterized(Set.class, String.class));\n"
         + "        }\n"
-        + "        set__string_adapter.write(jsonWriter, object.g());\n"
+        + "        set__string_adapter.write(jsonWriter, g);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"h\"));\n"
-        + "      if (object.h() == null) {\n"
+        + "      Map<String, Set<String>> h = object.h();\n"
+        + "      if (h == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Map<String, Set<String>>> map__string_set__string_adapter = this"
@@ -294,20 +314,22 @@ public class AutoValueGsonExtensionTest {
         + "(TypeAdapter<Map<String, Set<String>>>) gson.getAdapter(TypeToken.getParameterized(Map"
         + ".class, String.class, TypeToken.getParameterized(Set.class, String.class).getType()));\n"
         + "        }\n"
-        + "        map__string_set__string_adapter.write(jsonWriter, object.h());\n"
+        + "        map__string_set__string_adapter.write(jsonWriter, h);\n"
         + "      }\n"
         + "      jsonWriter.name(\"_I\");\n"
-        + "      if (object.i() == null) {\n"
+        + "      String i = object.i();\n"
+        + "      if (i == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.i());\n"
+        + "        string_adapter.write(jsonWriter, i);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"j\"));\n"
-        + "      if (object.j() == null) {\n"
+        + "      List<? extends String> j = object.j();\n"
+        + "      if (j == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<List<? extends String>> list__wildcard__string_adapter = this"
@@ -317,10 +339,12 @@ public class AutoValueGsonExtensionTest {
         + "(TypeAdapter<List<? extends String>>) gson.getAdapter(TypeToken.getParameterized(List"
         + ".class, WildcardUtil.subtypeOf(String.class)));\n"
         + "        }\n"
-        + "        list__wildcard__string_adapter.write(jsonWriter, object.j());\n"
+        + "        list__wildcard__string_adapter.write(jsonWriter, j);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"o\"));\n"
-        + "      if (object.o() == null) {\n"
+        + "      Map<String, Map<String, Map<String, Map<String, Map<String, ? extends String>>>>> o "
+        + "= object.o();\n"
+        + "      if (o == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, ? "
@@ -343,7 +367,7 @@ public class AutoValueGsonExtensionTest {
         + "        }\n"
         + "        "
         + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
-        + ".write(jsonWriter, object.o());\n"
+        + ".write(jsonWriter, o);\n"
         + "      }\n"
         + "      jsonWriter.endObject();\n"
         + "    }\n"
@@ -508,6 +532,51 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    @SuppressWarnings(\"unchecked\")\n"
+        + "    public void link() {\n"
+        + "      if (this.string_adapter == null) {\n"
+        + "        this.string_adapter = gson.getAdapter(String.class);\n"
+        + "      }\n"
+        + "      if (this.array__int_adapter == null) {\n"
+        + "        this.array__int_adapter = gson.getAdapter(int[].class);\n"
+        + "      }\n"
+        + "      if (this.int__adapter == null) {\n"
+        + "        this.int__adapter = gson.getAdapter(Integer.class);\n"
+        + "      }\n"
+        + "      if (this.immutableMap__string_number_adapter == null) {\n"
+        + "        this.immutableMap__string_number_adapter = (TypeAdapter<ImmutableMap<String, "
+        + "Number>>) gson.getAdapter(TypeToken.getParameterized(ImmutableMap.class, "
+        + "String.class, Number.class));\n"
+        + "      }\n"
+        + "      if (this.set__string_adapter == null) {\n"
+        + "        this.set__string_adapter = (TypeAdapter<Set<String>>) gson.getAdapter("
+        + "TypeToken.getParameterized(Set.class, String.class));\n"
+        + "      }\n"
+        + "      if (this.map__string_set__string_adapter == null) {\n"
+        + "        this.map__string_set__string_adapter = (TypeAdapter<Map<String, "
+        + "Set<String>>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Set.class, String.class).getType()));\n"
+        + "      }\n"
+        + "      if (this.list__wildcard__string_adapter == null) {\n"
+        + "        this.list__wildcard__string_adapter = (TypeAdapter<List<? extends String>>) "
+        + "gson.getAdapter(TypeToken.getParameterized(List.class, WildcardUtil.subtypeOf("
+        + "String.class)));\n"
+        + "      }\n"
+        + "      if (this."
+        + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
+        + " == null) {\n"
+        + "        this."
+        + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter = "
+        + "(TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, ? extends "
+        + "String>>>>>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Map.class, String.class, TypeToken.getParameterized("
+        + "Map.class, String.class, TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Map.class, String.class, WildcardUtil.subtypeOf("
+        + "String.class)).getType()).getType()).getType()).getType()));\n"
+        + "      }\n"
+        + "    }\n"
         + "  }\n"
         + "}"
     );
@@ -542,6 +611,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonReader;\n"
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import java.io.IOException;\n"
         + "import " + GENERATED + ";\n"
         + "\n"
@@ -549,7 +619,8 @@ public class AutoValueGsonExtensionTest {
         + "    value = \"com.ryanharter.auto.value.gson.AutoValueGsonExtension\",\n"
         + "    comments = \"https://github.com/rharter/auto-value-gson\"\n"
         + ")\n"
-        + "final class Test_GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "final class Test_GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "  private volatile TypeAdapter<String> string_adapter;\n"
         + "\n"
         + "  private final Gson gson;\n"
@@ -567,14 +638,15 @@ public class AutoValueGsonExtensionTest {
         + "    }\n"
         + "    jsonWriter.beginObject();\n"
         + "    jsonWriter.name(\"a\");\n"
-        + "    if (object.a() == null) {\n"
+        + "    String a = object.a();\n"
+        + "    if (a == null) {\n"
         + "      jsonWriter.nullValue();\n"
         + "    } else {\n"
         + "      TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "      if (string_adapter == null) {\n"
         + "        this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "      }\n"
-        + "      string_adapter.write(jsonWriter, object.a());\n"
+        + "      string_adapter.write(jsonWriter, a);\n"
         + "    }\n"
         + "    jsonWriter.endObject();\n"
         + "  }\n"
@@ -595,15 +667,15 @@ public class AutoValueGsonExtensionTest {
         + "        continue;\n"
         + "      }\n"
         + "      switch (_name) {\n"
-        + "        default: {\n"
-        + "          if (\"a\".equals(_name)) {\n"
-        + "            TypeAdapter<String> string_adapter = this.string_adapter;\n"
-        + "            if (string_adapter == null) {\n"
-        + "              this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
-        + "            }\n"
-        + "            a = string_adapter.read(jsonReader);\n"
-        + "            continue;\n"
+        + "        case \"a\": {\n"
+        + "          TypeAdapter<String> string_adapter = this.string_adapter;\n"
+        + "          if (string_adapter == null) {\n"
+        + "            this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "          }\n"
+        + "          a = string_adapter.read(jsonReader);\n"
+        + "          break;\n"
+        + "        }\n"
+        + "        default: {\n"
         + "          jsonReader.skipValue();\n"
         + "        }\n"
         + "      }\n"
@@ -616,6 +688,13 @@ public class AutoValueGsonExtensionTest {
         + "  public String toString() {\n"
         + "    return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")\").toString();\n"
         + "  }\n"
+        + "\n"
+        + "  @Override\n"
+        + "  public void link() {\n"
+        + "    if (this.string_adapter == null) {\n"
+        + "      this.string_adapter = gson.getAdapter(String.class);\n"
+        + "    }\n"
+        + "  }\n"
         + "}\n"
     );
 
@@ -660,6 +739,7 @@ public class AutoValueGsonExtensionTest {
             + "import com.google.gson.stream.JsonReader;\n"
             + "import com.google.gson.stream.JsonToken;\n"
             + "import com.google.gson.stream.JsonWriter;\n"
+            + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
             + "import java.io.IOException;\n"
             + "import java.lang.reflect.Type;\n"
             + "import " + GENERATED + ";\n"
@@ -668,7 +748,8 @@ public class AutoValueGsonExtensionTest {
             + "    value = \"com.ryanharter.auto.value.gson.AutoValueGsonExtension\",\n"
             + "    comments = \"https://github.com/rharter/auto-value-gson\"\n"
             + ")\n"
-            + "final class Test_GsonTypeAdapter<T> extends TypeAdapter<Test<T>> {\n"
+            + "final class Test_GsonTypeAdapter<T> extends TypeAdapter<Test<T>>"
+            + " implements LinkableAdapter {\n"
             + "  private volatile TypeAdapter<T> T_adapter;\n"
             + "\n"
             + "  private final Gson gson;\n"
@@ -689,7 +770,8 @@ public class AutoValueGsonExtensionTest {
             + "    }\n"
             + "    jsonWriter.beginObject();\n"
             + "    jsonWriter.name(\"a\");\n"
-            + "    if (object.a() == null) {\n"
+            + "    T a = object.a();\n"
+            + "    if (a == null) {\n"
             + "      jsonWriter.nullValue();\n"
             + "    } else {\n"
             + "      TypeAdapter<T> T_adapter = this.T_adapter;\n"
@@ -697,7 +779,7 @@ public class AutoValueGsonExtensionTest {
             + "        this.T_adapter = T_adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken"
             + ".get(typeArgs[0]));\n"
             + "      }\n"
-            + "      T_adapter.write(jsonWriter, object.a());\n"
+            + "      T_adapter.write(jsonWriter, a);\n"
             + "    }\n"
             + "    jsonWriter.endObject();\n"
             + "  }\n"
@@ -718,15 +800,15 @@ public class AutoValueGsonExtensionTest {
             + "        continue;\n"
             + "      }\n"
             + "      switch (_name) {\n"
-            + "        default: {\n"
-            + "          if (\"a\".equals(_name)) {\n"
-            + "            TypeAdapter<T> T_adapter = this.T_adapter;\n"
-            + "            if (T_adapter == null) {\n"
-            + "              this.T_adapter = T_adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(typeArgs[0]));\n"
-            + "            }\n"
-            + "            a = T_adapter.read(jsonReader);\n"
-            + "            continue;\n"
+            + "        case \"a\": {\n"
+            + "          TypeAdapter<T> T_adapter = this.T_adapter;\n"
+            + "          if (T_adapter == null) {\n"
+            + "            this.T_adapter = T_adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get(typeArgs[0]));\n"
             + "          }\n"
+            + "          a = T_adapter.read(jsonReader);\n"
+            + "          break;\n"
+            + "        }\n"
+            + "        default: {\n"
             + "          jsonReader.skipValue();\n"
             + "        }\n"
             + "      }\n"
@@ -739,6 +821,15 @@ public class AutoValueGsonExtensionTest {
             + "  public String toString() {\n"
             + "    return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")\").toString();\n"
             + "  }\n"
+            + "\n"
+            + "  @Override\n"
+            + "  @SuppressWarnings(\"unchecked\")\n"
+            + "  public void link() {\n"
+            + "    if (this.T_adapter == null) {\n"
+            + "      this.T_adapter = (TypeAdapter<T>) gson.getAdapter(TypeToken.get("
+            + "typeArgs[0]));\n"
+            + "    }\n"
+            + "  }\n"
             + "}"
     );
 
@@ -830,6 +921,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
         + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.WildcardUtil;\n"
         + "import java.io.IOException;\n"
         + "import java.lang.Integer;\n"
@@ -857,7 +949,8 @@ public class AutoValueGsonExtensionTest {
         + "    super(a, b, c, d, e, f, g, h, i, j, o);\n"
         + "  }\n"
         + "\n"
-        + "  static final class GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "  static final class GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<String> string_adapter;\n"
         + "    private volatile TypeAdapter<int[]> array__int_adapter;\n"
         + "    private volatile TypeAdapter<Integer> int__adapter;\n"
@@ -884,24 +977,26 @@ public class AutoValueGsonExtensionTest {
         + "      }\n"
         + "      jsonWriter.beginObject();\n"
         + "      jsonWriter.name(\"a\");\n"
-        + "      if (object.a() == null) {\n"
+        + "      String a = object.a();\n"
+        + "      if (a == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.a());\n"
+        + "        string_adapter.write(jsonWriter, a);\n"
         + "      }\n"
         + "      jsonWriter.name(\"b\");\n"
-        + "      if (object.b() == null) {\n"
+        + "      int[] b = object.b();\n"
+        + "      if (b == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<int[]> array__int_adapter = this.array__int_adapter;\n"
         + "        if (array__int_adapter == null) {\n"
         + "          this.array__int_adapter = array__int_adapter = gson.getAdapter(int[].class);\n"
         + "        }\n"
-        + "        array__int_adapter.write(jsonWriter, object.b());\n"
+        + "        array__int_adapter.write(jsonWriter, b);\n"
         + "      }\n"
         + "      jsonWriter.name(\"c\");\n"
         + "      {\n"
@@ -912,27 +1007,30 @@ public class AutoValueGsonExtensionTest {
         + "        int__adapter.write(jsonWriter, object.c());\n"
         + "      }\n"
         + "      jsonWriter.name(\"_D\");\n"
-        + "      if (object.d() == null) {\n"
+        + "      String d = object.d();\n"
+        + "      if (d == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.d());\n"
+        + "        string_adapter.write(jsonWriter, d);\n"
         + "      }\n"
         + "      jsonWriter.name(\"e\");\n"
-        + "      if (object.e() == null) {\n"
+        + "      String e = object.e();\n"
+        + "      if (e == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.e());\n"
+        + "        string_adapter.write(jsonWriter, e);\n"
         + "      }\n"
         + "      jsonWriter.name(\"f\");\n"
-        + "      if (object.f() == null) {\n"
+        + "      ImmutableMap<String, Number> f = object.f();\n"
+        + "      if (f == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<ImmutableMap<String, Number>> immutableMap__string_number_adapter "
@@ -943,10 +1041,11 @@ public class AutoValueGsonExtensionTest {
         + ".getAdapter(TypeToken.getParameterized(ImmutableMap.class, String.class, Number.class)"
         + ");\n"
         + "        }\n"
-        + "        immutableMap__string_number_adapter.write(jsonWriter, object.f());\n"
+        + "        immutableMap__string_number_adapter.write(jsonWriter, f);\n"
         + "      }\n"
         + "      jsonWriter.name(\"g\");\n"
-        + "      if (object.g() == null) {\n"
+        + "      Set<String> g = object.g();\n"
+        + "      if (g == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Set<String>> set__string_adapter = this.set__string_adapter;\n"
@@ -954,10 +1053,11 @@ public class AutoValueGsonExtensionTest {
         + "          this.set__string_adapter = set__string_adapter = (TypeAdapter<Set<String>>) "
             + "gson.getAdapter(TypeToken.getParameterized(Set.class, String.class));\n"
         + "        }\n"
-        + "        set__string_adapter.write(jsonWriter, object.g());\n"
+        + "        set__string_adapter.write(jsonWriter, g);\n"
         + "      }\n"
         + "      jsonWriter.name(\"h\");\n"
-        + "      if (object.h() == null) {\n"
+        + "      Map<String, Set<String>> h = object.h();\n"
+        + "      if (h == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Map<String, Set<String>>> map__string_set__string_adapter = this"
@@ -967,20 +1067,22 @@ public class AutoValueGsonExtensionTest {
         + "(TypeAdapter<Map<String, Set<String>>>) gson.getAdapter(TypeToken.getParameterized(Map"
         + ".class, String.class, TypeToken.getParameterized(Set.class, String.class).getType()));\n"
         + "        }\n"
-        + "        map__string_set__string_adapter.write(jsonWriter, object.h());\n"
+        + "        map__string_set__string_adapter.write(jsonWriter, h);\n"
         + "      }\n"
         + "      jsonWriter.name(\"_I\");\n"
-        + "      if (object.i() == null) {\n"
+        + "      String i = object.i();\n"
+        + "      if (i == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.i());\n"
+        + "        string_adapter.write(jsonWriter, i);\n"
         + "      }\n"
         + "      jsonWriter.name(\"j\");\n"
-        + "      if (object.j() == null) {\n"
+        + "      List<? extends String> j = object.j();\n"
+        + "      if (j == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<List<? extends String>> list__wildcard__string_adapter = this"
@@ -990,10 +1092,12 @@ public class AutoValueGsonExtensionTest {
         + "(TypeAdapter<List<? extends String>>) gson.getAdapter(TypeToken.getParameterized(List"
         + ".class, WildcardUtil.subtypeOf(String.class)));\n"
         + "        }\n"
-        + "        list__wildcard__string_adapter.write(jsonWriter, object.j());\n"
+        + "        list__wildcard__string_adapter.write(jsonWriter, j);\n"
         + "      }\n"
         + "      jsonWriter.name(\"o\");\n"
-        + "      if (object.o() == null) {\n"
+        + "      Map<String, Map<String, Map<String, Map<String, Map<String, ? extends String>>>>> o "
+        + "= object.o();\n"
+        + "      if (o == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, ? "
@@ -1016,7 +1120,7 @@ public class AutoValueGsonExtensionTest {
         + "        }\n"
         + "        "
  + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
-        + ".write(jsonWriter, object.o());\n"
+        + ".write(jsonWriter, o);\n"
         + "      }\n"
         + "      jsonWriter.endObject();\n"
         + "    }\n"
@@ -1065,95 +1169,94 @@ public class AutoValueGsonExtensionTest {
         + "            i = string_adapter.read(jsonReader);\n"
         + "            break;\n"
         + "          }\n"
-        + "          default: {\n"
-        + "            if (\"a\".equals(_name)) {\n"
-        + "              TypeAdapter<String> string_adapter = this.string_adapter;\n"
-        + "              if (string_adapter == null) {\n"
-        + "                this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
-        + "              }\n"
-        + "              a = string_adapter.read(jsonReader);\n"
-        + "              continue;\n"
+        + "          case \"a\": {\n"
+        + "            TypeAdapter<String> string_adapter = this.string_adapter;\n"
+        + "            if (string_adapter == null) {\n"
+        + "              this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "            }\n"
-        + "            if (\"b\".equals(_name)) {\n"
-        + "              TypeAdapter<int[]> array__int_adapter = this.array__int_adapter;\n"
-        + "              if (array__int_adapter == null) {\n"
-        + "                this.array__int_adapter = array__int_adapter = gson.getAdapter(int[]"
+        + "            a = string_adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"b\": {\n"
+        + "            TypeAdapter<int[]> array__int_adapter = this.array__int_adapter;\n"
+        + "            if (array__int_adapter == null) {\n"
+        + "              this.array__int_adapter = array__int_adapter = gson.getAdapter(int[]"
         + ".class);\n"
-        + "              }\n"
-        + "              b = array__int_adapter.read(jsonReader);\n"
-        + "              continue;\n"
         + "            }\n"
-        + "            if (\"c\".equals(_name)) {\n"
-        + "              TypeAdapter<Integer> int__adapter = this.int__adapter;\n"
-        + "              if (int__adapter == null) {\n"
-        + "                this.int__adapter = int__adapter = gson.getAdapter(Integer.class);\n"
-        + "              }\n"
-        + "              c = int__adapter.read(jsonReader);\n"
-        + "              continue;\n"
+        + "            b = array__int_adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"c\": {\n"
+        + "            TypeAdapter<Integer> int__adapter = this.int__adapter;\n"
+        + "            if (int__adapter == null) {\n"
+        + "              this.int__adapter = int__adapter = gson.getAdapter(Integer.class);\n"
         + "            }\n"
-        + "            if (\"e\".equals(_name)) {\n"
-        + "              TypeAdapter<String> string_adapter = this.string_adapter;\n"
-        + "              if (string_adapter == null) {\n"
-        + "                this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
-        + "              }\n"
-        + "              e = string_adapter.read(jsonReader);\n"
-        + "              continue;\n"
+        + "            c = int__adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"e\": {\n"
+        + "            TypeAdapter<String> string_adapter = this.string_adapter;\n"
+        + "            if (string_adapter == null) {\n"
+        + "              this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "            }\n"
-        + "            if (\"f\".equals(_name)) {\n"
-        + "              TypeAdapter<ImmutableMap<String, Number>> "
+        + "            e = string_adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"f\": {\n"
+        + "            TypeAdapter<ImmutableMap<String, Number>> "
         + "immutableMap__string_number_adapter = this.immutableMap__string_number_adapter;\n"
-        + "              if (immutableMap__string_number_adapter == null) {\n"
-        + "                this.immutableMap__string_number_adapter = "
+        + "            if (immutableMap__string_number_adapter == null) {\n"
+        + "              this.immutableMap__string_number_adapter = "
         + "immutableMap__string_number_adapter = (TypeAdapter<ImmutableMap<String, Number>>) gson"
         + ".getAdapter(TypeToken.getParameterized(ImmutableMap.class, String.class, Number.class)"
         + ");\n"
-        + "              }\n"
-        + "              f = immutableMap__string_number_adapter.read(jsonReader);\n"
-        + "              continue;\n"
         + "            }\n"
-        + "            if (\"g\".equals(_name)) {\n"
-        + "              TypeAdapter<Set<String>> set__string_adapter = this.set__string_adapter;\n"
-        + "              if (set__string_adapter == null) {\n"
-        + "                this.set__string_adapter = set__string_adapter = "
+        + "            f = immutableMap__string_number_adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"g\": {\n"
+        + "            TypeAdapter<Set<String>> set__string_adapter = this.set__string_adapter;\n"
+        + "            if (set__string_adapter == null) {\n"
+        + "              this.set__string_adapter = set__string_adapter = "
         + "(TypeAdapter<Set<String>>) gson.getAdapter(TypeToken.getParameterized(Set.class, "
         + "String.class));\n"
-        + "              }\n"
-        + "              g = set__string_adapter.read(jsonReader);\n"
-        + "              continue;\n"
         + "            }\n"
-        + "            if (\"h\".equals(_name)) {\n"
-        + "              TypeAdapter<Map<String, Set<String>>> map__string_set__string_adapter = "
+        + "            g = set__string_adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"h\": {\n"
+        + "            TypeAdapter<Map<String, Set<String>>> map__string_set__string_adapter = "
         + "this.map__string_set__string_adapter;\n"
-        + "              if (map__string_set__string_adapter == null) {\n"
-        + "                this.map__string_set__string_adapter = map__string_set__string_adapter"
+        + "            if (map__string_set__string_adapter == null) {\n"
+        + "              this.map__string_set__string_adapter = map__string_set__string_adapter"
             + " = (TypeAdapter<Map<String, Set<String>>>) gson.getAdapter(TypeToken.getParameterized"
         + "(Map.class, String.class, TypeToken.getParameterized(Set.class, String.class).getType"
         + "()));\n"
-        + "              }\n"
-        + "              h = map__string_set__string_adapter.read(jsonReader);\n"
-        + "              continue;\n"
         + "            }\n"
-        + "            if (\"j\".equals(_name)) {\n"
-        + "              TypeAdapter<List<? extends String>> list__wildcard__string_adapter = "
+        + "            h = map__string_set__string_adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"j\": {\n"
+        + "            TypeAdapter<List<? extends String>> list__wildcard__string_adapter = "
         + "this.list__wildcard__string_adapter;\n"
-        + "              if (list__wildcard__string_adapter == null) {\n"
-        + "                this.list__wildcard__string_adapter = list__wildcard__string_adapter ="
+        + "            if (list__wildcard__string_adapter == null) {\n"
+        + "              this.list__wildcard__string_adapter = list__wildcard__string_adapter ="
         + " (TypeAdapter<List<? extends String>>) gson.getAdapter(TypeToken.getParameterized(List"
         + ".class, WildcardUtil.subtypeOf(String.class)));\n"
-        + "              }\n"
-        + "              j = list__wildcard__string_adapter.read(jsonReader);\n"
-        + "              continue;\n"
         + "            }\n"
-        + "            if (\"o\".equals(_name)) {\n"
-        + "              TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, "
+        + "            j = list__wildcard__string_adapter.read(jsonReader);\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          case \"o\": {\n"
+        + "            TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, "
         + "? extends String>>>>>> "
         + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter ="
         + " this"
         + ".map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter;\n"
-        + "              if "
+        + "            if "
         + "(map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter "
         + "== null) {\n"
-        + "                this"
+        + "              this"
         + ".map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter "
         + "= map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
         + " = (TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, ? extends "
@@ -1162,12 +1265,13 @@ public class AutoValueGsonExtensionTest {
         + ".class, String.class, TypeToken.getParameterized(Map.class, String.class, TypeToken"
         + ".getParameterized(Map.class, String.class, WildcardUtil.subtypeOf(String.class))"
         + ".getType()).getType()).getType()).getType()));\n"
-        + "              }\n"
-        + "              o = "
+        + "            }\n"
+        + "            o = "
         + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
         + ".read(jsonReader);\n"
-        + "              continue;\n"
-        + "            }\n"
+        + "            break;\n"
+        + "          }\n"
+        + "          default: {\n"
         + "            jsonReader.skipValue();\n"
         + "          }\n"
         + "        }\n"
@@ -1180,89 +1284,884 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    @SuppressWarnings(\"unchecked\")\n"
+        + "    public void link() {\n"
+        + "      if (this.string_adapter == null) {\n"
+        + "        this.string_adapter = gson.getAdapter(String.class);\n"
+        + "      }\n"
+        + "      if (this.array__int_adapter == null) {\n"
+        + "        this.array__int_adapter = gson.getAdapter(int[].class);\n"
+        + "      }\n"
+        + "      if (this.int__adapter == null) {\n"
+        + "        this.int__adapter = gson.getAdapter(Integer.class);\n"
+        + "      }\n"
+        + "      if (this.immutableMap__string_number_adapter == null) {\n"
+        + "        this.immutableMap__string_number_adapter = (TypeAdapter<ImmutableMap<String, "
+        + "Number>>) gson.getAdapter(TypeToken.getParameterized(ImmutableMap.class, "
+        + "String.class, Number.class));\n"
+        + "      }\n"
+        + "      if (this.set__string_adapter == null) {\n"
+        + "        this.set__string_adapter = (TypeAdapter<Set<String>>) gson.getAdapter("
+        + "TypeToken.getParameterized(Set.class, String.class));\n"
+        + "      }\n"
+        + "      if (this.map__string_set__string_adapter == null) {\n"
+        + "        this.map__string_set__string_adapter = (TypeAdapter<Map<String, "
+        + "Set<String>>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Set.class, String.class).getType()));\n"
+        + "      }\n"
+        + "      if (this.list__wildcard__string_adapter == null) {\n"
+        + "        this.list__wildcard__string_adapter = (TypeAdapter<List<? extends String>>) "
+        + "gson.getAdapter(TypeToken.getParameterized(List.class, WildcardUtil.subtypeOf("
+        + "String.class)));\n"
+        + "      }\n"
+        + "      if (this."
+        + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
+        + " == null) {\n"
+        + "        this."
+        + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter = "
+        + "(TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, ? extends "
+        + "String>>>>>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Map.class, String.class, TypeToken.getParameterized("
+        + "Map.class, String.class, TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Map.class, String.class, WildcardUtil.subtypeOf("
+        + "String.class)).getType()).getType()).getType()).getType()));\n"
+        + "      }\n"
+        + "    }\n"
+        + "  }\n"
+        + "}"
+    );
+
+    assertAbout(javaSources())
+        .that(Arrays.asList(nullable, source))
+        .processedWith(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expected);
+  }
+
+  @Test public void privateMethod() {
+    // Private methods exclude them from AVGson consideration
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import java.util.Map;\n"
+        + "import java.util.Set;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  private static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return null;\n"
+        + "  }\n"
+        // Reference type
+        + "  public abstract String a();\n"
+        // Array type
+        + "  public abstract int[] b();\n"
+        // Primitive type
+        + "  public abstract int c();\n"
+        // Parametrized type, multiple parameters
+        + "  public abstract Map<String, Number> e();\n"
+        // Parametrized type, single parameter
+        + "  public abstract Set<? extends String> f();\n"
+        // Nested parameterized type
+        + "  public abstract Map<String, Set<? super String>> g();\n"
+        // Nullable type
+        + "  @Nullable abstract String i();\n"
+        + "}\n"
+    );
+
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compile(nullable, source);
+    assertAbout(compilations())
+        .that(compilation)
+        .succeeded();
+
+    assertThat(compilation.generatedSourceFiles()).hasSize(1);
+    assertThat(compilation.generatedSourceFiles().get(0).getName()).endsWith("AutoValue_Test.java");
+  }
+
+  @Test public void typeTargetNullableOnNestedType() {
+    // If you annotate a nested type like Map.Entry with a TYPE_USE @Nullable, then the correct
+    // spelling is `Map. @Nullable Entry`, and that's what JavaPoet will use in its output.
+    // Previously, though, we ended up generating `@Nullable Map.Entry`, which doesn't compile.
+    // We'd like to write `Map. @Nullable Entry` in the test source, too, rather than importing
+    // Map.Entry, but that runs into problems with some JDK compiler versions which end up not
+    // showing the annotation in the javax.lang.model API.
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import java.util.Map.Entry;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return null;\n"
+        + "  }\n"
+        + "  public abstract @Nullable Entry<?, ?> entry();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compile(typeTargetNullable, source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("AutoValue_Test(Map. @Nullable Entry<?, ?> entry)");
+  }
+
+  @Test public void serializedNameTakesPrecedenceOverPropertyName() {
+    // Both properties read from "b", which would be a duplicate case label if emitted twice.
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  @SerializedName(value = \"b\", alternate = \"c\") abstract String a();\n"
+        + "  abstract String b();\n"
+        + "  abstract String c();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("case \"c\":\n"
+            + "          case \"b\": {\n"
+            + "            TypeAdapter<String> string_adapter = this.string_adapter;\n"
+            + "            if (string_adapter == null) {\n"
+            + "              this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
+            + "            }\n"
+            + "            a = string_adapter.read(jsonReader);\n"
+            + "            break;\n"
+            + "          }\n"
+            + "          default: {\n"
+            + "            jsonReader.skipValue();\n"
+            + "          }\n");
+  }
+
+  @Test public void compileTimeFieldNamingPolicy() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract String firstName();\n"
+        + "  @SerializedName(\"LAST\") abstract String lastName();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.FIELD_NAMING_POLICY
+            + "=LOWER_CASE_WITH_UNDERSCORES")
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("jsonWriter.name(\"first_name\");");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("jsonWriter.name(\"LAST\");");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("case \"first_name\": {");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .doesNotContain("realFieldNames");
+  }
+
+  @Test public void specializePrimitives() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import java.util.List;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract int a();\n"
+        + "  abstract double b();\n"
+        + "  abstract String c();\n"
+        + "  abstract List<String> d();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.SPECIALIZE_PRIMITIVES)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("this.int__specialized = JsonPrimitives.usesDefaultAdapter(gson, Integer.class);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("jsonWriter.value(object.a());");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("JsonPrimitives.writeDouble(jsonWriter, object.b());");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("} else if (string_specialized) {");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("a = JsonPrimitives.readInt(jsonReader);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .doesNotContain("list__string_specialized");
+  }
+
+  @Test public void predictFieldOrder() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract String a();\n"
+        + "  @SerializedName(value = \"B\", alternate = \"bee\") abstract int b();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.PREDICT_FIELD_ORDER)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("implements FieldOrderStatistics");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("this.expectedNames = new String[] {\"a\", \"B\"};");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("if (_expected < expectedNames.length && expectedNames[_expected].equals(_name)) {");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("case \"bee\":\n"
+            + "        case \"B\":\n"
+            + "          return 1;");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("expectedOrderMisses.add(_misses);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("private final Counter expectedOrderHits = Counter.create();");
+  }
+
+  @Test public void predictFieldOrderReadsInAnyOrder() throws Exception {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract String a();\n"
+        + "  @SerializedName(\"B\") abstract int b();\n"
+        + "  abstract String c();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.PREDICT_FIELD_ORDER)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    Class<?> type = generatedClassLoader(compilation).loadClass("test.Test");
+    Gson gson = generatedGson(type);
+
+    Object inOrder = gson.fromJson("{\"a\":\"x\",\"B\":1,\"c\":\"y\"}", type);
+    assertThat(property(inOrder, "a")).isEqualTo("x");
+    assertThat(property(inOrder, "b")).isEqualTo(1);
+    assertThat(property(inOrder, "c")).isEqualTo("y");
+    FieldOrderStatistics statistics = (FieldOrderStatistics) gson.getAdapter(type);
+    assertThat(statistics.expectedOrderHits()).isEqualTo(3);
+    assertThat(statistics.expectedOrderMisses()).isEqualTo(0);
+
+    // "c" and then "a" aren't the expected names, "B" follows "a" again.
+    Object outOfOrder = gson.fromJson("{\"c\":\"z\",\"a\":\"w\",\"B\":2}", type);
+    assertThat(property(outOfOrder, "a")).isEqualTo("w");
+    assertThat(property(outOfOrder, "b")).isEqualTo(2);
+    assertThat(property(outOfOrder, "c")).isEqualTo("z");
+    assertThat(statistics.expectedOrderHits()).isEqualTo(4);
+    assertThat(statistics.expectedOrderMisses()).isEqualTo(2);
+  }
+
+  @Test public void eagerAdapters() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import java.util.List;\n"
+        + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract int a();\n"
+        + "  abstract List<String> b();\n"
+        + "  @Nullable abstract Test parent();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.EAGER_ADAPTERS)
+        .compile(nullable, source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("private final TypeAdapter<Integer> int__adapter;");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("this.int__adapter = gson.getAdapter(Integer.class);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("this.list__string_adapter = (TypeAdapter<List<String>>) "
+            + "gson.getAdapter(TypeToken.getParameterized(List.class, String.class));");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("this.test_adapter = gson.getAdapter(Test.class);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .doesNotContain("volatile");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .doesNotContain("_adapter == null");
+  }
+
+  @Test public void eagerAdaptersRoundTripRecursiveType() throws Exception {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Node", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import java.util.List;\n"
+        + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "@AutoValue abstract class Node {\n"
+        + "  public static TypeAdapter<Node> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Node.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract int id();\n"
+        + "  @Nullable abstract Node child();\n"
+        + "  abstract List<String> tags();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.EAGER_ADAPTERS, "-Xlint:unchecked")
+        .compile(nullable, source);
+    assertThat(compilation).succeeded();
+    // The cast of the List<String> adapter in the constructor is suppressed.
+    assertThat(compilation).hadWarningCount(0);
+    Class<?> type = generatedClassLoader(compilation).loadClass("test.Node");
+    // The adapter of Node asks Gson for itself while being created.
+    Gson gson = generatedGson(type);
+
+    String json = "{\"id\":1,\"child\":{\"id\":2,\"child\":{\"id\":3,\"tags\":[]},"
+        + "\"tags\":[\"b\"]},\"tags\":[\"a\"]}";
+    Object node = gson.fromJson(json, type);
+    assertThat(property(property(property(node, "child"), "child"), "id")).isEqualTo(3);
+    assertThat(gson.toJson(node)).isEqualTo(json);
+  }
+
+  @Test public void writeCallsEachGetterOnce() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  @Nullable abstract String object();\n"
+        + "  abstract String string_adapter();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compile(nullable, source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("String object_ = object.object();\n"
+            + "      if (object_ == null) {");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("string_adapter.write(jsonWriter, object_);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("String string_adapter_ = object.string_adapter();");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("string_adapter.write(jsonWriter, string_adapter_);");
+    // read() has a local for each property too.
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("String string_adapter_ = null;");
+  }
+
+  @Test public void splitsMethodsOverHugeMethodLimit() throws IOException {
+    StringBuilder source = new StringBuilder()
+        .append("package test;\n")
+        .append("import com.google.auto.value.AutoValue;\n")
+        .append("import com.google.gson.Gson;\n")
+        .append("import com.google.gson.TypeAdapter;\n")
+        .append("import java.util.List;\n")
+        .append("@AutoValue abstract class Test {\n")
+        .append("  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n")
+        .append("    return new AutoValue_Test.GsonTypeAdapter(gson);\n")
+        .append("  }\n");
+    for (int i = 0; i < 120; i++) {
+      String[] types = {"String", "int", "List<String>", "Long"};
+      source.append("  abstract ").append(types[i % types.length]).append(" p").append(i)
+          .append("();\n");
+    }
+    source.append("}\n");
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compile(JavaFileObjects.forSourceString("test.Test", source.toString()));
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("p0 = read_p0(jsonReader);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("write_p0(jsonWriter, object);");
+
+    JavaFileObject adapter = compilation.generatedFile(StandardLocation.CLASS_OUTPUT, "test",
+        "AutoValue_Test$GsonTypeAdapter.class").get();
+    byte[] classFile;
+    try (InputStream in = adapter.openInputStream()) {
+      classFile = ByteStreams.toByteArray(in);
+    }
+    Map<String, Integer> codeLengths = methodCodeLengths(classFile);
+    assertThat(codeLengths).containsKey("read");
+    assertThat(codeLengths).containsKey("write");
+    for (Map.Entry<String, Integer> method : codeLengths.entrySet()) {
+      assertThat(method.getValue()).named(method.getKey()).isAtMost(8000);
+    }
+  }
+
+  @Test public void linkNestedAdapters() {
+    JavaFileObject nested = JavaFileObjects.forSourceString("test.Nested", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.ryanharter.auto.value.gson.GenerateTypeAdapter;\n"
+        + "@GenerateTypeAdapter\n"
+        + "@AutoValue abstract class Nested {\n"
+        + "  abstract String a();\n"
+        + "}\n"
+    );
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.ryanharter.auto.value.gson.GenerateTypeAdapter;\n"
+        + "@GenerateTypeAdapter\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  abstract Nested nested();\n"
+        + "  abstract String b();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.LINK_NESTED_ADAPTERS)
+        .compile(nested, source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.Test_GsonTypeAdapter")
+        .contentsAsUtf8String()
+        .contains("if (nested_adapter instanceof Nested_GsonTypeAdapter) {\n"
+            + "        ((Nested_GsonTypeAdapter) nested_adapter).write(jsonWriter, nested);\n"
+            + "      } else {\n"
+            + "        nested_adapter.write(jsonWriter, nested);\n"
+            + "      }");
+    assertThat(compilation)
+        .generatedSourceFile("test.Test_GsonTypeAdapter")
+        .contentsAsUtf8String()
+        .contains("nested = nested_adapter instanceof Nested_GsonTypeAdapter "
+            + "? ((Nested_GsonTypeAdapter) nested_adapter).read(jsonReader) "
+            + ": nested_adapter.read(jsonReader);");
+    assertThat(compilation)
+        .generatedSourceFile("test.Test_GsonTypeAdapter")
+        .contentsAsUtf8String()
+        .doesNotContain("string_adapter instanceof");
+  }
+
+  @Test public void utf8Writer() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "import java.util.List;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract int a();\n"
+        + "  @SerializedName(\"b_name\") abstract String b();\n"
+        + "  abstract List<String> c();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.UTF8_WRITER)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("extends TypeAdapter<Test> implements Utf8TypeAdapter<Test>, LinkableAdapter {");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("private static final byte[] B_NAME = Utf8JsonWriter.encodeName(\"b_name\");");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("out.name(A_NAME);\n"
+            + "      if (int__specialized) {\n"
+            + "        out.value(object.a());\n"
+            + "      } else {");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("if (list__string_adapter instanceof Utf8TypeAdapter) {\n"
+            + "          ((Utf8TypeAdapter<List<String>>) list__string_adapter).writeUtf8(out, c);\n"
+            + "        } else {\n"
+            + "          list__string_adapter.write(out.jsonWriter(), c);\n"
+            + "        }");
+    // write() and read() are unchanged without specializePrimitives.
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .doesNotContain("JsonPrimitives.readInt");
+  }
+
+  @Test public void utf8Reader() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "import java.util.List;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract int a();\n"
+        + "  @SerializedName(value = \"b_name\", alternate = {\"b_alt\"}) abstract String b();\n"
+        + "  abstract List<String> c();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.UTF8_READER)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("extends TypeAdapter<Test> implements Utf8TypeReader<Test>, LinkableAdapter {");
+    // @SerializedName names first, like the cases of read().
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("private static final Utf8JsonReader.Names UTF8_NAMES = "
+            + "Utf8JsonReader.Names.of(\"b_alt\", \"b_name\", \"a\", \"c\");");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("public Test readUtf8(Utf8JsonReader jsonReader) throws IOException {");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("int _index = jsonReader.selectName(UTF8_NAMES);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("case 0:\n"
+            + "          case 1: {\n"
+            + "            if (string_specialized) {\n"
+            + "              b = JsonPrimitives.readString(jsonReader);");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("c = list__string_adapter instanceof Utf8TypeReader "
+            + "? ((Utf8TypeReader<List<String>>) list__string_adapter).readUtf8(jsonReader) "
+            + ": list__string_adapter.read(jsonReader.jsonReader());");
+    // read() is unchanged without specializePrimitives.
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("a = int__adapter.read(jsonReader);");
+  }
+
+  @Test public void encodedNames() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
         + "  }\n"
-        + "}"
+        + "  abstract int a();\n"
+        + "  @SerializedName(\"b_name\") abstract String b();\n"
+        + "}\n"
     );
-
-    assertAbout(javaSources())
-        .that(Arrays.asList(nullable, source))
-        .processedWith(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
-        .compilesWithoutError()
-        .and()
-        .generatesSources(expected);
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.ENCODED_NAMES)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("private static final char[] B_NAME_CHARS = "
+            + "EncodedNameJsonWriter.encodeName(\"b_name\");");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("EncodedNameJsonWriter.writeName(jsonWriter, A_NAME_CHARS, \"a\");");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("EncodedNameJsonWriter.writeName(jsonWriter, B_NAME_CHARS, \"b_name\");");
   }
 
-  @Test public void privateMethod() {
-    // Private methods exclude them from AVGson consideration
+  @Test public void encodedNamesWithFieldNamePolicy() {
     JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
         + "package test;\n"
-        + "import com.ryanharter.auto.value.gson.Nullable;\n"
         + "import com.google.auto.value.AutoValue;\n"
-        + "import com.google.gson.TypeAdapter;\n"
         + "import com.google.gson.Gson;\n"
-        + "import java.util.Map;\n"
-        + "import java.util.Set;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
         + "@AutoValue abstract class Test {\n"
-        + "  private static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
-        + "    return null;\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
         + "  }\n"
-        // Reference type
-        + "  public abstract String a();\n"
-        // Array type
-        + "  public abstract int[] b();\n"
-        // Primitive type
-        + "  public abstract int c();\n"
-        // Parametrized type, multiple parameters
-        + "  public abstract Map<String, Number> e();\n"
-        // Parametrized type, single parameter
-        + "  public abstract Set<? extends String> f();\n"
-        // Nested parameterized type
-        + "  public abstract Map<String, Set<? super String>> g();\n"
-        // Nullable type
-        + "  @Nullable abstract String i();\n"
+        + "  abstract int a();\n"
+        + "  @SerializedName(\"b_name\") abstract String b();\n"
         + "}\n"
     );
-
     Compilation compilation = javac()
         .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
-        .compile(nullable, source);
-    assertAbout(compilations())
-        .that(compilation)
-        .succeeded();
+        .withOptions("-A" + AutoValueGsonExtension.ENCODED_NAMES,
+            "-A" + AutoValueGsonExtension.USE_FIELD_NAME_POLICY)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    // Only known at runtime.
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("jsonWriter.name(realFieldNames.get(\"a\"));");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("EncodedNameJsonWriter.writeName(jsonWriter, B_NAME_CHARS, \"b_name\");");
+  }
 
-    assertThat(compilation.generatedSourceFiles()).hasSize(1);
-    assertThat(compilation.generatedSourceFiles().get(0).getName()).endsWith("AutoValue_Test.java");
+  @Test public void projections() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.annotations.SerializedName;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  abstract int a();\n"
+        + "  @SerializedName(\"b_name\") abstract String b();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.PROJECTIONS)
+        .compile(source);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("implements ProjectionReader");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("private static final List<String> PROPERTY_NAMES = "
+            + "Collections.unmodifiableList(Arrays.asList(\"a\", \"b\"));");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("case \"b_name\":\n"
+            + "          return 1;");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("return string_adapter.read(jsonReader);");
   }
 
-  @Test public void typeTargetNullableOnNestedType() {
-    // If you annotate a nested type like Map.Entry with a TYPE_USE @Nullable, then the correct
-    // spelling is `Map. @Nullable Entry`, and that's what JavaPoet will use in its output.
-    // Previously, though, we ended up generating `@Nullable Map.Entry`, which doesn't compile.
-    // We'd like to write `Map. @Nullable Entry` in the test source, too, rather than importing
-    // Map.Entry, but that runs into problems with some JDK compiler versions which end up not
-    // showing the annotation in the javax.lang.model API.
+  @Test public void projectionsOfGenericTypesDontWarn() {
     JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
         + "package test;\n"
-        + "import com.ryanharter.auto.value.gson.Nullable;\n"
         + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
         + "import com.google.gson.TypeAdapter;\n"
+        + "import java.lang.reflect.Type;\n"
+        + "import java.util.List;\n"
+        + "@AutoValue abstract class Test<T> {\n"
+        + "  public static <T> TypeAdapter<Test<T>> typeAdapter(Gson gson, Type[] types) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter<>(gson, types);\n"
+        + "  }\n"
+        + "  abstract T value();\n"
+        + "  abstract List<String> names();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.PROJECTIONS, "-Xlint:unchecked")
+        .compile(source);
+    assertThat(compilation).succeeded();
+    // readProperty() casts the adapters it looks up, like read() does.
+    assertThat(compilation).hadWarningCount(0);
+  }
+
+  @Test public void lazyJsonProperties() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
         + "import com.google.gson.Gson;\n"
-        + "import java.util.Map.Entry;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.ryanharter.auto.value.gson.LazyJson;\n"
+        + "import java.util.List;\n"
+        + "import java.util.function.Supplier;\n"
         + "@AutoValue abstract class Test {\n"
         + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
-        + "    return null;\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
         + "  }\n"
-        + "  public abstract @Nullable Entry<?, ?> entry();\n"
+        + "  abstract String a();\n"
+        + "  @LazyJson abstract Supplier<String> b();\n"
+        + "  @LazyJson abstract Supplier<List<String>> c();\n"
         + "}\n"
     );
     Compilation compilation = javac()
         .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
-        .compile(typeTargetNullable, source);
+        .compile(source);
     assertThat(compilation).succeeded();
     assertThat(compilation)
         .generatedSourceFile("test.AutoValue_Test")
         .contentsAsUtf8String()
-        .contains("AutoValue_Test(Map. @Nullable Entry<?, ?> entry)");
+        .contains("LazyJsonValue.adapter(gson.getAdapter(String.class))");
+    assertThat(compilation)
+        .generatedSourceFile("test.AutoValue_Test")
+        .contentsAsUtf8String()
+        .contains("LazyJsonValue.adapter((TypeAdapter<List<String>>) "
+            + "gson.getAdapter(TypeToken.getParameterized(List.class, String.class)))");
+  }
+
+  @Test public void lazyJsonNotSupplier_shouldFail() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.ryanharter.auto.value.gson.LazyJson;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return new AutoValue_Test.GsonTypeAdapter(gson);\n"
+        + "  }\n"
+        + "  @LazyJson abstract String a();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compile(source);
+    assertThat(compilation).failed();
+    assertThat(compilation)
+        .hadErrorContaining("@LazyJson property must be a java.util.function.Supplier of a type");
+  }
+
+  @Test public void unknownCompileTimeFieldNamingPolicy_shouldFail() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", ""
+        + "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.google.gson.Gson;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "@AutoValue abstract class Test {\n"
+        + "  public static TypeAdapter<Test> typeAdapter(Gson gson) {\n"
+        + "    return null;\n"
+        + "  }\n"
+        + "  abstract String firstName();\n"
+        + "}\n"
+    );
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .withOptions("-A" + AutoValueGsonExtension.FIELD_NAMING_POLICY + "=SNAKE")
+        .compile(source);
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("Unknown autovaluegson.fieldNamingPolicy \"SNAKE\"");
   }
 
   @Test
@@ -1359,6 +2258,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
         + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.Util;\n"
         + "import com.ryanharter.auto.value.gson.internal.WildcardUtil;\n"
         + "import java.io.IOException;\n"
@@ -1389,7 +2289,8 @@ public class AutoValueGsonExtensionTest {
         + "    super(a, b, c, d, e, f, g, h, i, j, o, p, q, r);\n"
         + "  }\n"
         + "\n"
-        + "  static final class GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "  static final class GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<String> string_adapter;\n"
         + "    private volatile TypeAdapter<int[]> array__int_adapter;\n"
         + "    private volatile TypeAdapter<Integer> int__adapter;\n"
@@ -1436,24 +2337,26 @@ public class AutoValueGsonExtensionTest {
         + "      }\n"
         + "      jsonWriter.beginObject();\n"
         + "      jsonWriter.name(realFieldNames.get(\"a\"));\n"
-        + "      if (object.a() == null) {\n"
+        + "      String a = object.a();\n"
+        + "      if (a == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.a());\n"
+        + "        string_adapter.write(jsonWriter, a);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"b\"));\n"
-        + "      if (object.b() == null) {\n"
+        + "      int[] b = object.b();\n"
+        + "      if (b == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<int[]> array__int_adapter = this.array__int_adapter;\n"
         + "        if (array__int_adapter == null) {\n"
         + "          this.array__int_adapter = array__int_adapter = gson.getAdapter(int[].class);\n"
         + "        }\n"
-        + "        array__int_adapter.write(jsonWriter, object.b());\n"
+        + "        array__int_adapter.write(jsonWriter, b);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"c\"));\n"
         + "      {\n"
@@ -1464,27 +2367,30 @@ public class AutoValueGsonExtensionTest {
         + "        int__adapter.write(jsonWriter, object.c());\n"
         + "      }\n"
         + "      jsonWriter.name(\"_D\");\n"
-        + "      if (object.d() == null) {\n"
+        + "      String d = object.d();\n"
+        + "      if (d == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.d());\n"
+        + "        string_adapter.write(jsonWriter, d);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"e\"));\n"
-        + "      if (object.e() == null) {\n"
+        + "      String e = object.e();\n"
+        + "      if (e == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.e());\n"
+        + "        string_adapter.write(jsonWriter, e);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"f\"));\n"
-        + "      if (object.f() == null) {\n"
+        + "      ImmutableMap<String, Number> f = object.f();\n"
+        + "      if (f == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<ImmutableMap<String, Number>> immutableMap__string_number_adapter "
@@ -1495,10 +2401,11 @@ public class AutoValueGsonExtensionTest {
         + ".getAdapter(TypeToken.getParameterized(ImmutableMap.class, String.class, Number.class)"
         + ");\n"
         + "        }\n"
-        + "        immutableMap__string_number_adapter.write(jsonWriter, object.f());\n"
+        + "        immutableMap__string_number_adapter.write(jsonWriter, f);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"g\"));\n"
-        + "      if (object.g() == null) {\n"
+        + "      Set<String> g = object.g();\n"
+        + "      if (g == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Set<String>> set__string_adapter = this.set__string_adapter;\n"
@@ -1506,10 +2413,11 @@ public class AutoValueGsonExtensionTest {
         + "          this.set__string_adapter = set__string_adapter = (TypeAdapter<Set<String>>) "
         + "gson.getAdapter(TypeToken.getParameterized(Set.class, String.class));\n"
         + "        }\n"
-        + "        set__string_adapter.write(jsonWriter, object.g());\n"
+        + "        set__string_adapter.write(jsonWriter, g);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"h\"));\n"
-        + "      if (object.h() == null) {\n"
+        + "      Map<String, Set<String>> h = object.h();\n"
+        + "      if (h == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Map<String, Set<String>>> map__string_set__string_adapter = this"
@@ -1519,20 +2427,22 @@ public class AutoValueGsonExtensionTest {
         + "(TypeAdapter<Map<String, Set<String>>>) gson.getAdapter(TypeToken.getParameterized(Map"
         + ".class, String.class, TypeToken.getParameterized(Set.class, String.class).getType()));\n"
         + "        }\n"
-        + "        map__string_set__string_adapter.write(jsonWriter, object.h());\n"
+        + "        map__string_set__string_adapter.write(jsonWriter, h);\n"
         + "      }\n"
         + "      jsonWriter.name(\"_I\");\n"
-        + "      if (object.i() == null) {\n"
+        + "      String i = object.i();\n"
+        + "      if (i == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.i());\n"
+        + "        string_adapter.write(jsonWriter, i);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"j\"));\n"
-        + "      if (object.j() == null) {\n"
+        + "      List<? extends String> j = object.j();\n"
+        + "      if (j == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<List<? extends String>> list__wildcard__string_adapter = this"
@@ -1542,10 +2452,12 @@ public class AutoValueGsonExtensionTest {
         + "(TypeAdapter<List<? extends String>>) gson.getAdapter(TypeToken.getParameterized(List"
         + ".class, WildcardUtil.subtypeOf(String.class)));\n"
         + "        }\n"
-        + "        list__wildcard__string_adapter.write(jsonWriter, object.j());\n"
+        + "        list__wildcard__string_adapter.write(jsonWriter, j);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"o\"));\n"
-        + "      if (object.o() == null) {\n"
+        + "      Map<String, Map<String, Map<String, Map<String, Map<String, ? extends String>>>>> o "
+        + "= object.o();\n"
+        + "      if (o == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, ? "
@@ -1568,37 +2480,40 @@ public class AutoValueGsonExtensionTest {
         + "        }\n"
         + "        "
         + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
-        + ".write(jsonWriter, object.o());\n"
+        + ".write(jsonWriter, o);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"p\"));\n"
-        + "      if (object.p() == null) {\n"
+        + "      Optional<String> p = object.p();\n"
+        + "      if (p == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "       } else {\n"
         + "        TypeAdapter<Optional<String>> optional__string_adapter = this.optional__string_adapter;\n"
         + "        if (optional__string_adapter == null) {\n"
         + "          this.optional__string_adapter = optional__string_adapter = (TypeAdapter<Optional<String>>) gson.getAdapter(TypeToken.getParameterized(Optional.class, String.class));\n"
         + "        }\n"
-        + "        optional__string_adapter.write(jsonWriter, object.p());\n"
+        + "        optional__string_adapter.write(jsonWriter, p);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"q\"));\n"
-        + "      if (object.q() == null) {\n"
+        + "      ImmutableList<String> q = object.q();\n"
+        + "      if (q == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<ImmutableList<String>> immutableList__string_adapter = this.immutableList__string_adapter;\n"
         + "        if (immutableList__string_adapter == null) {\n"
         + "          this.immutableList__string_adapter = immutableList__string_adapter = (TypeAdapter<ImmutableList<String>>) gson.getAdapter(TypeToken.getParameterized(ImmutableList.class, String.class));\n"
         + "        }\n"
-        + "        immutableList__string_adapter.write(jsonWriter, object.q());\n"
+        + "        immutableList__string_adapter.write(jsonWriter, q);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"r\"));\n"
-        + "      if (object.r() == null) {\n"
+        + "      ImmutableList<String> r = object.r();\n"
+        + "      if (r == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<ImmutableList<String>> immutableList__string_adapter = this.immutableList__string_adapter;\n"
         + "        if (immutableList__string_adapter == null) {\n"
         + "          this.immutableList__string_adapter = immutableList__string_adapter = (TypeAdapter<ImmutableList<String>>) gson.getAdapter(TypeToken.getParameterized(ImmutableList.class, String.class));\n"
         + "        }\n"
-        + "        immutableList__string_adapter.write(jsonWriter, object.r());\n"
+        + "        immutableList__string_adapter.write(jsonWriter, r);\n"
         + "      }\n"
         + "      jsonWriter.endObject();\n"
         + "    }\n"
@@ -1746,6 +2661,59 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    @SuppressWarnings(\"unchecked\")\n"
+        + "    public void link() {\n"
+        + "      if (this.string_adapter == null) {\n"
+        + "        this.string_adapter = gson.getAdapter(String.class);\n"
+        + "      }\n"
+        + "      if (this.array__int_adapter == null) {\n"
+        + "        this.array__int_adapter = gson.getAdapter(int[].class);\n"
+        + "      }\n"
+        + "      if (this.int__adapter == null) {\n"
+        + "        this.int__adapter = gson.getAdapter(Integer.class);\n"
+        + "      }\n"
+        + "      if (this.immutableMap__string_number_adapter == null) {\n"
+        + "        this.immutableMap__string_number_adapter = (TypeAdapter<ImmutableMap<String, "
+        + "Number>>) gson.getAdapter(TypeToken.getParameterized(ImmutableMap.class, "
+        + "String.class, Number.class));\n"
+        + "      }\n"
+        + "      if (this.set__string_adapter == null) {\n"
+        + "        this.set__string_adapter = (TypeAdapter<Set<String>>) gson.getAdapter("
+        + "TypeToken.getParameterized(Set.class, String.class));\n"
+        + "      }\n"
+        + "      if (this.map__string_set__string_adapter == null) {\n"
+        + "        this.map__string_set__string_adapter = (TypeAdapter<Map<String, "
+        + "Set<String>>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Set.class, String.class).getType()));\n"
+        + "      }\n"
+        + "      if (this.list__wildcard__string_adapter == null) {\n"
+        + "        this.list__wildcard__string_adapter = (TypeAdapter<List<? extends String>>) "
+        + "gson.getAdapter(TypeToken.getParameterized(List.class, WildcardUtil.subtypeOf("
+        + "String.class)));\n"
+        + "      }\n"
+        + "      if (this."
+        + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter"
+        + " == null) {\n"
+        + "        this."
+        + "map__string_map__string_map__string_map__string_map__string_wildcard__string_adapter = "
+        + "(TypeAdapter<Map<String, Map<String, Map<String, Map<String, Map<String, ? extends "
+        + "String>>>>>>) gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Map.class, String.class, TypeToken.getParameterized("
+        + "Map.class, String.class, TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(Map.class, String.class, WildcardUtil.subtypeOf("
+        + "String.class)).getType()).getType()).getType()).getType()));\n"
+        + "      }\n"
+        + "      if (this.optional__string_adapter == null) {\n"
+        + "        this.optional__string_adapter = (TypeAdapter<Optional<String>>) "
+        + "gson.getAdapter(TypeToken.getParameterized(Optional.class, String.class));\n"
+        + "      }\n"
+        + "      if (this.immutableList__string_adapter == null) {\n"
+        + "        this.immutableList__string_adapter = (TypeAdapter<ImmutableList<String>>) "
+        + "gson.getAdapter(TypeToken.getParameterized(ImmutableList.class, String.class));\n"
+        + "      }\n"
+        + "    }\n"
         + "  }\n"
         + "}"
     );
@@ -1780,6 +2748,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonReader;\n"
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.Util;\n"
         + "import java.io.IOException;\n"
         + "import java.lang.Boolean;\n"
@@ -1800,7 +2769,8 @@ public class AutoValueGsonExtensionTest {
         + "    super(name, awesome);\n"
         + "  }\n"
         + "\n"
-        + "  static final class GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "  static final class GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<String> string_adapter;\n"
         + "    private volatile TypeAdapter<Boolean> boolean__adapter;\n"
         + "    private final Map<String, String> realFieldNames;\n"
@@ -1822,14 +2792,15 @@ public class AutoValueGsonExtensionTest {
         + "      }\n"
         + "      jsonWriter.beginObject();\n"
         + "      jsonWriter.name(realFieldNames.get(\"name\"));\n"
-        + "      if (object.getName() == null) {\n"
+        + "      String name = object.getName();\n"
+        + "      if (name == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.getName());\n"
+        + "        string_adapter.write(jsonWriter, name);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"awesome\"));\n"
         + "      {\n"
@@ -1889,6 +2860,16 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    public void link() {\n"
+        + "      if (this.string_adapter == null) {\n"
+        + "        this.string_adapter = gson.getAdapter(String.class);\n"
+        + "      }\n"
+        + "      if (this.boolean__adapter == null) {\n"
+        + "        this.boolean__adapter = gson.getAdapter(Boolean.class);\n"
+        + "      }\n"
+        + "    }\n"
         + "  }\n"
         + "}");
 
@@ -1921,6 +2902,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonReader;\n"
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.Util;\n"
         + "import java.io.IOException;\n"
         + "import java.lang.Boolean;\n"
@@ -1941,7 +2923,8 @@ public class AutoValueGsonExtensionTest {
         + "    super(name, awesome);\n"
         + "  }\n"
         + "\n"
-        + "  static final class GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "  static final class GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<String> string_adapter;\n"
         + "    private volatile TypeAdapter<Boolean> boolean__adapter;\n"
         + "    private final Map<String, String> realFieldNames;\n"
@@ -1963,14 +2946,15 @@ public class AutoValueGsonExtensionTest {
         + "      }\n"
         + "      jsonWriter.beginObject();\n"
         + "      jsonWriter.name(realFieldNames.get(\"name\"));\n"
-        + "      if (object.getName() == null) {\n"
+        + "      String name = object.getName();\n"
+        + "      if (name == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.getName());\n"
+        + "        string_adapter.write(jsonWriter, name);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"awesome\"));\n"
         + "      {\n"
@@ -2030,6 +3014,16 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    public void link() {\n"
+        + "      if (this.string_adapter == null) {\n"
+        + "        this.string_adapter = gson.getAdapter(String.class);\n"
+        + "      }\n"
+        + "      if (this.boolean__adapter == null) {\n"
+        + "        this.boolean__adapter = gson.getAdapter(Boolean.class);\n"
+        + "      }\n"
+        + "    }\n"
         + "  }\n"
         + "}");
 
@@ -2218,6 +3212,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonReader;\n"
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.Util;\n"
         + "import java.io.IOException;\n"
         + "import java.lang.Character;\n"
@@ -2238,7 +3233,8 @@ public class AutoValueGsonExtensionTest {
         + "    super(c);\n"
         + "  }\n"
         + "\n"
-        + "  static final class GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "  static final class GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<Character> char__adapter;\n"
         + "    private final Map<String, String> realFieldNames;\n"
         + "    private final Gson gson;\n"
@@ -2305,6 +3301,13 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    public void link() {\n"
+        + "      if (this.char__adapter == null) {\n"
+        + "        this.char__adapter = gson.getAdapter(Character.class);\n"
+        + "      }\n"
+        + "    }\n"
         + "  }\n"
         + "}"
     );
@@ -2348,6 +3351,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonReader;\n"
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.Util;\n"
         + "import java.io.IOException;\n"
         + "import java.lang.Override;\n"
@@ -2370,7 +3374,7 @@ public class AutoValueGsonExtensionTest {
         + "  }\n"
         + "\n"
         + "  static final class GsonTypeAdapter<A, B, C> extends TypeAdapter<Foo<A, B, C>>"
-        + " {\n"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<C> C_adapter;\n"
         + "    private volatile TypeAdapter<A> A_adapter;\n"
         + "    private volatile TypeAdapter<B> B_adapter;\n"
@@ -2402,7 +3406,8 @@ public class AutoValueGsonExtensionTest {
         + "      }\n"
         + "      jsonWriter.beginObject();\n"
         + "      jsonWriter.name(realFieldNames.get(\"c\"));\n"
-        + "      if (object.c() == null) {\n"
+        + "      C c = object.c();\n"
+        + "      if (c == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<C> C_adapter = this.C_adapter;\n"
@@ -2410,10 +3415,11 @@ public class AutoValueGsonExtensionTest {
         + "          this.C_adapter = C_adapter = (TypeAdapter<C>) gson.getAdapter(TypeToken.get"
         + "(typeArgs[2]));\n"
         + "        }\n"
-        + "        C_adapter.write(jsonWriter, object.c());\n"
+        + "        C_adapter.write(jsonWriter, c);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"a\"));\n"
-        + "      if (object.a() == null) {\n"
+        + "      A a = object.a();\n"
+        + "      if (a == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<A> A_adapter = this.A_adapter;\n"
@@ -2421,10 +3427,11 @@ public class AutoValueGsonExtensionTest {
         + "          this.A_adapter = A_adapter = (TypeAdapter<A>) gson.getAdapter(TypeToken.get"
         + "(typeArgs[0]));\n"
         + "        }\n"
-        + "        A_adapter.write(jsonWriter, object.a());\n"
+        + "        A_adapter.write(jsonWriter, a);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"b\"));\n"
-        + "      if (object.b() == null) {\n"
+        + "      B b = object.b();\n"
+        + "      if (b == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<B> B_adapter = this.B_adapter;\n"
@@ -2432,10 +3439,11 @@ public class AutoValueGsonExtensionTest {
         + "          this.B_adapter = B_adapter = (TypeAdapter<B>) gson.getAdapter(TypeToken.get"
         + "(typeArgs[1]));\n"
         + "        }\n"
-        + "        B_adapter.write(jsonWriter, object.b());\n"
+        + "        B_adapter.write(jsonWriter, b);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"list\"));\n"
-        + "      if (object.list() == null) {\n"
+        + "      List<A> list = object.list();\n"
+        + "      if (list == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<List<A>> list__A_adapter = this.list__A_adapter;\n"
@@ -2443,10 +3451,11 @@ public class AutoValueGsonExtensionTest {
         + "          this.list__A_adapter = list__A_adapter = (TypeAdapter<List<A>>) gson"
         + ".getAdapter(TypeToken.getParameterized(List.class, typeArgs[0]));\n"
         + "        }\n"
-        + "        list__A_adapter.write(jsonWriter, object.list());\n"
+        + "        list__A_adapter.write(jsonWriter, list);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"map\"));\n"
-        + "      if (object.map() == null) {\n"
+        + "      Map<String, List<C>> map = object.map();\n"
+        + "      if (map == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<Map<String, List<C>>> map__string_list__C_adapter = this"
@@ -2456,17 +3465,18 @@ public class AutoValueGsonExtensionTest {
         + "(TypeAdapter<Map<String, List<C>>>) gson.getAdapter(TypeToken.getParameterized(Map"
         + ".class, String.class, TypeToken.getParameterized(List.class, typeArgs[2]).getType()));\n"
         + "        }\n"
-        + "        map__string_list__C_adapter.write(jsonWriter, object.map());\n"
+        + "        map__string_list__C_adapter.write(jsonWriter, map);\n"
         + "      }\n"
         + "      jsonWriter.name(realFieldNames.get(\"d\"));\n"
-        + "      if (object.d() == null) {\n"
+        + "      String d = object.d();\n"
+        + "      if (d == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.d());\n"
+        + "        string_adapter.write(jsonWriter, d);\n"
         + "      }\n"
         + "      jsonWriter.endObject();\n"
         + "    }\n"
@@ -2560,6 +3570,35 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Foo\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    @SuppressWarnings(\"unchecked\")\n"
+        + "    public void link() {\n"
+        + "      if (this.C_adapter == null) {\n"
+        + "        this.C_adapter = (TypeAdapter<C>) gson.getAdapter(TypeToken.get("
+        + "typeArgs[2]));\n"
+        + "      }\n"
+        + "      if (this.A_adapter == null) {\n"
+        + "        this.A_adapter = (TypeAdapter<A>) gson.getAdapter(TypeToken.get("
+        + "typeArgs[0]));\n"
+        + "      }\n"
+        + "      if (this.B_adapter == null) {\n"
+        + "        this.B_adapter = (TypeAdapter<B>) gson.getAdapter(TypeToken.get("
+        + "typeArgs[1]));\n"
+        + "      }\n"
+        + "      if (this.list__A_adapter == null) {\n"
+        + "        this.list__A_adapter = (TypeAdapter<List<A>>) gson.getAdapter("
+        + "TypeToken.getParameterized(List.class, typeArgs[0]));\n"
+        + "      }\n"
+        + "      if (this.map__string_list__C_adapter == null) {\n"
+        + "        this.map__string_list__C_adapter = (TypeAdapter<Map<String, List<C>>>) "
+        + "gson.getAdapter(TypeToken.getParameterized(Map.class, String.class, "
+        + "TypeToken.getParameterized(List.class, typeArgs[2]).getType()));\n"
+        + "      }\n"
+        + "      if (this.string_adapter == null) {\n"
+        + "        this.string_adapter = gson.getAdapter(String.class);\n"
+        + "      }\n"
+        + "    }\n"
         + "  }\n"
         + "}");
 
@@ -2598,6 +3637,7 @@ public class AutoValueGsonExtensionTest {
         + "import com.google.gson.stream.JsonToken;\n"
         + "import com.google.gson.stream.JsonWriter;\n"
         + "import com.ryanharter.auto.value.gson.Nullable;\n"
+        + "import com.ryanharter.auto.value.gson.internal.LinkableAdapter;\n"
         + "import com.ryanharter.auto.value.gson.internal.Util;\n"
         + "import java.io.IOException;\n"
         + "import java.lang.Override;\n"
@@ -2617,7 +3657,8 @@ public class AutoValueGsonExtensionTest {
         + "    super(a, transientProperty);\n"
         + "  }\n"
         + "\n"
-        + "  static final class GsonTypeAdapter extends TypeAdapter<Test> {\n"
+        + "  static final class GsonTypeAdapter extends TypeAdapter<Test>"
+        + " implements LinkableAdapter {\n"
         + "    private volatile TypeAdapter<String> string_adapter;\n"
         + "    private final Map<String, String> realFieldNames;\n"
         + "    private final Gson gson;\n"
@@ -2638,14 +3679,15 @@ public class AutoValueGsonExtensionTest {
         + "      }\n"
         + "      jsonWriter.beginObject();\n"
         + "      jsonWriter.name(realFieldNames.get(\"a\"));\n"
-        + "      if (object.a() == null) {\n"
+        + "      String a = object.a();\n"
+        + "      if (a == null) {\n"
         + "        jsonWriter.nullValue();\n"
         + "      } else {\n"
         + "        TypeAdapter<String> string_adapter = this.string_adapter;\n"
         + "        if (string_adapter == null) {\n"
         + "          this.string_adapter = string_adapter = gson.getAdapter(String.class);\n"
         + "        }\n"
-        + "        string_adapter.write(jsonWriter, object.a());\n"
+        + "        string_adapter.write(jsonWriter, a);\n"
         + "      }\n"
         + "      jsonWriter.endObject();\n"
         + "    }\n"
@@ -2688,6 +3730,13 @@ public class AutoValueGsonExtensionTest {
         + "      return new StringBuilder().append(\"TypeAdapter(\").append(\"Test\").append(\")"
         + "\").toString();\n"
         + "    }\n"
+        + "\n"
+        + "    @Override\n"
+        + "    public void link() {\n"
+        + "      if (this.string_adapter == null) {\n"
+        + "        this.string_adapter = gson.getAdapter(String.class);\n"
+        + "      }\n"
+        + "    }\n"
         + "  }\n"
         + "}");
 
@@ -2762,10 +3811,166 @@ public class AutoValueGsonExtensionTest {
         .generatesFiles(expectedProguard);
   }
 
+  @Test public void generatesAdapterIndex() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", "package test;\n"
+        + "import com.google.auto.value.AutoValue;\n"
+        + "import com.ryanharter.auto.value.gson.GenerateTypeAdapter;\n"
+        + "\n"
+        + "public abstract class Test {\n"
+        + "  @GenerateTypeAdapter\n"
+        + "  @AutoValue\n"
+        + "  public static abstract class InnerClass {\n"
+        + "    abstract String property();\n"
+        + "  }\n"
+        + "}");
+
+    JavaFileObject expectedIndex = new ResourceFile(
+        "META-INF/auto-value-gson/adapters/test.Test$InnerClass",
+        "test.Test_InnerClass_GsonTypeAdapter\n");
+
+    assertAbout(javaSources())
+        .that(ImmutableList.of(source))
+        .processedWith(new AutoValueProcessor(Lists.newArrayList(new AutoValueGsonExtension())))
+        .compilesWithoutError()
+        .and()
+        .generatesFiles(expectedIndex);
+  }
+
+  /** Returns a class loader of the classes in the class output of {@code compilation}. */
+  private static ClassLoader generatedClassLoader(Compilation compilation) {
+    return new ClassLoader(AutoValueGsonExtensionTest.class.getClassLoader()) {
+      @Override protected Class<?> findClass(String name) throws ClassNotFoundException {
+        int lastDot = name.lastIndexOf('.');
+        Optional<JavaFileObject> classFile = compilation.generatedFile(
+            StandardLocation.CLASS_OUTPUT, name.substring(0, lastDot),
+            name.substring(lastDot + 1) + ".class");
+        if (!classFile.isPresent()) {
+          throw new ClassNotFoundException(name);
+        }
+        try (InputStream in = classFile.get().openInputStream()) {
+          byte[] bytes = ByteStreams.toByteArray(in);
+          return defineClass(name, bytes, 0, bytes.length);
+        } catch (IOException e) {
+          throw new ClassNotFoundException(name, e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns a Gson which gets the adapters of {@code types} from their static
+   * {@code typeAdapter(Gson)} methods, like a generated factory does.
+   */
+  private static Gson generatedGson(Class<?>... types) {
+    GsonBuilder gson = new GsonBuilder();
+    for (Class<?> type : types) {
+      gson.registerTypeAdapterFactory(new TypeAdapterFactory() {
+        @SuppressWarnings("unchecked")
+        @Override public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+          if (typeToken.getRawType() != type) {
+            return null;
+          }
+          try {
+            Method typeAdapter = type.getDeclaredMethod("typeAdapter", Gson.class);
+            typeAdapter.setAccessible(true);
+            return (TypeAdapter<T>) typeAdapter.invoke(null, gson);
+          } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+          }
+        }
+      });
+    }
+    return gson.create();
+  }
+
+  /** Returns the value of the property {@code name} of {@code object}. */
+  private static Object property(Object object, String name) throws ReflectiveOperationException {
+    Method method = object.getClass().getSuperclass().getDeclaredMethod(name);
+    method.setAccessible(true);
+    return method.invoke(object);
+  }
+
   private static JavaFileObject proguardResource(String path, String source) {
     return new ResourceFile(path, source);
   }
 
+  /**
+   * Returns the bytecode length of each method in {@code classFile}, keyed by name.
+   */
+  private static Map<String, Integer> methodCodeLengths(byte[] classFile) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+    in.skipBytes(8); // magic, minor and major version
+    int constantPoolCount = in.readUnsignedShort();
+    String[] utf8 = new String[constantPoolCount];
+    for (int i = 1; i < constantPoolCount; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1: // Utf8
+          utf8[i] = in.readUTF();
+          break;
+        case 5: // Long
+        case 6: // Double
+          in.skipBytes(8);
+          i++;
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          in.skipBytes(4);
+          break;
+        case 15: // MethodHandle
+          in.skipBytes(3);
+          break;
+        case 7: // Class
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          in.skipBytes(2);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+      }
+    }
+    in.skipBytes(6); // access flags, this and super class
+    in.skipBytes(2 * in.readUnsignedShort()); // interfaces
+    int fieldCount = in.readUnsignedShort();
+    for (int i = 0; i < fieldCount; i++) {
+      in.skipBytes(6); // access flags, name and descriptor
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        in.skipBytes(2);
+        in.skipBytes(in.readInt());
+      }
+    }
+    Map<String, Integer> codeLengths = new TreeMap<>();
+    int methodCount = in.readUnsignedShort();
+    for (int i = 0; i < methodCount; i++) {
+      in.skipBytes(2); // access flags
+      String name = utf8[in.readUnsignedShort()];
+      in.skipBytes(2); // descriptor
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        String attributeName = utf8[in.readUnsignedShort()];
+        int length = in.readInt();
+        if (attributeName.equals("Code")) {
+          in.skipBytes(4); // max stack and locals
+          int codeLength = in.readInt();
+          codeLengths.merge(name, codeLength, Math::max);
+          in.skipBytes(length - 8);
+        } else {
+          in.skipBytes(length);
+        }
+      }
+    }
+    return codeLengths;
+  }
+
   private static class ResourceFile extends SimpleJavaFileObject {
 
     final String source;
@@ -11,8 +11,11 @@ import com.google.gson.TypeAdapterFactory;
 import com.google.gson.reflect.TypeToken;
 import com.ryanharter.auto.value.gson.AutoValueGsonExtension;
 import com.ryanharter.auto.value.gson.GsonTypeAdapterFactory;
+import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
@@ -22,7 +25,13 @@ import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -62,6 +71,12 @@ import static net.ltgt.gradle.incap.IncrementalAnnotationProcessorType.AGGREGATI
 @AutoService(Processor.class)
 public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
 
+  /**
+   * The number of types above which the generated factory is split into shards, and roughly the
+   * number of types in each of them.
+   */
+  static final int SHARD_SIZE = 128;
+
   private Types typeUtils;
   private Elements elementUtils;
 
@@ -89,12 +104,11 @@ public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
     List<TypeElement> elements = autoValueElements.stream()
         .map(e -> (TypeElement) e)
         .filter(e -> AutoValueGsonExtension.isApplicable(e, processingEnv.getMessager()))
-        .sorted((o1, o2) -> {
-          final String o1Name = ClassName.get(o1).canonicalName();
-          final String o2Name = ClassName.get(o2).canonicalName();
-          return o1Name.compareTo(o2Name);
-        })
+        // The qualified name is the canonical name, without building a ClassName per comparison.
+        .sorted(Comparator.comparing(e -> e.getQualifiedName().toString()))
         .collect(Collectors.toList());
+    // Each type is checked against every factory, but its method only needs to be found once.
+    Map<TypeElement, Optional<ExecutableElement>> adapterMethods = new HashMap<>();
 
     if (elements.isEmpty()) {
       Element reportableElement = adapterFactories.iterator().next();
@@ -129,8 +143,12 @@ public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
       String qualifiedName = classNameOf(type, ".");
       PackageElement packageElement = packageElementOf(type);
       String packageName = packageElement.getQualifiedName().toString();
-      List<TypeElement> applicableElements = elements.stream()
-          .filter(e -> {
+      List<Pair<TypeElement, ExecutableElement>> applicableElements = elements.stream()
+          .map(e -> Pair.create(e, adapterMethods
+              .computeIfAbsent(e, key -> Optional.ofNullable(getTypeAdapterMethod(key)))
+              .orElse(null)))
+          .filter(pair -> {
+            TypeElement e = pair.first;
             Visibility typeVisibility = Visibility.ofElement(e);
             switch (typeVisibility) {
               case PRIVATE:
@@ -144,7 +162,7 @@ public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
                 break;
             }
             // If we got here, the class is visible. Now check the typeAdapter method
-            ExecutableElement adapterMethod = getTypeAdapterMethod(e);
+            ExecutableElement adapterMethod = pair.second;
             if (adapterMethod == null) {
               return false;
             }
@@ -188,7 +206,7 @@ public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
 
   private TypeSpec createTypeAdapterFactory(
       TypeElement sourceElement,
-      List<TypeElement> elements,
+      List<Pair<TypeElement, ExecutableElement>> properties,
       String packageName,
       String adapterName,
       String qualifiedName) {
@@ -203,6 +221,7 @@ public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
     factory.addOriginatingElement(sourceElement);
     factory.addModifiers(FINAL);
     factory.superclass(ClassName.get(packageName, qualifiedName));
+    factory.addSuperinterface(WarmableTypeAdapterFactory.class);
 
     ParameterSpec gson = ParameterSpec.builder(Gson.class, "gson").build();
     TypeVariableName t = TypeVariableName.get("T");
@@ -221,43 +240,140 @@ public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
         .returns(result)
         .addStatement("Class<?> rawType = $N.getRawType()", type);
 
-    List<Pair<TypeElement, ExecutableElement>> properties = elements.stream()
-        .peek(factory::addOriginatingElement)
-        .map(e -> Pair.create(e, getTypeAdapterMethod(e)))
-        .filter(entry -> entry.second != null)
-        .collect(Collectors.toList());
+    properties.forEach(pair -> factory.addOriginatingElement(pair.first));
 
-    for (int i = 0, elementsSize = properties.size(); i < elementsSize; i++) {
-      Pair<TypeElement, ExecutableElement> pair = properties.get(i);
-      Element element = pair.first;
-      TypeName elementType = rawType(element);
-      if (i == 0) {
-        create.beginControlFlow("if ($T.class.isAssignableFrom(rawType))", elementType);
-      } else {
-        create.nextControlFlow("else if ($T.class.isAssignableFrom(rawType))", elementType);
+    // Dispatch on the name of the requested class and then of its superclasses, which covers the
+    // generated AutoValue_ subclasses, instead of asking each type whether it is assignable from it.
+    // Switching on names also avoids loading every listed class on the first call.
+    create.beginControlFlow("for ($T<?> cls = rawType; cls != null; cls = cls.getSuperclass())",
+        Class.class);
+    MethodSpec.Builder knownTypeNames = MethodSpec.methodBuilder("knownTypeNames")
+        .addModifiers(PUBLIC)
+        .addAnnotation(Override.class)
+        .returns(ParameterizedTypeName.get(List.class, String.class));
+    if (properties.size() <= SHARD_SIZE) {
+      addNameSwitch(create, "cls.getName()", properties, gson, type, t);
+      knownTypeNames.addStatement("return $T.asList($L)", Arrays.class, typeNames(properties));
+    } else {
+      addShardDispatch(factory, create, knownTypeNames, properties, gson, type, t);
+    }
+    create.endControlFlow(); // for
+    create.addStatement("return null");
+
+    factory.addMethod(create.build());
+    factory.addMethod(knownTypeNames.build());
+    return factory.build();
+  }
+
+  /**
+   * Splits {@code properties} into nested classes by the hash of their class names, and makes
+   * {@code create} call the one the requested name falls into. This keeps every method well below
+   * the JIT and class file limits for modules with thousands of types, and a shard is only loaded
+   * when a name that hashes to it is requested.
+   */
+  private void addShardDispatch(
+      TypeSpec.Builder factory,
+      MethodSpec.Builder create,
+      MethodSpec.Builder knownTypeNames,
+      List<Pair<TypeElement, ExecutableElement>> properties,
+      ParameterSpec gson,
+      ParameterSpec type,
+      TypeVariableName t) {
+    int shardCount = (properties.size() + SHARD_SIZE - 1) / SHARD_SIZE;
+    List<List<Pair<TypeElement, ExecutableElement>>> shards = new ArrayList<>(shardCount);
+    for (int i = 0; i < shardCount; i++) {
+      shards.add(new ArrayList<>());
+    }
+    for (Pair<TypeElement, ExecutableElement> pair : properties) {
+      // String.hashCode() is specified, so it yields the same shard at runtime.
+      String name = elementUtils.getBinaryName(pair.first).toString();
+      shards.get(Math.floorMod(name.hashCode(), shardCount)).add(pair);
+    }
+
+    TypeName adapterType = ParameterizedTypeName.get(ClassName.get(TypeAdapter.class), t);
+    knownTypeNames.addStatement("$T<$T> names = new $T<>($L)",
+        List.class, String.class, ArrayList.class, properties.size());
+    create.addStatement("$T name = cls.getName()", String.class);
+    create.addStatement("$T adapter = null", adapterType);
+    create.beginControlFlow("switch ($T.floorMod(name.hashCode(), $L))", Math.class, shardCount);
+    for (int i = 0; i < shardCount; i++) {
+      List<Pair<TypeElement, ExecutableElement>> shard = shards.get(i);
+      if (shard.isEmpty()) {
+        continue;
       }
+      MethodSpec.Builder shardCreate = MethodSpec.methodBuilder("create")
+          .addModifiers(STATIC)
+          .addTypeVariable(t)
+          .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+              .addMember("value", "\"unchecked\"")
+              .build())
+          .addParameters(ImmutableSet.of(gson, type))
+          .addParameter(String.class, "name")
+          .returns(adapterType);
+      addNameSwitch(shardCreate, "name", shard, gson, type, t);
+      shardCreate.addStatement("return null");
+      TypeSpec shardType = TypeSpec.classBuilder("Shard" + i)
+          .addModifiers(PRIVATE, STATIC, FINAL)
+          .addMethod(MethodSpec.constructorBuilder().addModifiers(PRIVATE).build())
+          .addMethod(shardCreate.build())
+          .addField(FieldSpec.builder(String[].class, "NAMES", STATIC, FINAL)
+              .initializer("{$L}", typeNames(shard))
+              .build())
+          .build();
+      factory.addType(shardType);
+      knownTypeNames.addStatement("$T.addAll(names, $N.NAMES)", Collections.class, shardType);
+
+      create.addCode("case $L:\n$>", i);
+      create.addStatement("adapter = $N.create($N, $N, name)", shardType, gson, type);
+      create.addStatement("break$<");
+    }
+    create.endControlFlow(); // switch
+    create.beginControlFlow("if (adapter != null)");
+    create.addStatement("return adapter");
+    create.endControlFlow();
+    knownTypeNames.addStatement("return names");
+  }
+
+  /** Returns the binary names of the types in {@code properties} as string literals. */
+  private CodeBlock typeNames(List<Pair<TypeElement, ExecutableElement>> properties) {
+    return properties.stream()
+        .map(pair -> CodeBlock.of("$S", elementUtils.getBinaryName(pair.first).toString()))
+        .collect(CodeBlock.joining(", "));
+  }
+
+  /**
+   * Adds a switch on {@code name} that returns the adapter of the matching type.
+   */
+  private void addNameSwitch(
+      MethodSpec.Builder method,
+      String name,
+      List<Pair<TypeElement, ExecutableElement>> properties,
+      ParameterSpec gson,
+      ParameterSpec type,
+      TypeVariableName t) {
+    method.beginControlFlow("switch ($L)", name);
+    for (Pair<TypeElement, ExecutableElement> pair : properties) {
+      TypeElement element = pair.first;
+      TypeName elementType = rawType(element);
+      method.addCode("case $S:\n$>", elementUtils.getBinaryName(element).toString());
       ExecutableElement typeAdapterMethod = pair.second;
       List<? extends VariableElement> params = typeAdapterMethod.getParameters();
       if (params == null || params.size() == 0) {
-        create.addStatement("return (TypeAdapter<$T>) $T." + typeAdapterMethod.getSimpleName() + "()", t,
+        method.addStatement("return (TypeAdapter<$T>) $T." + typeAdapterMethod.getSimpleName() + "()", t,
             elementType);
       } else if (params.size() == 1) {
-        create.addStatement("return (TypeAdapter<$T>) $T." + typeAdapterMethod.getSimpleName() + "($N)", t, elementType, gson);
+        method.addStatement("return (TypeAdapter<$T>) $T." + typeAdapterMethod.getSimpleName() + "($N)", t, elementType, gson);
       } else {
-        create.addStatement("return (TypeAdapter<$T>) $T." + typeAdapterMethod.getSimpleName() + "($N, (($T) $N.getType()).getActualTypeArguments())",
+        method.addStatement("return (TypeAdapter<$T>) $T." + typeAdapterMethod.getSimpleName() + "($N, (($T) $N.getType()).getActualTypeArguments())",
             t,
             elementType,
             gson,
             ParameterizedType.class,
             type);
       }
+      method.addCode("$<");
     }
-    create.nextControlFlow("else");
-    create.addStatement("return null");
-    create.endControlFlow();
-
-    factory.addMethod(create.build());
-    return factory.build();
+    method.endControlFlow(); // switch
   }
 
   private TypeName rawType(Element element) {
@@ -273,7 +389,8 @@ public class AutoValueGsonAdapterFactoryProcessor extends AbstractProcessor {
     ParameterizedTypeName typeAdapterType = ParameterizedTypeName
         .get(ClassName.get(TypeAdapter.class), type);
     for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
-      if (method.getModifiers().contains(STATIC) && !method.getModifiers().contains(PRIVATE)) {
+      if (method.getModifiers().contains(STATIC) && !method.getModifiers().contains(PRIVATE)
+          && AutoValueGsonExtension.returnsTypeAdapter(method)) {
         TypeName returnType = TypeName.get(method.getReturnType());
         if (returnType.equals(typeAdapterType)) {
           return method;
@@ -1,13 +1,28 @@
 package com.ryanharter.auto.value.gson.factory;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
+import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import static com.google.common.truth.Truth.assertAbout;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
 import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
 
 @RunWith(JUnit4.class)
@@ -110,8 +125,12 @@ public class AutoValueGsonAdapterFactoryProcessorTest {
         + "import com.google.gson.Gson;\n"
         + "import com.google.gson.TypeAdapter;\n"
         + "import com.google.gson.reflect.TypeToken;\n"
+        + "import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;\n"
         + "import java.lang.Override;\n"
+        + "import java.lang.String;\n"
         + "import java.lang.SuppressWarnings;\n"
+        + "import java.util.Arrays;\n"
+        + "import java.util.List;\n"
         + "import javax.annotation.Generated;\n"
         + "import test2.PublicInOtherPackage;\n"
         + "\n"
@@ -119,22 +138,29 @@ public class AutoValueGsonAdapterFactoryProcessorTest {
         + "    value = \"com.ryanharter.auto.value.gson.factory.AutoValueGsonAdapterFactoryProcessor\",\n"
         + "    comments = \"https://github.com/rharter/auto-value-gson\"\n"
         + ")\n"
-        + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory {\n"
+        + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory implements WarmableTypeAdapterFactory {\n"
         + "  @Override\n"
         + "  @SuppressWarnings(\"unchecked\")\n"
         + "  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n"
         + "    Class<?> rawType = type.getRawType();\n"
-        + "    if (Bar.class.isAssignableFrom(rawType)) {\n"
-        + "      return (TypeAdapter<T>) Bar.typeAdapter();\n"
-        + "    } else if (Baz.class.isAssignableFrom(rawType)) {\n"
-        + "      return (TypeAdapter<T>) Baz.typeAdapter(gson);\n"
-        + "    } else if (Foo.class.isAssignableFrom(rawType)) {\n"
-        + "      return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
-        + "    } else if (PublicInOtherPackage.class.isAssignableFrom(rawType)) {\n"
-        + "      return (TypeAdapter<T>) PublicInOtherPackage.typeAdapter(gson);\n"
-        + "    } else {\n"
-        + "      return null;\n"
+        + "    for (Class<?> cls = rawType; cls != null; cls = cls.getSuperclass()) {\n"
+        + "      switch (cls.getName()) {\n"
+        + "        case \"test.Bar\":\n"
+        + "          return (TypeAdapter<T>) Bar.typeAdapter();\n"
+        + "        case \"test.Baz\":\n"
+        + "          return (TypeAdapter<T>) Baz.typeAdapter(gson);\n"
+        + "        case \"test.Foo\":\n"
+        + "          return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
+        + "        case \"test2.PublicInOtherPackage\":\n"
+        + "          return (TypeAdapter<T>) PublicInOtherPackage.typeAdapter(gson);\n"
+        + "      }\n"
         + "    }\n"
+        + "    return null;\n"
+        + "  }\n"
+        + "\n"
+        + "  @Override\n"
+        + "  public List<String> knownTypeNames() {\n"
+        + "    return Arrays.asList(\"test.Bar\", \"test.Baz\", \"test.Foo\", \"test2.PublicInOtherPackage\");\n"
         + "  }\n"
         + "}");
 
@@ -263,26 +289,37 @@ public class AutoValueGsonAdapterFactoryProcessorTest {
         + "import com.google.gson.Gson;\n"
         + "import com.google.gson.TypeAdapter;\n"
         + "import com.google.gson.reflect.TypeToken;\n"
+        + "import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;\n"
         + "import java.lang.Override;\n"
+        + "import java.lang.String;\n"
         + "import java.lang.SuppressWarnings;\n"
+        + "import java.util.Arrays;\n"
+        + "import java.util.List;\n"
         + "import javax.annotation.Generated;\n"
         + "\n"
         + "@Generated(\n"
         + "    value = \"com.ryanharter.auto.value.gson.factory.AutoValueGsonAdapterFactoryProcessor\",\n"
         + "    comments = \"https://github.com/rharter/auto-value-gson\"\n"
         + ")\n"
-        + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory {\n"
+        + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory implements WarmableTypeAdapterFactory {\n"
         + "  @Override\n"
         + "  @SuppressWarnings(\"unchecked\")\n"
         + "  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n"
         + "    Class<?> rawType = type.getRawType();\n"
-        + "    if (Bar.class.isAssignableFrom(rawType)) {\n"
-        + "      return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
-        + "    } else if (Foo.class.isAssignableFrom(rawType)) {\n"
-        + "      return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
-        + "    } else {\n"
-        + "      return null;\n"
+        + "    for (Class<?> cls = rawType; cls != null; cls = cls.getSuperclass()) {\n"
+        + "      switch (cls.getName()) {\n"
+        + "        case \"test.Bar\":\n"
+        + "          return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
+        + "        case \"test.Foo\":\n"
+        + "          return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
+        + "      }\n"
         + "    }\n"
+        + "    return null;\n"
+        + "  }\n"
+        + "\n"
+        + "  @Override\n"
+        + "  public List<String> knownTypeNames() {\n"
+        + "    return Arrays.asList(\"test.Bar\", \"test.Foo\");\n"
         + "  }\n"
         + "}");
 
@@ -335,26 +372,37 @@ public class AutoValueGsonAdapterFactoryProcessorTest {
             + "import com.google.gson.Gson;\n"
             + "import com.google.gson.TypeAdapter;\n"
             + "import com.google.gson.reflect.TypeToken;\n"
+            + "import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;\n"
             + "import java.lang.Override;\n"
+            + "import java.lang.String;\n"
             + "import java.lang.SuppressWarnings;\n"
+            + "import java.util.Arrays;\n"
+            + "import java.util.List;\n"
             + "import javax.annotation.Generated;\n"
             + "\n"
             + "@Generated(\n"
             + "    value = \"com.ryanharter.auto.value.gson.factory.AutoValueGsonAdapterFactoryProcessor\",\n"
             + "    comments = \"https://github.com/rharter/auto-value-gson\"\n"
             + ")\n"
-            + "final class AutoValueGson_InnerClassWrapper_MyAdapterFactory extends InnerClassWrapper.MyAdapterFactory {\n"
+            + "final class AutoValueGson_InnerClassWrapper_MyAdapterFactory extends InnerClassWrapper.MyAdapterFactory implements WarmableTypeAdapterFactory {\n"
             + "  @Override\n"
             + "  @SuppressWarnings(\"unchecked\")\n"
             + "  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n"
             + "    Class<?> rawType = type.getRawType();\n"
-            + "    if (Bar.class.isAssignableFrom(rawType)) {\n"
-            + "      return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
-            + "    } else if (Foo.class.isAssignableFrom(rawType)) {\n"
-            + "      return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
-            + "    } else {\n"
-            + "      return null;\n"
+            + "    for (Class<?> cls = rawType; cls != null; cls = cls.getSuperclass()) {\n"
+            + "      switch (cls.getName()) {\n"
+            + "        case \"test.Bar\":\n"
+            + "          return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
+            + "        case \"test.Foo\":\n"
+            + "          return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
+            + "      }\n"
             + "    }\n"
+            + "    return null;\n"
+            + "  }\n"
+            + "\n"
+            + "  @Override\n"
+            + "  public List<String> knownTypeNames() {\n"
+            + "    return Arrays.asList(\"test.Bar\", \"test.Foo\");\n"
             + "  }\n"
             + "}");
     assertAbout(javaSources())
@@ -404,26 +452,37 @@ public class AutoValueGsonAdapterFactoryProcessorTest {
       + "import com.google.gson.Gson;\n"
       + "import com.google.gson.TypeAdapter;\n"
       + "import com.google.gson.reflect.TypeToken;\n"
+      + "import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;\n"
       + "import java.lang.Override;\n"
+      + "import java.lang.String;\n"
       + "import java.lang.SuppressWarnings;\n"
+      + "import java.util.Arrays;\n"
+      + "import java.util.List;\n"
       + "import javax.annotation.Generated;\n"
       + "\n"
       + "@Generated(\n"
       + "    value = \"com.ryanharter.auto.value.gson.factory.AutoValueGsonAdapterFactoryProcessor\",\n"
       + "    comments = \"https://github.com/rharter/auto-value-gson\"\n"
       + ")\n"
-      + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory {\n"
+      + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory implements WarmableTypeAdapterFactory {\n"
       + "  @Override\n"
       + "  @SuppressWarnings(\"unchecked\")\n"
       + "  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n"
       + "    Class<?> rawType = type.getRawType();\n"
-      + "    if (Bar.class.isAssignableFrom(rawType)) {\n"
-      + "      return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
-      + "    } else if (Foo.class.isAssignableFrom(rawType)) {\n"
-      + "      return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
-      + "    } else {\n"
-      + "      return null;\n"
+      + "    for (Class<?> cls = rawType; cls != null; cls = cls.getSuperclass()) {\n"
+      + "      switch (cls.getName()) {\n"
+      + "        case \"test.Bar\":\n"
+      + "          return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
+      + "        case \"test.Foo\":\n"
+      + "          return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
+      + "      }\n"
       + "    }\n"
+      + "    return null;\n"
+      + "  }\n"
+      + "\n"
+      + "  @Override\n"
+      + "  public List<String> knownTypeNames() {\n"
+      + "    return Arrays.asList(\"test.Bar\", \"test.Foo\");\n"
       + "  }\n"
       + "}");
 
@@ -544,26 +603,37 @@ public class AutoValueGsonAdapterFactoryProcessorTest {
             + "import com.google.gson.Gson;\n"
             + "import com.google.gson.TypeAdapter;\n"
             + "import com.google.gson.reflect.TypeToken;\n"
+            + "import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;\n"
             + "import java.lang.Override;\n"
+            + "import java.lang.String;\n"
             + "import java.lang.SuppressWarnings;\n"
+            + "import java.util.Arrays;\n"
+            + "import java.util.List;\n"
             + "import javax.annotation.Generated;\n"
             + "\n"
             + "@Generated(\n"
             + "    value = \"com.ryanharter.auto.value.gson.factory.AutoValueGsonAdapterFactoryProcessor\",\n"
             + "    comments = \"https://github.com/rharter/auto-value-gson\"\n"
             + ")\n"
-            + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory {\n"
+            + "final class AutoValueGson_MyAdapterFactory extends MyAdapterFactory implements WarmableTypeAdapterFactory {\n"
             + "  @Override\n"
             + "  @SuppressWarnings(\"unchecked\")\n"
             + "  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n"
             + "    Class<?> rawType = type.getRawType();\n"
-            + "    if (Bar.class.isAssignableFrom(rawType)) {\n"
-            + "      return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
-            + "    } else if (Foo.class.isAssignableFrom(rawType)) {\n"
-            + "      return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
-            + "    } else {\n"
-            + "      return null;\n"
+            + "    for (Class<?> cls = rawType; cls != null; cls = cls.getSuperclass()) {\n"
+            + "      switch (cls.getName()) {\n"
+            + "        case \"test.Bar\":\n"
+            + "          return (TypeAdapter<T>) Bar.typeAdapter(gson);\n"
+            + "        case \"test.Foo\":\n"
+            + "          return (TypeAdapter<T>) Foo.typeAdapter(gson);\n"
+            + "      }\n"
             + "    }\n"
+            + "    return null;\n"
+            + "  }\n"
+            + "\n"
+            + "  @Override\n"
+            + "  public List<String> knownTypeNames() {\n"
+            + "    return Arrays.asList(\"test.Bar\", \"test.Foo\");\n"
             + "  }\n"
             + "}");
     assertAbout(javaSources()).that(ImmutableSet.of(source1, source2, source5))
@@ -572,4 +642,93 @@ public class AutoValueGsonAdapterFactoryProcessorTest {
         .and()
         .generatesSources(expected);
   }
+
+  @Test public void shardsVeryLargeFactories() throws Exception {
+    int typeCount = 10_000;
+    List<JavaFileObject> sources = new ArrayList<>();
+    sources.add(JavaFileObjects.forSourceString("test.Named", ""
+        + "package test;\n"
+        + "import com.google.gson.TypeAdapter;\n"
+        + "import com.google.gson.stream.JsonReader;\n"
+        + "import com.google.gson.stream.JsonWriter;\n"
+        + "public final class Named<T> extends TypeAdapter<T> {\n"
+        + "  private final String name;\n"
+        + "  public Named(String name) {\n"
+        + "    this.name = name;\n"
+        + "  }\n"
+        + "  @Override public void write(JsonWriter out, T value) {\n"
+        + "    throw new UnsupportedOperationException();\n"
+        + "  }\n"
+        + "  @Override public T read(JsonReader in) {\n"
+        + "    throw new UnsupportedOperationException();\n"
+        + "  }\n"
+        + "  @Override public String toString() {\n"
+        + "    return name;\n"
+        + "  }\n"
+        + "}"));
+    for (int i = 0; i < typeCount; i++) {
+      sources.add(JavaFileObjects.forSourceString("test.Type" + i, ""
+          + "package test;\n"
+          + "import com.google.auto.value.AutoValue;\n"
+          + "import com.google.gson.TypeAdapter;\n"
+          + "@AutoValue public abstract class Type" + i + " {\n"
+          + "  public static TypeAdapter<Type" + i + "> typeAdapter() {\n"
+          + "    return new Named<>(\"Type" + i + "\");\n"
+          + "  }\n"
+          + "}"));
+    }
+    sources.add(JavaFileObjects.forSourceString("test.MyAdapterFactory", ""
+        + "package test;\n"
+        + "import com.google.gson.TypeAdapterFactory;\n"
+        + "import com.ryanharter.auto.value.gson.GsonTypeAdapterFactory;\n"
+        + "@GsonTypeAdapterFactory\n"
+        + "public abstract class MyAdapterFactory implements TypeAdapterFactory {\n"
+        + "  public static TypeAdapterFactory create() {\n"
+        + "    return new AutoValueGson_MyAdapterFactory();\n"
+        + "  }\n"
+        + "}"));
+
+    Compilation compilation = javac()
+        .withProcessors(new AutoValueGsonAdapterFactoryProcessor())
+        .compile(sources);
+    assertThat(compilation).succeeded();
+
+    // create() only picks a shard, and each shard only switches over a bounded number of names.
+    String factorySource = compilation
+        .generatedSourceFile("test.AutoValueGson_MyAdapterFactory").get()
+        .getCharContent(false).toString();
+    String[] shards = factorySource.split("static final class Shard");
+    assertThat(shards.length).isGreaterThan(typeCount / (2 * AutoValueGsonAdapterFactoryProcessor.SHARD_SIZE));
+    for (int i = 1; i < shards.length; i++) {
+      assertThat(shards[i].split("case \"").length - 1)
+          .isAtMost(2 * AutoValueGsonAdapterFactoryProcessor.SHARD_SIZE);
+    }
+
+    ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+      @Override protected Class<?> findClass(String name) throws ClassNotFoundException {
+        int dot = name.lastIndexOf('.');
+        Optional<JavaFileObject> file = compilation.generatedFile(StandardLocation.CLASS_OUTPUT,
+            name.substring(0, dot), name.substring(dot + 1) + ".class");
+        if (!file.isPresent()) {
+          throw new ClassNotFoundException(name);
+        }
+        try (InputStream in = file.get().openInputStream()) {
+          byte[] bytes = ByteStreams.toByteArray(in);
+          return defineClass(name, bytes, 0, bytes.length);
+        } catch (IOException e) {
+          throw new ClassNotFoundException(name, e);
+        }
+      }
+    };
+    TypeAdapterFactory factory = (TypeAdapterFactory) loader.loadClass("test.MyAdapterFactory")
+        .getMethod("create")
+        .invoke(null);
+    Gson gson = new Gson();
+    for (int i : new int[] { 0, 1, typeCount / 2, typeCount - 1 }) {
+      Class<?> type = loader.loadClass("test.Type" + i);
+      assertThat(factory.create(gson, TypeToken.get(type)).toString()).isEqualTo("Type" + i);
+    }
+    assertThat(factory.create(gson, TypeToken.get(String.class))).isNull();
+    assertThat(((WarmableTypeAdapterFactory) factory).knownTypeNames()).hasSize(typeCount);
+  }
 }
@@ -0,0 +1,387 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@link JsonWriter} which writes property names encoded once with {@link #encodeName} as they
+ * are, instead of escaping them again for every object. The adapters generated with the
+ * {@code autovaluegson.encodedNames} processor option do so when they write to this writer:
+ * <p>
+ * <code><pre>
+ *   StringWriter out = new StringWriter();
+ *   gson.toJson(foo, Foo.class, new EncodedNameJsonWriter(out));
+ * </pre></code>
+ * <p>
+ * Everything else is written like {@code JsonWriter} does, honoring its lenient, HTML escaping
+ * and {@code serializeNulls} settings, which {@code Gson.toJson} sets. The output is always
+ * compact: indentation set with {@code setIndent} is ignored.
+ */
+public final class EncodedNameJsonWriter extends JsonWriter {
+  private static final int EMPTY_ARRAY = 1;
+  private static final int NONEMPTY_ARRAY = 2;
+  private static final int EMPTY_OBJECT = 3;
+  private static final int DANGLING_NAME = 4;
+  private static final int NONEMPTY_OBJECT = 5;
+  private static final int EMPTY_DOCUMENT = 6;
+  private static final int NONEMPTY_DOCUMENT = 7;
+
+  private static final String[] REPLACEMENT_CHARS = new String[128];
+  private static final String[] HTML_SAFE_REPLACEMENT_CHARS;
+
+  static {
+    for (int i = 0; i <= 0x1f; i++) {
+      REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+    }
+    REPLACEMENT_CHARS['"'] = "\\\"";
+    REPLACEMENT_CHARS['\\'] = "\\\\";
+    REPLACEMENT_CHARS['\t'] = "\\t";
+    REPLACEMENT_CHARS['\b'] = "\\b";
+    REPLACEMENT_CHARS['\n'] = "\\n";
+    REPLACEMENT_CHARS['\r'] = "\\r";
+    REPLACEMENT_CHARS['\f'] = "\\f";
+    HTML_SAFE_REPLACEMENT_CHARS = REPLACEMENT_CHARS.clone();
+    HTML_SAFE_REPLACEMENT_CHARS['<'] = "\\u003c";
+    HTML_SAFE_REPLACEMENT_CHARS['>'] = "\\u003e";
+    HTML_SAFE_REPLACEMENT_CHARS['&'] = "\\u0026";
+    HTML_SAFE_REPLACEMENT_CHARS['='] = "\\u003d";
+    HTML_SAFE_REPLACEMENT_CHARS['\''] = "\\u0027";
+  }
+
+  /**
+   * Given to {@code JsonWriter}, so its methods this class doesn't override fail instead of mixing
+   * up the output.
+   */
+  private static final Writer UNWRITABLE_WRITER = new Writer() {
+    @Override public void write(char[] buffer, int offset, int counter) {
+      throw new AssertionError();
+    }
+
+    @Override public void flush() {
+      throw new AssertionError();
+    }
+
+    @Override public void close() {
+    }
+  };
+
+  private final Writer out;
+  private int[] stack = new int[32];
+  private int stackSize = 0;
+  @Nullable private String deferredName;
+  @Nullable private char[] deferredEncodedName;
+
+  public EncodedNameJsonWriter(Writer out) {
+    super(UNWRITABLE_WRITER);
+    if (out == null) {
+      throw new NullPointerException("out == null");
+    }
+    this.out = out;
+    push(EMPTY_DOCUMENT);
+  }
+
+  /**
+   * Returns {@code name} quoted and escaped for {@link #name(char[])}. HTML characters are always
+   * escaped, which is valid JSON whether the writer is HTML-safe or not.
+   */
+  public static char[] encodeName(String name) {
+    StringBuilder encoded = new StringBuilder(name.length() + 2);
+    try {
+      string(encoded, name, HTML_SAFE_REPLACEMENT_CHARS);
+    } catch (IOException e) {
+      throw new AssertionError(e); // Not writing to a stream.
+    }
+    char[] chars = new char[encoded.length()];
+    encoded.getChars(0, chars.length, chars, 0);
+    return chars;
+  }
+
+  /**
+   * Writes the name of a property to {@code out}, as it is if {@code out} is an
+   * {@code EncodedNameJsonWriter}. Used by the generated adapters.
+   */
+  public static void writeName(JsonWriter out, char[] encodedName, String name)
+      throws IOException {
+    if (out instanceof EncodedNameJsonWriter) {
+      ((EncodedNameJsonWriter) out).name(encodedName);
+    } else {
+      out.name(name);
+    }
+  }
+
+  /** Writes a name encoded by {@link #encodeName}. */
+  public EncodedNameJsonWriter name(char[] encodedName) throws IOException {
+    if (encodedName == null) {
+      throw new NullPointerException("name == null");
+    }
+    checkName();
+    deferredEncodedName = encodedName;
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter name(String name) throws IOException {
+    if (name == null) {
+      throw new NullPointerException("name == null");
+    }
+    checkName();
+    deferredName = name;
+    return this;
+  }
+
+  private void checkName() {
+    if (deferredName != null || deferredEncodedName != null) {
+      throw new IllegalStateException();
+    }
+    if (stackSize == 0) {
+      throw new IllegalStateException("JsonWriter is closed.");
+    }
+  }
+
+  @Override public EncodedNameJsonWriter beginArray() throws IOException {
+    writeDeferredName();
+    return open(EMPTY_ARRAY, '[');
+  }
+
+  @Override public EncodedNameJsonWriter endArray() throws IOException {
+    return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+  }
+
+  @Override public EncodedNameJsonWriter beginObject() throws IOException {
+    writeDeferredName();
+    return open(EMPTY_OBJECT, '{');
+  }
+
+  @Override public EncodedNameJsonWriter endObject() throws IOException {
+    return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+  }
+
+  @Override public EncodedNameJsonWriter value(String value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    writeDeferredName();
+    beforeValue();
+    string(out, value, isHtmlSafe() ? HTML_SAFE_REPLACEMENT_CHARS : REPLACEMENT_CHARS);
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter jsonValue(String value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    writeDeferredName();
+    beforeValue();
+    out.append(value);
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter nullValue() throws IOException {
+    if (deferredName != null || deferredEncodedName != null) {
+      if (getSerializeNulls()) {
+        writeDeferredName();
+      } else {
+        // Skip the name and the value.
+        deferredName = null;
+        deferredEncodedName = null;
+        return this;
+      }
+    }
+    beforeValue();
+    out.write("null");
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter value(boolean value) throws IOException {
+    writeDeferredName();
+    beforeValue();
+    out.write(value ? "true" : "false");
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter value(Boolean value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    return value(value.booleanValue());
+  }
+
+  // Overrides JsonWriter.value(float) with Gson 2.9 and later.
+  public EncodedNameJsonWriter value(float value) throws IOException {
+    if (!isLenient() && (Float.isNaN(value) || Float.isInfinite(value))) {
+      throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+    }
+    writeDeferredName();
+    beforeValue();
+    out.append(Float.toString(value));
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter value(double value) throws IOException {
+    if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+      throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+    }
+    writeDeferredName();
+    beforeValue();
+    out.append(Double.toString(value));
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter value(long value) throws IOException {
+    writeDeferredName();
+    beforeValue();
+    out.write(Long.toString(value));
+    return this;
+  }
+
+  @Override public EncodedNameJsonWriter value(Number value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    writeDeferredName();
+    String string = value.toString();
+    if (!isLenient()
+        && (string.equals("-Infinity") || string.equals("Infinity") || string.equals("NaN"))) {
+      throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+    }
+    beforeValue();
+    out.append(string);
+    return this;
+  }
+
+  @Override public void flush() throws IOException {
+    if (stackSize == 0) {
+      throw new IllegalStateException("JsonWriter is closed.");
+    }
+    out.flush();
+  }
+
+  @Override public void close() throws IOException {
+    out.close();
+    int size = stackSize;
+    if (size > 1 || size == 1 && stack[size - 1] != NONEMPTY_DOCUMENT) {
+      throw new IOException("Incomplete document");
+    }
+    stackSize = 0;
+  }
+
+  private EncodedNameJsonWriter open(int empty, char openBracket) throws IOException {
+    beforeValue();
+    push(empty);
+    out.write(openBracket);
+    return this;
+  }
+
+  private EncodedNameJsonWriter close(int empty, int nonempty, char closeBracket)
+      throws IOException {
+    int context = peek();
+    if (context != nonempty && context != empty) {
+      throw new IllegalStateException("Nesting problem.");
+    }
+    if (deferredName != null || deferredEncodedName != null) {
+      throw new IllegalStateException("Dangling name: " + (deferredName != null
+          ? deferredName
+          : new String(deferredEncodedName)));
+    }
+    stackSize--;
+    out.write(closeBracket);
+    return this;
+  }
+
+  private void push(int newTop) {
+    if (stackSize == stack.length) {
+      int[] newStack = new int[stackSize * 2];
+      System.arraycopy(stack, 0, newStack, 0, stackSize);
+      stack = newStack;
+    }
+    stack[stackSize++] = newTop;
+  }
+
+  private int peek() {
+    if (stackSize == 0) {
+      throw new IllegalStateException("JsonWriter is closed.");
+    }
+    return stack[stackSize - 1];
+  }
+
+  private void writeDeferredName() throws IOException {
+    if (deferredEncodedName != null) {
+      beforeName();
+      out.write(deferredEncodedName);
+      deferredEncodedName = null;
+    } else if (deferredName != null) {
+      beforeName();
+      string(out, deferredName, isHtmlSafe() ? HTML_SAFE_REPLACEMENT_CHARS : REPLACEMENT_CHARS);
+      deferredName = null;
+    }
+  }
+
+  private void beforeName() throws IOException {
+    int context = peek();
+    if (context == NONEMPTY_OBJECT) {
+      out.write(',');
+    } else if (context != EMPTY_OBJECT) {
+      throw new IllegalStateException("Nesting problem.");
+    }
+    stack[stackSize - 1] = DANGLING_NAME;
+  }
+
+  @SuppressWarnings("fallthrough")
+  private void beforeValue() throws IOException {
+    switch (peek()) {
+      case NONEMPTY_DOCUMENT:
+        if (!isLenient()) {
+          throw new IllegalStateException("JSON must have only one top-level value.");
+        }
+        // Fall through.
+      case EMPTY_DOCUMENT:
+        stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+        break;
+      case EMPTY_ARRAY:
+        stack[stackSize - 1] = NONEMPTY_ARRAY;
+        break;
+      case NONEMPTY_ARRAY:
+        out.write(',');
+        break;
+      case DANGLING_NAME:
+        out.write(':');
+        stack[stackSize - 1] = NONEMPTY_OBJECT;
+        break;
+      default:
+        throw new IllegalStateException("Nesting problem.");
+    }
+  }
+
+  private static void string(Appendable out, String value, String[] replacements)
+      throws IOException {
+    out.append('"');
+    int last = 0;
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      String replacement;
+      if (c < 128) {
+        replacement = replacements[c];
+        if (replacement == null) {
+          continue;
+        }
+      } else if (c == '\u2028') {
+        replacement = "\\u2028";
+      } else if (c == '\u2029') {
+        replacement = "\\u2029";
+      } else {
+        continue;
+      }
+      if (last < i) {
+        out.append(value, last, i);
+      }
+      out.append(replacement);
+      last = i + 1;
+    }
+    if (last < length) {
+      out.append(value, last, length);
+    }
+    out.append('"');
+  }
+}
@@ -0,0 +1,23 @@
+package com.ryanharter.auto.value.gson;
+
+/**
+ * Implemented by the adapters generated with the {@code autovaluegson.predictFieldOrder} processor
+ * option. Those adapters expect each property name to arrive in the order they write them, and
+ * only fall back to a full lookup when the prediction fails. The counters tell how often that
+ * happened for the objects read so far, e.g.
+ * <p>
+ * <code><pre>
+ *   TypeAdapter&lt;Foo&gt; adapter = gson.getAdapter(Foo.class);
+ *   if (adapter instanceof FieldOrderStatistics) {
+ *     long misses = ((FieldOrderStatistics) adapter).expectedOrderMisses();
+ *   }
+ * </pre></code>
+ */
+public interface FieldOrderStatistics {
+
+  /** Returns the number of names read that were the expected next name. */
+  long expectedOrderHits();
+
+  /** Returns the number of names read that needed a full lookup, including unknown names. */
+  long expectedOrderMisses();
+}
@@ -0,0 +1,327 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.ryanharter.auto.value.gson.internal.LinkableAdapter;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the adapters of a set of types, and of the types of their properties, before they are
+ * first needed, so the first request doesn't pay for building them. The properties of those types
+ * and of {@link GenerateTypeAdapter} types are found through their abstract methods.
+ * <p>
+ * <code><pre>
+ *   Gson gson = new GsonBuilder()
+ *       .registerTypeAdapterFactory(MyAdapterFactory.create())
+ *       .create();
+ *   GsonWarmup.Result result = GsonWarmup.warmUp(gson,
+ *       (WarmableTypeAdapterFactory) MyAdapterFactory.create(), executor);
+ * </pre></code>
+ * <p>
+ * Every adapter is created through {@link Gson#getAdapter}, which caches it. Adapters generated
+ * with the {@code autovaluegson.eagerAdapters} option link the adapters of their properties while
+ * being created; other generated adapters are linked right after, so that neither looks anything
+ * up on first use.
+ * <p>
+ * Generic types can't be warmed up without their type arguments, so only the properties of
+ * generic roots that don't depend on those arguments are.
+ */
+public final class GsonWarmup {
+
+  private GsonWarmup() {
+  }
+
+  /** Warms up every type {@code factory} knows on the calling thread. */
+  public static Result warmUp(Gson gson, WarmableTypeAdapterFactory factory) {
+    Walk walk = new Walk(gson);
+    List<Type> types = knownTypes(factory, walk);
+    walk.roots.addAll(types);
+    for (Type type : types) {
+      walk.visit(type);
+    }
+    return walk.result();
+  }
+
+  /**
+   * Warms up every type {@code factory} knows on {@code executor}, one task per type, and waits
+   * until all of them are done.
+   */
+  public static Result warmUp(Gson gson, WarmableTypeAdapterFactory factory, Executor executor)
+      throws InterruptedException {
+    Walk walk = new Walk(gson);
+    List<Type> types = knownTypes(factory, walk);
+    walk.roots.addAll(types);
+    return warmUp(walk, types, executor);
+  }
+
+  /**
+   * Warms up {@code types} on the calling thread, e.g. types annotated with
+   * {@link GenerateTypeAdapter}.
+   */
+  public static Result warmUp(Gson gson, Collection<? extends Type> types) {
+    Walk walk = new Walk(gson);
+    walk.roots.addAll(types);
+    for (Type type : types) {
+      walk.visit(type);
+    }
+    return walk.result();
+  }
+
+  /**
+   * Warms up {@code types} on {@code executor}, one task per type, and waits until all of them are
+   * done.
+   */
+  public static Result warmUp(Gson gson, Collection<? extends Type> types, Executor executor)
+      throws InterruptedException {
+    Walk walk = new Walk(gson);
+    walk.roots.addAll(types);
+    return warmUp(walk, types, executor);
+  }
+
+  private static Result warmUp(Walk walk, Collection<? extends Type> types, Executor executor)
+      throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(types.size());
+    for (Type type : types) {
+      executor.execute(() -> {
+        try {
+          walk.visit(type);
+        } catch (Throwable e) {
+          walk.failures.put(type, e);
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+    return walk.result();
+  }
+
+  private static List<Type> knownTypes(WarmableTypeAdapterFactory factory, Walk walk) {
+    ClassLoader loader = factory.getClass().getClassLoader();
+    List<String> names = factory.knownTypeNames();
+    List<Type> types = new ArrayList<>(names.size());
+    for (String name : names) {
+      try {
+        types.add(Class.forName(name, false, loader));
+      } catch (ClassNotFoundException e) {
+        walk.failures.put(name, e);
+      }
+    }
+    return types;
+  }
+
+  /** The outcome of a warmup. */
+  public static final class Result {
+    private final long elapsedNanos;
+    private final int adapterCount;
+    private final Map<Object, Throwable> failures;
+
+    Result(long elapsedNanos, int adapterCount, Map<Object, Throwable> failures) {
+      this.elapsedNanos = elapsedNanos;
+      this.adapterCount = adapterCount;
+      this.failures = failures;
+    }
+
+    /** Returns how long the warmup took, from its start until its last adapter was created. */
+    public long elapsed(TimeUnit unit) {
+      return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Returns the number of types whose adapter was created or was already cached. */
+    public int adapterCount() {
+      return adapterCount;
+    }
+
+    /**
+     * Returns the types, or the names of the types that couldn't be loaded, whose adapters failed
+     * to be created, with the reason.
+     */
+    public Map<Object, Throwable> failures() {
+      return failures;
+    }
+
+    @Override public String toString() {
+      return "GsonWarmup.Result{"
+          + "elapsedMillis=" + elapsed(TimeUnit.MILLISECONDS) + ", "
+          + "adapterCount=" + adapterCount + ", "
+          + "failures=" + failures.keySet()
+          + "}";
+    }
+  }
+
+  private static final class Walk {
+    final Gson gson;
+    final long start = System.nanoTime();
+    final Set<Type> roots = new HashSet<>();
+    final Set<Type> visited = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    final Map<Object, Throwable> failures = new ConcurrentHashMap<>();
+    final AtomicInteger adapterCount = new AtomicInteger();
+
+    Walk(Gson gson) {
+      this.gson = gson;
+    }
+
+    void visit(Type type) {
+      if (!visited.add(type)) {
+        return;
+      }
+      if (type instanceof WildcardType) {
+        for (Type bound : ((WildcardType) type).getUpperBounds()) {
+          visit(bound);
+        }
+        return;
+      }
+      if (type instanceof ParameterizedType) {
+        for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+          visit(argument);
+        }
+      } else if (type instanceof GenericArrayType) {
+        visit(((GenericArrayType) type).getGenericComponentType());
+      }
+
+      Class<?> rawType;
+      if (type instanceof Class) {
+        rawType = (Class<?>) type;
+        if (rawType.getTypeParameters().length == 0) {
+          createAdapter(type);
+        }
+      } else if (!containsTypeVariable(type)) {
+        rawType = TypeToken.get(type).getRawType();
+        if (!createAdapter(type)) {
+          return;
+        }
+      } else {
+        return;
+      }
+      if (roots.contains(rawType) || rawType.isAnnotationPresent(GenerateTypeAdapter.class)) {
+        for (Type propertyType : propertyTypes(rawType)) {
+          visit(propertyType);
+        }
+      }
+    }
+
+    private boolean createAdapter(Type type) {
+      try {
+        TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(type));
+        if (adapter instanceof LinkableAdapter) {
+          ((LinkableAdapter) adapter).link();
+        }
+        adapterCount.incrementAndGet();
+        return true;
+      } catch (RuntimeException e) {
+        failures.put(type, e);
+        return false;
+      }
+    }
+
+    Result result() {
+      return new Result(System.nanoTime() - start, adapterCount.get(),
+          Collections.unmodifiableMap(new LinkedHashMap<>(failures)));
+    }
+  }
+
+  /** Returns the types of the abstract no-argument methods of {@code rawType}. */
+  private static List<Type> propertyTypes(Class<?> rawType) {
+    List<Type> types = new ArrayList<>();
+    for (Class<?> cls = rawType; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+      addPropertyTypes(cls.getDeclaredMethods(), types);
+    }
+    // Properties inherited from interfaces.
+    addPropertyTypes(rawType.getMethods(), types);
+    return types;
+  }
+
+  private static void addPropertyTypes(Method[] methods, List<Type> types) {
+    for (Method method : methods) {
+      int modifiers = method.getModifiers();
+      if (Modifier.isAbstract(modifiers)
+          && !Modifier.isStatic(modifiers)
+          && method.getParameterTypes().length == 0
+          && method.getReturnType() != void.class
+          && !isBuilderOf(method.getReturnType(), method.getDeclaringClass())) {
+        types.add(method.getGenericReturnType());
+      }
+    }
+  }
+
+  /**
+   * Returns true if {@code type} looks like the builder of {@code owner}, as returned by a
+   * {@code toBuilder()} method: an abstract nested type with an abstract method building an
+   * {@code owner}. {@code @AutoValue.Builder} itself isn't retained at runtime.
+   */
+  private static boolean isBuilderOf(Class<?> type, Class<?> owner) {
+    if (type.getEnclosingClass() == null || !Modifier.isAbstract(type.getModifiers())) {
+      return false;
+    }
+    for (Class<?> cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+      for (Method method : cls.getDeclaredMethods()) {
+        if (isBuildMethod(method, owner)) {
+          return true;
+        }
+      }
+    }
+    for (Method method : type.getMethods()) {
+      if (isBuildMethod(method, owner)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isBuildMethod(Method method, Class<?> owner) {
+    return Modifier.isAbstract(method.getModifiers())
+        && method.getParameterTypes().length == 0
+        && method.getReturnType().isAssignableFrom(owner)
+        && method.getReturnType() != Object.class;
+  }
+
+  private static boolean containsTypeVariable(Type type) {
+    if (type instanceof TypeVariable) {
+      return true;
+    }
+    if (type instanceof ParameterizedType) {
+      for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+        if (containsTypeVariable(argument)) {
+          return true;
+        }
+      }
+      return false;
+    }
+    if (type instanceof GenericArrayType) {
+      return containsTypeVariable(((GenericArrayType) type).getGenericComponentType());
+    }
+    if (type instanceof WildcardType) {
+      for (Type bound : ((WildcardType) type).getUpperBounds()) {
+        if (containsTypeVariable(bound)) {
+          return true;
+        }
+      }
+      for (Type bound : ((WildcardType) type).getLowerBounds()) {
+        if (containsTypeVariable(bound)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,138 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the elements of a JSON document which is an array one at a time, instead of building a
+ * list of all of them first like {@code Gson.fromJson} does, so the memory used doesn't grow with
+ * the array:
+ * <p>
+ * <code><pre>
+ *   try (JsonArrayReader&lt;Event&gt; events =
+ *       JsonArrayReader.of(gson.getAdapter(Event.class), response.body().byteStream())) {
+ *     events.forEachBatch(1000, eventDao::insertAll);
+ *   }
+ * </pre></code>
+ * <p>
+ * The document is read leniently, like {@code Gson.fromJson}. Malformed input fails with a
+ * {@link JsonSyntaxException}, and failures to read with a {@link JsonIOException}.
+ */
+public final class JsonArrayReader<T> implements Iterator<T>, Closeable {
+  private final TypeAdapter<T> adapter;
+  private final JsonReader reader;
+  private boolean started;
+  private boolean finished;
+
+  private JsonArrayReader(TypeAdapter<T> adapter, Reader in) {
+    this.adapter = adapter;
+    this.reader = new JsonReader(in);
+    reader.setLenient(true);
+  }
+
+  public static <T> JsonArrayReader<T> of(TypeAdapter<T> adapter, Reader in) {
+    return new JsonArrayReader<>(adapter, in);
+  }
+
+  /** Returns a reader of the UTF-8 JSON in {@code in}. */
+  public static <T> JsonArrayReader<T> of(TypeAdapter<T> adapter, InputStream in) {
+    return new JsonArrayReader<>(adapter, new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  @Override public boolean hasNext() {
+    if (finished) {
+      return false;
+    }
+    try {
+      if (!started) {
+        reader.beginArray();
+        started = true;
+      }
+      if (reader.hasNext()) {
+        return true;
+      }
+      reader.endArray();
+      finished = true;
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonIOException("JSON document was not fully consumed.");
+      }
+      return false;
+    } catch (EOFException | MalformedJsonException | IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  @Override public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return adapter.read(reader);
+    } catch (EOFException | MalformedJsonException | IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  /**
+   * Passes the remaining elements to {@code consumer} in lists of {@code batchSize}, except for the
+   * last one which may be smaller. Each list is new, so it can be kept.
+   */
+  public void forEachBatch(int batchSize, Consumer<? super List<T>> consumer) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize <= 0: " + batchSize);
+    }
+    List<T> batch = new ArrayList<>(batchSize);
+    while (hasNext()) {
+      batch.add(next());
+      if (batch.size() == batchSize) {
+        consumer.accept(batch);
+        batch = new ArrayList<>(batchSize);
+      }
+    }
+    if (!batch.isEmpty()) {
+      consumer.accept(batch);
+    }
+  }
+
+  /** Returns the remaining elements in order. Closing the stream closes this reader. */
+  public Stream<T> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED),
+        false)
+        .onClose(() -> {
+          try {
+            close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  @Override public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,108 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the values of a JSON Lines stream, one per line, with a single {@link JsonReader} for the
+ * whole stream:
+ * <p>
+ * <code><pre>
+ *   try (JsonLinesReader&lt;Event&gt; events =
+ *       JsonLinesReader.of(gson.getAdapter(Event.class), inputStream)) {
+ *     while (events.hasNext()) {
+ *       Event event = events.next();
+ *     }
+ *   }
+ * </pre></code>
+ * <p>
+ * Values are read leniently, like {@code Gson.fromJson}, and blank lines are skipped. Values
+ * which are {@code null} are returned as null. Malformed input fails with a
+ * {@link JsonSyntaxException}, and failures to read with a {@link JsonIOException}.
+ */
+public final class JsonLinesReader<T> implements Iterator<T>, Closeable {
+  private final TypeAdapter<T> adapter;
+  private final JsonReader reader;
+  private boolean readAny;
+
+  private JsonLinesReader(TypeAdapter<T> adapter, Reader in) {
+    this.adapter = adapter;
+    this.reader = new JsonReader(in);
+    // Allows several top-level values.
+    reader.setLenient(true);
+  }
+
+  public static <T> JsonLinesReader<T> of(TypeAdapter<T> adapter, Reader in) {
+    return new JsonLinesReader<>(adapter, in);
+  }
+
+  /** Returns a reader of the UTF-8 JSON Lines in {@code in}. */
+  public static <T> JsonLinesReader<T> of(TypeAdapter<T> adapter, InputStream in) {
+    return new JsonLinesReader<>(adapter, new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  @Override public boolean hasNext() {
+    try {
+      return reader.peek() != JsonToken.END_DOCUMENT;
+    } catch (EOFException e) {
+      // JsonReader only reports END_DOCUMENT after a value, and fails on an empty document.
+      if (!readAny) {
+        return false;
+      }
+      throw new JsonSyntaxException(e);
+    } catch (MalformedJsonException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  @Override public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    readAny = true;
+    try {
+      return adapter.read(reader);
+    } catch (EOFException | MalformedJsonException | IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  /** Returns the remaining values in order. Closing the stream closes this reader. */
+  public Stream<T> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED),
+        false)
+        .onClose(() -> {
+          try {
+            close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  @Override public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,77 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes values as JSON Lines, one compact value per line, with a single {@link JsonWriter} for
+ * the whole stream:
+ * <p>
+ * <code><pre>
+ *   try (JsonLinesWriter&lt;Event&gt; events =
+ *       JsonLinesWriter.of(gson, gson.getAdapter(Event.class), outputStream)) {
+ *     events.writeAll(batch);
+ *   }
+ * </pre></code>
+ * <p>
+ * Values are written with the {@code serializeNulls} and HTML escaping settings of the
+ * {@code Gson}, and an {@link EncodedNameJsonWriter}, so the adapters generated with the
+ * {@code autovaluegson.encodedNames} option write their names as they are.
+ */
+public final class JsonLinesWriter<T> implements Flushable, Closeable {
+  private final TypeAdapter<T> adapter;
+  private final Writer out;
+  private final JsonWriter writer;
+
+  private JsonLinesWriter(Gson gson, TypeAdapter<T> adapter, Writer out) {
+    this.adapter = adapter;
+    this.out = out;
+    this.writer = new EncodedNameJsonWriter(out);
+    // Allows several top-level values, and matches Gson.toJson.
+    writer.setLenient(true);
+    writer.setHtmlSafe(gson.htmlSafe());
+    writer.setSerializeNulls(gson.serializeNulls());
+  }
+
+  public static <T> JsonLinesWriter<T> of(Gson gson, TypeAdapter<T> adapter, Writer out) {
+    return new JsonLinesWriter<>(gson, adapter, out);
+  }
+
+  /** Returns a writer of UTF-8 JSON Lines to {@code out}, through a buffer. */
+  public static <T> JsonLinesWriter<T> of(Gson gson, TypeAdapter<T> adapter, OutputStream out) {
+    return new JsonLinesWriter<>(gson, adapter,
+        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+  }
+
+  /** Writes {@code value}, which may be null, as the next line. */
+  public void write(T value) throws IOException {
+    adapter.write(writer, value);
+    out.write('\n');
+  }
+
+  /** Writes {@code values} as the next lines, and flushes them. */
+  public void writeAll(Iterable<? extends T> values) throws IOException {
+    for (T value : values) {
+      write(value);
+    }
+    flush();
+  }
+
+  @Override public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override public void close() throws IOException {
+    // JsonWriter.close() fails if no value was written.
+    out.close();
+  }
+}
@@ -0,0 +1,179 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads only some properties of an object, with an adapter generated with the
+ * {@code autovaluegson.projections} processor option. The values of the other properties are
+ * skipped instead of decoded, and no instance of the type is created:
+ * <p>
+ * <code><pre>
+ *   JsonProjection routing =
+ *       JsonProjection.of(gson.getAdapter(Message.class), "id", "destination");
+ *   JsonProjection.Values values = routing.fromJson(json);
+ *   String destination = values.get("destination");
+ * </pre></code>
+ * <p>
+ * Properties are named as they are declared, not as they are written in JSON. A projection is
+ * immutable, and can be shared by threads.
+ */
+public final class JsonProjection {
+  private final ProjectionReader reader;
+  private final String[] properties;
+  /** The index in {@link #properties} of each property of the adapter, or -1. */
+  private final int[] slots;
+
+  private JsonProjection(ProjectionReader reader, String[] properties, int[] slots) {
+    this.reader = reader;
+    this.properties = properties;
+    this.slots = slots;
+  }
+
+  /**
+   * Returns a projection of {@code properties} of the type of {@code adapter}, which must have been
+   * generated with the {@code autovaluegson.projections} processor option.
+   */
+  public static JsonProjection of(TypeAdapter<?> adapter, String... properties) {
+    if (!(adapter instanceof ProjectionReader)) {
+      throw new IllegalArgumentException(adapter + " wasn't generated with the "
+          + "autovaluegson.projections option");
+    }
+    ProjectionReader reader = (ProjectionReader) adapter;
+    List<String> names = reader.propertyNames();
+    int[] slots = new int[names.size()];
+    Arrays.fill(slots, -1);
+    for (int i = 0; i < properties.length; i++) {
+      int index = names.indexOf(properties[i]);
+      if (index == -1) {
+        throw new IllegalArgumentException(
+            "Unknown property " + properties[i] + " of " + adapter + ", expected one of " + names);
+      }
+      if (slots[index] != -1) {
+        throw new IllegalArgumentException("Duplicate property " + properties[i]);
+      }
+      slots[index] = i;
+    }
+    return new JsonProjection(reader, properties.clone(), slots);
+  }
+
+  /**
+   * Returns the properties of the object in {@code json}, or null if it is {@code null}. Reading
+   * stops once all the properties have been read, so the rest of the document is neither read nor
+   * checked.
+   */
+  @Nullable public Values fromJson(String json) {
+    return fromJson(new StringReader(json));
+  }
+
+  /**
+   * Returns the properties of the object in {@code in}, or null if it is {@code null}. Reading
+   * stops once all the properties have been read, so the rest of the document is neither read nor
+   * checked.
+   */
+  @Nullable public Values fromJson(Reader in) {
+    JsonReader reader = new JsonReader(in);
+    // Like Gson.fromJson.
+    reader.setLenient(true);
+    try {
+      return read(reader, false);
+    } catch (EOFException | MalformedJsonException | IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  /**
+   * Returns the properties of the next object in {@code in}, or null if it is {@code null}. The
+   * rest of the object is skipped, so that {@code in} can read what follows it.
+   */
+  @Nullable public Values read(JsonReader in) throws IOException {
+    return read(in, true);
+  }
+
+  @Nullable private Values read(JsonReader in, boolean consumeObject) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    Object[] values = new Object[properties.length];
+    boolean[] present = new boolean[properties.length];
+    int remaining = properties.length;
+    in.beginObject();
+    while (in.hasNext()) {
+      int index = reader.propertyIndex(in.nextName());
+      int slot = index == -1 ? -1 : slots[index];
+      if (slot == -1) {
+        in.skipValue();
+        continue;
+      }
+      values[slot] = reader.readProperty(index, in);
+      if (!present[slot]) {
+        present[slot] = true;
+        remaining--;
+        if (remaining == 0 && !consumeObject) {
+          return new Values(properties, values, present);
+        }
+      }
+    }
+    in.endObject();
+    return new Values(properties, values, present);
+  }
+
+  /** The values of the properties of a projection, which are null if they weren't present. */
+  public static final class Values {
+    private final String[] properties;
+    private final Object[] values;
+    private final boolean[] present;
+
+    Values(String[] properties, Object[] values, boolean[] present) {
+      this.properties = properties;
+      this.values = values;
+      this.present = present;
+    }
+
+    /** Returns true if {@code property} was present in the JSON, even if it was null. */
+    public boolean has(String property) {
+      return present[slot(property)];
+    }
+
+    /** Returns the value of {@code property}, which may be null. */
+    @SuppressWarnings("unchecked")
+    @Nullable public <V> V get(String property) {
+      return (V) values[slot(property)];
+    }
+
+    private int slot(String property) {
+      for (int i = 0; i < properties.length; i++) {
+        if (properties[i].equals(property)) {
+          return i;
+        }
+      }
+      throw new IllegalArgumentException(
+          "Property " + property + " isn't one of " + Arrays.toString(properties));
+    }
+
+    @Override public String toString() {
+      StringBuilder result = new StringBuilder("Values{");
+      for (int i = 0; i < properties.length; i++) {
+        if (i > 0) {
+          result.append(", ");
+        }
+        result.append(properties[i]).append('=').append(values[i]);
+      }
+      return result.append('}').toString();
+    }
+  }
+}
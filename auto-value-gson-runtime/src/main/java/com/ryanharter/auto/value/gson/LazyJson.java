@@ -0,0 +1,24 @@
+package com.ryanharter.auto.value.gson;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the annotated property, which must be a {@code java.util.function.Supplier}, is
+ * decoded the first time it is read instead of with the rest of the object. The generated adapter
+ * only keeps the JSON of the property, see {@link LazyJsonValue}:
+ * <p>
+ * <code><pre>
+ *   &#64;AutoValue public abstract class Order {
+ *     public abstract String id();
+ *     &#64;LazyJson public abstract Supplier&lt;Invoice&gt; invoice();
+ *   }
+ * </pre></code>
+ */
+@Retention(CLASS)
+@Target(METHOD)
+public @interface LazyJson {
+}
@@ -0,0 +1,187 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The value of a {@link LazyJson} property, which keeps the JSON of the property until
+ * {@link #get()} is first called, and then the value decoded from it.
+ * <p>
+ * Decoding happens once, even when several threads call {@link #get()}, and fails with a
+ * {@link JsonSyntaxException} if the JSON doesn't match the type. Until then, writing the property
+ * writes the JSON as it was read, without decoding it. {@link #equals} and {@link #hashCode} decode
+ * the value, {@link #toString()} doesn't.
+ * <p>
+ * Only adapters generated with the {@code autovaluegson.utf8Reader} option skip parsing the JSON
+ * of the property, when reading with {@link Utf8TypeReader#fromUtf8} or
+ * {@link Utf8TypeReader#readUtf8}: they keep its bytes as they are. Reading from a
+ * {@link JsonReader} still parses it into a {@link JsonElement}, so it only defers the work of the
+ * adapter of the property, and can cost more than reading the value right away.
+ */
+public final class LazyJsonValue<T> implements Supplier<T> {
+  private static final TypeAdapter<JsonElement> JSON_ELEMENT =
+      new Gson().getAdapter(JsonElement.class);
+
+  private final TypeAdapter<T> adapter;
+  /** The JSON, as a JsonElement or UTF-8 bytes, until the value is decoded. */
+  @Nullable private volatile Object json;
+  @Nullable private T value;
+
+  private LazyJsonValue(TypeAdapter<T> adapter, Object json) {
+    this.adapter = adapter;
+    this.json = json;
+  }
+
+  /**
+   * Returns the adapter of {@code Supplier<T>} used for {@link LazyJson} properties, which reads
+   * {@link LazyJsonValue LazyJsonValues} decoded with {@code adapter}.
+   */
+  public static <T> TypeAdapter<Supplier<T>> adapter(TypeAdapter<T> adapter) {
+    return new Adapter<>(adapter);
+  }
+
+  /** Returns the value, decoding it first if this is the first call. */
+  @Override public T get() {
+    if (json != null) {
+      synchronized (this) {
+        Object json = this.json;
+        if (json != null) {
+          value = decode(json);
+          // Publishes the value, and lets the JSON be collected.
+          this.json = null;
+        }
+      }
+    }
+    return value;
+  }
+
+  /** Returns true once the value has been decoded. */
+  public boolean isDecoded() {
+    return json == null;
+  }
+
+  private T decode(Object json) {
+    try {
+      if (json instanceof JsonElement) {
+        return adapter.fromJsonTree((JsonElement) json);
+      }
+      if (adapter instanceof Utf8TypeReader) {
+        @SuppressWarnings("unchecked")
+        Utf8TypeReader<T> reader = (Utf8TypeReader<T>) adapter;
+        return reader.fromUtf8((byte[]) json);
+      }
+      JsonReader reader = new JsonReader(new StringReader(text(json)));
+      // Like Gson.fromJson, which the adapter expects.
+      reader.setLenient(true);
+      return adapter.read(reader);
+    } catch (EOFException | MalformedJsonException | IllegalStateException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  private static String text(Object json) {
+    return json instanceof byte[]
+        ? new String((byte[]) json, StandardCharsets.UTF_8)
+        : json.toString();
+  }
+
+  @Override public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof LazyJsonValue) {
+      return Objects.equals(get(), ((LazyJsonValue<?>) o).get());
+    }
+    return false;
+  }
+
+  @Override public int hashCode() {
+    return Objects.hashCode(get());
+  }
+
+  @Override public String toString() {
+    Object json = this.json;
+    return json != null ? text(json) : String.valueOf(value);
+  }
+
+  private static final class Adapter<T> extends TypeAdapter<Supplier<T>>
+      implements Utf8TypeReader<Supplier<T>> {
+    private final TypeAdapter<T> adapter;
+
+    Adapter(TypeAdapter<T> adapter) {
+      this.adapter = adapter;
+    }
+
+    @Override public void write(JsonWriter out, Supplier<T> value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      if (value instanceof LazyJsonValue) {
+        Object json = ((LazyJsonValue<T>) value).json;
+        if (json != null) {
+          writeJson(out, json);
+          return;
+        }
+      }
+      adapter.write(out, value.get());
+    }
+
+    /** Writes {@code json} as it is where {@code out} supports it, or token by token otherwise. */
+    private static void writeJson(JsonWriter out, Object json) throws IOException {
+      JsonElement element;
+      if (json instanceof JsonElement) {
+        element = (JsonElement) json;
+      } else if (out.getClass() == JsonWriter.class || out instanceof EncodedNameJsonWriter) {
+        out.jsonValue(text(json));
+        return;
+      } else {
+        // Writers such as the one behind Gson.toJsonTree don't support jsonValue().
+        JsonReader reader = new JsonReader(new StringReader(text(json)));
+        reader.setLenient(true);
+        element = JSON_ELEMENT.read(reader);
+      }
+      // Keeps nulls, as jsonValue() would.
+      boolean serializeNulls = out.getSerializeNulls();
+      out.setSerializeNulls(true);
+      try {
+        JSON_ELEMENT.write(out, element);
+      } finally {
+        out.setSerializeNulls(serializeNulls);
+      }
+    }
+
+    @Override public Supplier<T> read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      // JsonReader can't return the text of a value, and a tree is cheaper to decode than text.
+      return new LazyJsonValue<>(adapter, JSON_ELEMENT.read(in));
+    }
+
+    @Override public Supplier<T> readUtf8(Utf8JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      return new LazyJsonValue<>(adapter, in.nextValueBytes());
+    }
+  }
+}
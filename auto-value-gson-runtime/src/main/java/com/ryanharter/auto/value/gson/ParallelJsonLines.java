@@ -0,0 +1,247 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a JSON Lines file on several cores. The file is memory-mapped and split into chunks at
+ * line ends, and the chunks are decoded in parallel on a {@link ForkJoinPool}:
+ * <p>
+ * <code><pre>
+ *   try (Stream&lt;Event&gt; events =
+ *       ParallelJsonLines.read(gson.getAdapter(Event.class), path, false)) {
+ *     long errors = events.filter(Event::isError).count();
+ *   }
+ * </pre></code>
+ * <p>
+ * The returned stream is sequential: the chunks are decoded ahead of its consumer, a few per
+ * thread of the pool, so a slow consumer doesn't fill the memory with decoded values. Adapters
+ * generated with the {@code autovaluegson.utf8Reader} option read the mapped bytes directly, other
+ * adapters read them through a {@link JsonLinesReader}.
+ */
+public final class ParallelJsonLines {
+  private static final int MIN_CHUNK_SIZE = 1 << 16;
+  private static final int MAX_CHUNK_SIZE = 1 << 26;
+  /** The number of chunks per thread decoded ahead of the consumer. */
+  private static final int CHUNKS_AHEAD = 2;
+
+  private ParallelJsonLines() {
+  }
+
+  /**
+   * Returns the values in {@code file} decoded on the common pool, in the order of the file if
+   * {@code ordered}, or as soon as their chunk is decoded otherwise.
+   */
+  public static <T> Stream<T> read(TypeAdapter<T> adapter, Path file, boolean ordered)
+      throws IOException {
+    return read(adapter, file, ordered, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Returns the values in {@code file} decoded on {@code pool}, in the order of the file if
+   * {@code ordered}, or as soon as their chunk is decoded otherwise. Closing the stream cancels the
+   * chunks not decoded yet.
+   */
+  public static <T> Stream<T> read(TypeAdapter<T> adapter, Path file, boolean ordered,
+      ForkJoinPool pool) throws IOException {
+    List<ByteBuffer> chunks = map(file, pool.getParallelism());
+    ChunkIterator<T> iterator = new ChunkIterator<>(adapter, chunks.iterator(), ordered, pool);
+    int characteristics = ordered ? Spliterator.ORDERED : 0;
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator, characteristics), false)
+        .onClose(iterator::cancel)
+        .flatMap(List::stream);
+  }
+
+  /**
+   * Maps {@code file} in chunks ending after a newline, about four per thread unless they would
+   * be too small or too large. The mappings stay valid after the channel is closed.
+   */
+  static List<ByteBuffer> map(Path file, int parallelism) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long chunkSize = Math.max(MIN_CHUNK_SIZE,
+          Math.min(MAX_CHUNK_SIZE, size / (parallelism * 4L)));
+      List<ByteBuffer> chunks = new ArrayList<>();
+      ByteBuffer scan = ByteBuffer.allocate(8192);
+      long start = 0;
+      while (start < size) {
+        long end = lineEnd(channel, Math.min(size, start + chunkSize), size, scan);
+        chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+        start = end;
+      }
+      return chunks;
+    }
+  }
+
+  /** Returns the position after the first newline at or after {@code position}, or the end. */
+  private static long lineEnd(FileChannel channel, long position, long size, ByteBuffer scan)
+      throws IOException {
+    while (position < size) {
+      scan.clear();
+      int read = channel.read(scan, position);
+      if (read == -1) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (scan.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> List<T> decode(TypeAdapter<T> adapter, ByteBuffer chunk) {
+    List<T> values = new ArrayList<>();
+    if (adapter instanceof Utf8TypeReader) {
+      Utf8TypeReader<T> reader = (Utf8TypeReader<T>) adapter;
+      Utf8JsonReader in = Utf8JsonReader.of(chunk);
+      try {
+        in.peek();
+      } catch (EOFException e) {
+        return values; // Only whitespace.
+      } catch (IOException e) {
+        throw new JsonSyntaxException(e);
+      }
+      try {
+        do {
+          values.add(reader.readUtf8(in));
+        } while (in.hasNext());
+      } catch (IllegalStateException | IOException e) {
+        throw new JsonSyntaxException(e);
+      }
+      return values;
+    }
+    JsonLinesReader<T> reader = JsonLinesReader.of(adapter, new ByteBufferInputStream(chunk));
+    while (reader.hasNext()) {
+      values.add(reader.next());
+    }
+    return values;
+  }
+
+  /** Submits the chunks to the pool a few at a time, and returns their values. */
+  private static final class ChunkIterator<T> implements Iterator<List<T>> {
+    private final TypeAdapter<T> adapter;
+    private final Iterator<ByteBuffer> chunks;
+    private final boolean ordered;
+    private final ForkJoinPool pool;
+    private final int window;
+    /** The chunks submitted and not returned yet, in file order. */
+    private final Deque<Future<List<T>>> inFlight = new ArrayDeque<>();
+    private final ExecutorCompletionService<List<T>> completion;
+
+    ChunkIterator(TypeAdapter<T> adapter, Iterator<ByteBuffer> chunks, boolean ordered,
+        ForkJoinPool pool) {
+      this.adapter = adapter;
+      this.chunks = chunks;
+      this.ordered = ordered;
+      this.pool = pool;
+      this.window = pool.getParallelism() * CHUNKS_AHEAD;
+      this.completion = new ExecutorCompletionService<>(pool);
+    }
+
+    @Override public boolean hasNext() {
+      fill();
+      return !inFlight.isEmpty();
+    }
+
+    @Override public List<T> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Future<List<T>> future;
+      try {
+        future = ordered ? inFlight.removeFirst() : completion.take();
+        if (!ordered) {
+          inFlight.remove(future);
+        }
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancel();
+        throw new JsonIOException(e);
+      } catch (ExecutionException e) {
+        cancel();
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new JsonIOException(cause);
+      }
+    }
+
+    private void fill() {
+      while (inFlight.size() < window && chunks.hasNext()) {
+        ByteBuffer chunk = chunks.next();
+        // Only unordered chunks are queued for completion.take().
+        inFlight.addLast(ordered
+            ? pool.submit(() -> decode(adapter, chunk))
+            : completion.submit(() -> decode(adapter, chunk)));
+      }
+    }
+
+    void cancel() {
+      for (Future<List<T>> future : inFlight) {
+        future.cancel(false);
+      }
+      inFlight.clear();
+      // Drops the remaining chunks.
+      while (chunks.hasNext()) {
+        chunks.next();
+      }
+    }
+  }
+
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer.duplicate();
+    }
+
+    @Override public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override public int read(byte[] bytes, int offset, int length) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Implemented by the adapters generated with the {@code autovaluegson.projections} processor
+ * option, which can read their properties one at a time. Used by {@link JsonProjection} to read
+ * only some of them.
+ */
+public interface ProjectionReader {
+
+  /** Returns the names of the serialized properties, as declared. */
+  List<String> propertyNames();
+
+  /**
+   * Returns the index in {@link #propertyNames()} of the property read from the JSON name
+   * {@code name}, or -1 if none is.
+   */
+  int propertyIndex(String name);
+
+  /** Reads the value, which may be null, of the property at {@code index} from {@code in}. */
+  Object readProperty(int index, JsonReader in) throws IOException;
+}
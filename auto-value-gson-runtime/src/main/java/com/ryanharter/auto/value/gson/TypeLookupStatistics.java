@@ -0,0 +1,20 @@
+package com.ryanharter.auto.value.gson;
+
+/**
+ * Implemented by {@link GenerateTypeAdapter#FACTORY}. Gson asks every registered factory about
+ * every type it needs an adapter for, and the factory remembers per class whether the type is
+ * one of ours. The counters tell how often that was already known, e.g.
+ * <p>
+ * <code><pre>
+ *   TypeLookupStatistics statistics = (TypeLookupStatistics) GenerateTypeAdapter.FACTORY;
+ *   long misses = statistics.lookupMisses();
+ * </pre></code>
+ */
+public interface TypeLookupStatistics {
+
+  /** Returns the number of types whose answer was already cached. */
+  long lookupHits();
+
+  /** Returns the number of types that had to be inspected. */
+  long lookupMisses();
+}
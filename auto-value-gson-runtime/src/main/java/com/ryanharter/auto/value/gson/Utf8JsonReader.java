@@ -0,0 +1,740 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads JSON from UTF-8 bytes in an array or a {@link ByteBuffer}, heap or direct, without decoding
+ * them to chars first. Used by the adapters generated with the {@code autovaluegson.utf8Reader}
+ * processor option, see {@link Utf8TypeReader}.
+ * <p>
+ * Property names are matched with {@link #selectName} against names encoded once, so known names
+ * are never decoded to Strings. Values this reader can't read itself are read by a regular adapter
+ * from {@link #jsonReader()}.
+ * <p>
+ * Unlike {@code Gson.fromJson}, this reader only accepts strict JSON. Several top-level values are
+ * allowed, e.g. from JSON Lines.
+ */
+public final class Utf8JsonReader {
+  private static final int EMPTY_DOCUMENT = 0;
+  private static final int NONEMPTY_DOCUMENT = 1;
+  private static final int EMPTY_OBJECT = 2;
+  private static final int DANGLING_NAME = 3;
+  private static final int NONEMPTY_OBJECT = 4;
+  private static final int EMPTY_ARRAY = 5;
+  private static final int NONEMPTY_ARRAY = 6;
+
+  private static final int PEEKED_NONE = 0;
+  private static final int PEEKED_BEGIN_OBJECT = 1;
+  private static final int PEEKED_END_OBJECT = 2;
+  private static final int PEEKED_BEGIN_ARRAY = 3;
+  private static final int PEEKED_END_ARRAY = 4;
+  private static final int PEEKED_NAME = 5;
+  private static final int PEEKED_STRING = 6;
+  private static final int PEEKED_NUMBER = 7;
+  private static final int PEEKED_TRUE = 8;
+  private static final int PEEKED_FALSE = 9;
+  private static final int PEEKED_NULL = 10;
+  private static final int PEEKED_EOF = 11;
+
+  private final ByteBuffer buffer;
+  /** The backing array of {@link #buffer}, or null if it is direct. */
+  @Nullable private final byte[] array;
+  private final int arrayOffset;
+  private final int limit;
+  private int position;
+  private int peeked = PEEKED_NONE;
+  private int[] stack = new int[32];
+  private int stackSize = 1;
+  private byte[] scratch = new byte[64];
+
+  /** Returns a reader of {@code bytes}. */
+  public static Utf8JsonReader of(byte[] bytes) {
+    return new Utf8JsonReader(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Returns a reader of the remaining bytes of {@code buffer}. The buffer's position isn't changed,
+   * see {@link #position()}.
+   */
+  public static Utf8JsonReader of(ByteBuffer buffer) {
+    return new Utf8JsonReader(buffer);
+  }
+
+  private Utf8JsonReader(ByteBuffer buffer) {
+    this.buffer = buffer;
+    if (buffer.hasArray()) {
+      this.array = buffer.array();
+      this.arrayOffset = buffer.arrayOffset();
+    } else {
+      this.array = null;
+      this.arrayOffset = 0;
+    }
+    this.position = buffer.position();
+    this.limit = buffer.limit();
+    stack[0] = EMPTY_DOCUMENT;
+  }
+
+  /** Returns the index in the buffer of the next byte to read. */
+  public int position() {
+    return position;
+  }
+
+  public JsonToken peek() throws IOException {
+    switch (doPeek()) {
+      case PEEKED_BEGIN_OBJECT:
+        return JsonToken.BEGIN_OBJECT;
+      case PEEKED_END_OBJECT:
+        return JsonToken.END_OBJECT;
+      case PEEKED_BEGIN_ARRAY:
+        return JsonToken.BEGIN_ARRAY;
+      case PEEKED_END_ARRAY:
+        return JsonToken.END_ARRAY;
+      case PEEKED_NAME:
+        return JsonToken.NAME;
+      case PEEKED_STRING:
+        return JsonToken.STRING;
+      case PEEKED_NUMBER:
+        return JsonToken.NUMBER;
+      case PEEKED_TRUE:
+      case PEEKED_FALSE:
+        return JsonToken.BOOLEAN;
+      case PEEKED_NULL:
+        return JsonToken.NULL;
+      default:
+        return JsonToken.END_DOCUMENT;
+    }
+  }
+
+  public boolean hasNext() throws IOException {
+    int p = doPeek();
+    return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY && p != PEEKED_EOF;
+  }
+
+  public void beginObject() throws IOException {
+    expect(PEEKED_BEGIN_OBJECT, JsonToken.BEGIN_OBJECT);
+    position++;
+    peeked = PEEKED_NONE;
+    push(EMPTY_OBJECT);
+  }
+
+  public void endObject() throws IOException {
+    expect(PEEKED_END_OBJECT, JsonToken.END_OBJECT);
+    position++;
+    peeked = PEEKED_NONE;
+    stackSize--;
+  }
+
+  public void beginArray() throws IOException {
+    expect(PEEKED_BEGIN_ARRAY, JsonToken.BEGIN_ARRAY);
+    position++;
+    peeked = PEEKED_NONE;
+    push(EMPTY_ARRAY);
+  }
+
+  public void endArray() throws IOException {
+    expect(PEEKED_END_ARRAY, JsonToken.END_ARRAY);
+    position++;
+    peeked = PEEKED_NONE;
+    stackSize--;
+  }
+
+  public String nextName() throws IOException {
+    expect(PEEKED_NAME, JsonToken.NAME);
+    return readString();
+  }
+
+  /**
+   * Consumes the next name and returns its index in {@code names}, or -1 if it isn't one of them.
+   * Names without escapes are compared as bytes, without decoding them.
+   */
+  public int selectName(Names names) throws IOException {
+    expect(PEEKED_NAME, JsonToken.NAME);
+    int start = position + 1;
+    int end = start;
+    while (true) {
+      if (end == limit) {
+        throw syntaxError("Unterminated string");
+      }
+      byte b = buffer.get(end);
+      if (b == '"') {
+        break;
+      }
+      if (b == '\\') {
+        // Rare enough to decode.
+        return names.indexOf(readString());
+      }
+      end++;
+    }
+    int index = names.indexOf(buffer, start, end - start);
+    position = end + 1;
+    peeked = PEEKED_NONE;
+    return index;
+  }
+
+  /** Returns the next string, or the text of the next number, like {@link JsonReader#nextString}. */
+  public String nextString() throws IOException {
+    int p = doPeek();
+    if (p == PEEKED_STRING) {
+      return readString();
+    }
+    if (p == PEEKED_NUMBER) {
+      int end = numberEnd();
+      String number = ascii(position, end);
+      position = end;
+      peeked = PEEKED_NONE;
+      return number;
+    }
+    throw unexpected(JsonToken.STRING);
+  }
+
+  public boolean nextBoolean() throws IOException {
+    int p = doPeek();
+    if (p == PEEKED_TRUE) {
+      position += 4;
+      peeked = PEEKED_NONE;
+      return true;
+    }
+    if (p == PEEKED_FALSE) {
+      position += 5;
+      peeked = PEEKED_NONE;
+      return false;
+    }
+    throw unexpected(JsonToken.BOOLEAN);
+  }
+
+  public void nextNull() throws IOException {
+    expect(PEEKED_NULL, JsonToken.NULL);
+    position += 4;
+    peeked = PEEKED_NONE;
+  }
+
+  /**
+   * Returns the next number, or string holding a number, like {@link JsonReader#nextLong}. Plain
+   * integers are parsed from the bytes directly.
+   */
+  public long nextLong() throws IOException {
+    int p = doPeek();
+    if (p == PEEKED_NUMBER) {
+      int end = numberEnd();
+      long value = parseLong(position, end);
+      position = end;
+      peeked = PEEKED_NONE;
+      return value;
+    }
+    if (p == PEEKED_STRING) {
+      String string = readString();
+      try {
+        return Long.parseLong(string);
+      } catch (NumberFormatException e) {
+        return exactLong(string);
+      }
+    }
+    throw unexpected(JsonToken.NUMBER);
+  }
+
+  /** Returns the next number, or string holding a number, like {@link JsonReader#nextInt}. */
+  public int nextInt() throws IOException {
+    int start = position;
+    long value = nextLong();
+    if ((int) value != value) {
+      throw new NumberFormatException("Expected an int but was " + value + " at offset " + start);
+    }
+    return (int) value;
+  }
+
+  /** Returns the next number, or string holding a number, like {@link JsonReader#nextDouble}. */
+  public double nextDouble() throws IOException {
+    int p = doPeek();
+    if (p == PEEKED_NUMBER) {
+      int end = numberEnd();
+      double value = Double.parseDouble(ascii(position, end));
+      position = end;
+      peeked = PEEKED_NONE;
+      return value;
+    }
+    if (p == PEEKED_STRING) {
+      return Double.parseDouble(readString());
+    }
+    throw unexpected(JsonToken.NUMBER);
+  }
+
+  /** Skips the next value, or the next name and its value. */
+  public void skipValue() throws IOException {
+    int p = doPeek();
+    if (p == PEEKED_NAME) {
+      skipString();
+      p = doPeek();
+    }
+    switch (p) {
+      case PEEKED_BEGIN_OBJECT:
+      case PEEKED_BEGIN_ARRAY:
+        skipContainer();
+        break;
+      case PEEKED_STRING:
+        skipString();
+        break;
+      case PEEKED_NUMBER:
+        position = numberEnd();
+        break;
+      case PEEKED_TRUE:
+      case PEEKED_NULL:
+        position += 4;
+        break;
+      case PEEKED_FALSE:
+        position += 5;
+        break;
+      default:
+        throw unexpected(JsonToken.STRING);
+    }
+    peeked = PEEKED_NONE;
+  }
+
+  /**
+   * Returns a {@link JsonReader} of the next value, for values read by an adapter that doesn't
+   * support this reader. The value is consumed from this reader.
+   */
+  public JsonReader jsonReader() throws IOException {
+    doPeek();
+    int start = position;
+    skipValue();
+    JsonReader reader = new JsonReader(new InputStreamReader(
+        new SpanInputStream(buffer, start, position), StandardCharsets.UTF_8));
+    // Like Gson.fromJson, which these adapters expect.
+    reader.setLenient(true);
+    return reader;
+  }
+
+  /** Returns a copy of the bytes of the next value, which is consumed from this reader. */
+  public byte[] nextValueBytes() throws IOException {
+    doPeek();
+    int start = position;
+    skipValue();
+    byte[] bytes = new byte[position - start];
+    if (array != null) {
+      System.arraycopy(array, arrayOffset + start, bytes, 0, bytes.length);
+    } else {
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = buffer.get(start + i);
+      }
+    }
+    return bytes;
+  }
+
+  /** Throws unless only whitespace is left, like {@code Gson.fromJson}. */
+  public void endDocument() throws IOException {
+    if (doPeek() != PEEKED_EOF) {
+      throw new JsonIOException("JSON document was not fully consumed.");
+    }
+  }
+
+  private void expect(int expected, JsonToken token) throws IOException {
+    if (doPeek() != expected) {
+      throw unexpected(token);
+    }
+  }
+
+  /**
+   * Consumes the separators before the next token and returns its kind, leaving
+   * {@link #position} at its first byte.
+   */
+  private int doPeek() throws IOException {
+    if (peeked != PEEKED_NONE) {
+      return peeked;
+    }
+    int scope = stack[stackSize - 1];
+    if (scope == EMPTY_ARRAY) {
+      stack[stackSize - 1] = NONEMPTY_ARRAY;
+      if (nextNonWhitespace(true) == ']') {
+        return peeked = PEEKED_END_ARRAY;
+      }
+    } else if (scope == NONEMPTY_ARRAY) {
+      int c = nextNonWhitespace(true);
+      if (c == ']') {
+        return peeked = PEEKED_END_ARRAY;
+      } else if (c == ',') {
+        position++;
+      } else {
+        throw syntaxError("Unterminated array");
+      }
+    } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+      stack[stackSize - 1] = DANGLING_NAME;
+      int c = nextNonWhitespace(true);
+      if (c == '}') {
+        return peeked = PEEKED_END_OBJECT;
+      }
+      if (scope == NONEMPTY_OBJECT) {
+        if (c != ',') {
+          throw syntaxError("Unterminated object");
+        }
+        position++;
+        c = nextNonWhitespace(true);
+      }
+      if (c != '"') {
+        throw syntaxError("Expected name");
+      }
+      return peeked = PEEKED_NAME;
+    } else if (scope == DANGLING_NAME) {
+      stack[stackSize - 1] = NONEMPTY_OBJECT;
+      if (nextNonWhitespace(true) != ':') {
+        throw syntaxError("Expected ':'");
+      }
+      position++;
+    } else if (scope == EMPTY_DOCUMENT) {
+      stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+    } else if (nextNonWhitespace(false) == -1) {
+      return peeked = PEEKED_EOF;
+    }
+
+    int c = nextNonWhitespace(true);
+    switch (c) {
+      case '{':
+        return peeked = PEEKED_BEGIN_OBJECT;
+      case '[':
+        return peeked = PEEKED_BEGIN_ARRAY;
+      case '"':
+        return peeked = PEEKED_STRING;
+      case 't':
+        return peeked = literal("true", PEEKED_TRUE);
+      case 'f':
+        return peeked = literal("false", PEEKED_FALSE);
+      case 'n':
+        return peeked = literal("null", PEEKED_NULL);
+      default:
+        if (c == '-' || (c >= '0' && c <= '9')) {
+          return peeked = PEEKED_NUMBER;
+        }
+        throw syntaxError("Expected value");
+    }
+  }
+
+  private int literal(String literal, int kind) throws IOException {
+    if (position + literal.length() > limit) {
+      throw syntaxError("Expected value");
+    }
+    for (int i = 1; i < literal.length(); i++) {
+      if (buffer.get(position + i) != literal.charAt(i)) {
+        throw syntaxError("Expected value");
+      }
+    }
+    return kind;
+  }
+
+  /** Skips whitespace and returns the next byte without consuming it, or -1 at the end. */
+  private int nextNonWhitespace(boolean throwOnEof) throws IOException {
+    while (position < limit) {
+      byte b = buffer.get(position);
+      if (b != ' ' && b != '\n' && b != '\t' && b != '\r') {
+        return b;
+      }
+      position++;
+    }
+    if (throwOnEof) {
+      throw new EOFException("End of input at offset " + position);
+    }
+    return -1;
+  }
+
+  private int numberEnd() {
+    int end = position;
+    while (end < limit) {
+      byte b = buffer.get(end);
+      if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') {
+        break;
+      }
+      end++;
+    }
+    return end;
+  }
+
+  private long parseLong(int start, int end) {
+    boolean negative = buffer.get(start) == '-';
+    int digitsStart = negative ? start + 1 : start;
+    // 18 digits always fit, more may overflow.
+    if (end > digitsStart && end - digitsStart <= 18) {
+      long value = 0;
+      int i = digitsStart;
+      for (; i < end; i++) {
+        byte b = buffer.get(i);
+        if (b < '0' || b > '9') {
+          break;
+        }
+        value = value * 10 + (b - '0');
+      }
+      if (i == end) {
+        return negative ? -value : value;
+      }
+    }
+    String number = ascii(start, end);
+    try {
+      return Long.parseLong(number);
+    } catch (NumberFormatException e) {
+      return exactLong(number);
+    }
+  }
+
+  private long exactLong(String number) {
+    double value = Double.parseDouble(number);
+    long result = (long) value;
+    if (result != value) {
+      throw new NumberFormatException("Expected a long but was " + number + " at offset "
+          + position);
+    }
+    return result;
+  }
+
+  /** Reads the string whose opening quote is at {@link #position}. */
+  private String readString() throws IOException {
+    int start = position + 1;
+    int end = start;
+    while (true) {
+      if (end == limit) {
+        throw syntaxError("Unterminated string");
+      }
+      byte b = buffer.get(end);
+      if (b == '"') {
+        String value = utf8(start, end);
+        position = end + 1;
+        peeked = PEEKED_NONE;
+        return value;
+      }
+      if (b == '\\') {
+        break;
+      }
+      end++;
+    }
+    StringBuilder builder = new StringBuilder(end - start + 16);
+    int segment = start;
+    while (true) {
+      if (end == limit) {
+        throw syntaxError("Unterminated string");
+      }
+      byte b = buffer.get(end);
+      if (b == '"') {
+        builder.append(utf8(segment, end));
+        position = end + 1;
+        peeked = PEEKED_NONE;
+        return builder.toString();
+      }
+      if (b != '\\') {
+        end++;
+        continue;
+      }
+      builder.append(utf8(segment, end));
+      if (end + 1 == limit) {
+        throw syntaxError("Unterminated escape sequence");
+      }
+      byte escaped = buffer.get(end + 1);
+      end += 2;
+      switch (escaped) {
+        case 'u':
+          if (end + 4 > limit) {
+            throw syntaxError("Unterminated escape sequence");
+          }
+          int c = 0;
+          for (int i = end; i < end + 4; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit == -1) {
+              throw syntaxError("Malformed unicode escape");
+            }
+            c = c << 4 | digit;
+          }
+          builder.append((char) c);
+          end += 4;
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case '"':
+        case '\\':
+        case '/':
+          builder.append((char) escaped);
+          break;
+        default:
+          throw syntaxError("Invalid escape sequence");
+      }
+      segment = end;
+    }
+  }
+
+  private void skipString() throws IOException {
+    int end = position + 1;
+    while (true) {
+      if (end >= limit) {
+        throw syntaxError("Unterminated string");
+      }
+      byte b = buffer.get(end);
+      if (b == '"') {
+        position = end + 1;
+        peeked = PEEKED_NONE;
+        return;
+      }
+      end += b == '\\' ? 2 : 1;
+    }
+  }
+
+  /** Skips the object or array starting at {@link #position}, without validating its contents. */
+  private void skipContainer() throws IOException {
+    int depth = 0;
+    int i = position;
+    while (i < limit) {
+      byte b = buffer.get(i);
+      if (b == '"') {
+        position = i;
+        skipString();
+        i = position;
+        continue;
+      }
+      if (b == '{' || b == '[') {
+        depth++;
+      } else if (b == '}' || b == ']') {
+        if (--depth == 0) {
+          position = i + 1;
+          return;
+        }
+      }
+      i++;
+    }
+    throw syntaxError("Unterminated object or array");
+  }
+
+  private String utf8(int start, int end) {
+    if (array != null) {
+      return new String(array, arrayOffset + start, end - start, StandardCharsets.UTF_8);
+    }
+    return new String(copy(start, end), 0, end - start, StandardCharsets.UTF_8);
+  }
+
+  private String ascii(int start, int end) {
+    if (array != null) {
+      return new String(array, arrayOffset + start, end - start, StandardCharsets.ISO_8859_1);
+    }
+    return new String(copy(start, end), 0, end - start, StandardCharsets.ISO_8859_1);
+  }
+
+  /** Copies a span of a direct buffer into {@link #scratch}. */
+  private byte[] copy(int start, int end) {
+    int length = end - start;
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(scratch.length * 2, length)];
+    }
+    for (int i = 0; i < length; i++) {
+      scratch[i] = buffer.get(start + i);
+    }
+    return scratch;
+  }
+
+  private void push(int scope) {
+    if (stackSize == stack.length) {
+      stack = Arrays.copyOf(stack, stackSize * 2);
+    }
+    stack[stackSize++] = scope;
+  }
+
+  private IllegalStateException unexpected(JsonToken expected) throws IOException {
+    return new IllegalStateException("Expected " + expected + " but was " + peek()
+        + " at offset " + position);
+  }
+
+  private MalformedJsonException syntaxError(String message) {
+    return new MalformedJsonException(message + " at offset " + position);
+  }
+
+  /**
+   * Names encoded once, to be matched by {@link #selectName}. Immutable, so they can be shared by
+   * every reader.
+   */
+  public static final class Names {
+    private final String[] strings;
+    private final byte[][] encoded;
+
+    private Names(String[] strings) {
+      this.strings = strings;
+      this.encoded = new byte[strings.length][];
+      for (int i = 0; i < strings.length; i++) {
+        encoded[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+      }
+    }
+
+    /** Returns the names {@code names}, whose indices {@link #selectName} returns. */
+    public static Names of(String... names) {
+      return new Names(names.clone());
+    }
+
+    int indexOf(String name) {
+      for (int i = 0; i < strings.length; i++) {
+        if (strings[i].equals(name)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    int indexOf(ByteBuffer buffer, int start, int length) {
+      outer:
+      for (int i = 0; i < encoded.length; i++) {
+        byte[] name = encoded[i];
+        if (name.length != length) {
+          continue;
+        }
+        for (int j = 0; j < length; j++) {
+          if (name[j] != buffer.get(start + j)) {
+            continue outer;
+          }
+        }
+        return i;
+      }
+      return -1;
+    }
+  }
+
+  /** Streams a span of a buffer without copying it. */
+  private static final class SpanInputStream extends InputStream {
+    private final ByteBuffer buffer;
+    private int position;
+    private final int end;
+
+    SpanInputStream(ByteBuffer buffer, int start, int end) {
+      this.buffer = buffer;
+      this.position = start;
+      this.end = end;
+    }
+
+    @Override public int read() {
+      return position < end ? buffer.get(position++) & 0xff : -1;
+    }
+
+    @Override public int read(byte[] bytes, int offset, int length) {
+      if (position >= end) {
+        return -1;
+      }
+      int count = Math.min(length, end - position);
+      for (int i = 0; i < count; i++) {
+        bytes[offset + i] = buffer.get(position++);
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,481 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes compact JSON as UTF-8 bytes, either into a growing array or through a buffer to an
+ * {@link OutputStream}, without encoding chars on the way. Used by the adapters generated with the
+ * {@code autovaluegson.utf8Writer} processor option, see {@link Utf8TypeAdapter}.
+ * <p>
+ * Property names known at compile time are encoded once with {@link #encodeName}. Values this
+ * writer can't write itself are written by a regular adapter to {@link #jsonWriter()}, which
+ * encodes into the same buffer.
+ * <p>
+ * Several top-level values are separated by a newline, as in JSON Lines.
+ */
+public final class Utf8JsonWriter implements Flushable {
+  private static final int EMPTY_DOCUMENT = 0;
+  private static final int NONEMPTY_DOCUMENT = 1;
+  private static final int EMPTY_OBJECT = 2;
+  private static final int NONEMPTY_OBJECT = 3;
+  private static final int EMPTY_ARRAY = 4;
+  private static final int NONEMPTY_ARRAY = 5;
+
+  /** The number of chars of a string escaped per capacity check. */
+  private static final int CHUNK = 1024;
+  private static final byte[][] REPLACEMENTS = new byte[128][];
+  private static final byte[][] HTML_SAFE_REPLACEMENTS;
+  private static final byte[] LONG_MIN_VALUE = ascii(Long.toString(Long.MIN_VALUE));
+  private static final byte[] LINE_SEPARATOR = ascii("\\u2028");
+  private static final byte[] PARAGRAPH_SEPARATOR = ascii("\\u2029");
+  private static final byte[] NULL = ascii("null");
+  private static final byte[] TRUE = ascii("true");
+  private static final byte[] FALSE = ascii("false");
+
+  static {
+    // The same escaping as JsonWriter.
+    for (int i = 0; i < 0x20; i++) {
+      REPLACEMENTS[i] = ascii(String.format("\\u%04x", i));
+    }
+    REPLACEMENTS['"'] = ascii("\\\"");
+    REPLACEMENTS['\\'] = ascii("\\\\");
+    REPLACEMENTS['\t'] = ascii("\\t");
+    REPLACEMENTS['\b'] = ascii("\\b");
+    REPLACEMENTS['\n'] = ascii("\\n");
+    REPLACEMENTS['\r'] = ascii("\\r");
+    REPLACEMENTS['\f'] = ascii("\\f");
+    HTML_SAFE_REPLACEMENTS = REPLACEMENTS.clone();
+    HTML_SAFE_REPLACEMENTS['<'] = ascii("\\u003c");
+    HTML_SAFE_REPLACEMENTS['>'] = ascii("\\u003e");
+    HTML_SAFE_REPLACEMENTS['&'] = ascii("\\u0026");
+    HTML_SAFE_REPLACEMENTS['='] = ascii("\\u003d");
+    HTML_SAFE_REPLACEMENTS['\''] = ascii("\\u0027");
+  }
+
+  @Nullable private final OutputStream out;
+  private final boolean serializeNulls;
+  private final boolean htmlSafe;
+  private final byte[][] replacements;
+  private byte[] buffer;
+  private int count;
+  private int[] stack = new int[32];
+  private int stackSize = 1;
+  @Nullable private byte[] deferredName;
+  @Nullable private String deferredNameString;
+  @Nullable private JsonWriter jsonWriter;
+
+  /** Returns a writer into a growing array, configured like {@code gson}. */
+  public static Utf8JsonWriter create(Gson gson) {
+    return new Utf8JsonWriter(null, gson.serializeNulls(), gson.htmlSafe(), 256);
+  }
+
+  /**
+   * Returns a writer to {@code out}, configured like {@code gson}. Call {@link #flush} once done.
+   */
+  public static Utf8JsonWriter create(Gson gson, OutputStream out) {
+    return new Utf8JsonWriter(out, gson.serializeNulls(), gson.htmlSafe(), 8192);
+  }
+
+  private Utf8JsonWriter(@Nullable OutputStream out, boolean serializeNulls, boolean htmlSafe,
+      int bufferSize) {
+    this.out = out;
+    this.serializeNulls = serializeNulls;
+    this.htmlSafe = htmlSafe;
+    this.replacements = htmlSafe ? HTML_SAFE_REPLACEMENTS : REPLACEMENTS;
+    this.buffer = new byte[bufferSize];
+    stack[0] = EMPTY_DOCUMENT;
+  }
+
+  /**
+   * Returns {@code name} quoted, escaped and followed by a colon, for {@link #name(byte[])}. Names
+   * are escaped as with HTML escaping, which only changes how a few rare characters are spelled.
+   */
+  public static byte[] encodeName(String name) {
+    Utf8JsonWriter writer = new Utf8JsonWriter(null, true, true, name.length() + 8);
+    try {
+      writer.string(name, HTML_SAFE_REPLACEMENTS);
+      writer.writeByte(':');
+    } catch (IOException e) {
+      throw new AssertionError(e); // Not writing to a stream.
+    }
+    return writer.toByteArray();
+  }
+
+  public Utf8JsonWriter beginObject() throws IOException {
+    beforeValue();
+    push(EMPTY_OBJECT);
+    writeByte('{');
+    return this;
+  }
+
+  public Utf8JsonWriter endObject() throws IOException {
+    if (deferredName != null || deferredNameString != null) {
+      throw new IllegalStateException("Dangling name");
+    }
+    return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+  }
+
+  public Utf8JsonWriter beginArray() throws IOException {
+    beforeValue();
+    push(EMPTY_ARRAY);
+    writeByte('[');
+    return this;
+  }
+
+  public Utf8JsonWriter endArray() throws IOException {
+    return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+  }
+
+  /** Writes a name encoded by {@link #encodeName}. */
+  public Utf8JsonWriter name(byte[] encodedName) {
+    checkName();
+    deferredName = encodedName;
+    return this;
+  }
+
+  public Utf8JsonWriter name(String name) {
+    checkName();
+    deferredNameString = name;
+    return this;
+  }
+
+  public Utf8JsonWriter value(@Nullable String value) throws IOException {
+    if (value == null) {
+      return nullValue();
+    }
+    beforeValue();
+    string(value, replacements);
+    return this;
+  }
+
+  public Utf8JsonWriter value(boolean value) throws IOException {
+    beforeValue();
+    writeBytes(value ? TRUE : FALSE);
+    return this;
+  }
+
+  /** Writes {@code value} without formatting it into a String first. */
+  public Utf8JsonWriter value(long value) throws IOException {
+    beforeValue();
+    if (value == Long.MIN_VALUE) {
+      writeBytes(LONG_MIN_VALUE);
+      return this;
+    }
+    ensure(20);
+    if (value < 0) {
+      buffer[count++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for (long rest = value / 10; rest != 0; rest /= 10) {
+      digits++;
+    }
+    int position = count + digits;
+    do {
+      buffer[--position] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+    count += digits;
+    return this;
+  }
+
+  /**
+   * Writes {@code value}, rejecting NaN and infinite values like the adapter of a {@code Gson}
+   * without {@code serializeSpecialFloatingPointValues()}. Unlike the other numbers, doubles are
+   * formatted by {@link Double#toString}, so their output is exactly Gson's.
+   */
+  public Utf8JsonWriter value(double value) throws IOException {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new IllegalArgumentException(value
+          + " is not a valid double value as per JSON specification. To override this"
+          + " behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.");
+    }
+    beforeValue();
+    String string = Double.toString(value);
+    ensure(string.length());
+    for (int i = 0; i < string.length(); i++) {
+      buffer[count++] = (byte) string.charAt(i);
+    }
+    return this;
+  }
+
+  /**
+   * Writes null, or nothing along with its name if it's a property value and the {@code Gson}
+   * doesn't serialize nulls.
+   */
+  public Utf8JsonWriter nullValue() throws IOException {
+    if (deferredName != null || deferredNameString != null) {
+      if (!serializeNulls) {
+        deferredName = null;
+        deferredNameString = null;
+        return this;
+      }
+    }
+    beforeValue();
+    writeBytes(NULL);
+    return this;
+  }
+
+  /**
+   * Returns a {@link JsonWriter} that writes the next value into this writer, for values written
+   * by an adapter that doesn't support this writer. Exactly one value must be written to it.
+   */
+  public JsonWriter jsonWriter() throws IOException {
+    beforeValue();
+    JsonWriter jsonWriter = this.jsonWriter;
+    if (jsonWriter == null) {
+      jsonWriter = new JsonWriter(new EncodingWriter());
+      // Lenient to allow a value after the one before, which this writer separates.
+      jsonWriter.setLenient(true);
+      jsonWriter.setHtmlSafe(htmlSafe);
+      jsonWriter.setSerializeNulls(serializeNulls);
+      this.jsonWriter = jsonWriter;
+    }
+    return jsonWriter;
+  }
+
+  /** Returns the bytes written so far, if this writer doesn't write to a stream. */
+  public byte[] toByteArray() {
+    if (out != null) {
+      throw new IllegalStateException("Writing to a stream");
+    }
+    return Arrays.copyOf(buffer, count);
+  }
+
+  /** Writes the buffered bytes to the stream, if this writer writes to one, and flushes it. */
+  @Override public void flush() throws IOException {
+    if (out != null) {
+      flushBuffer();
+      out.flush();
+    }
+  }
+
+  /**
+   * Forgets everything written to the array, or to the buffer since the last flush, so this writer
+   * can be reused for another document.
+   */
+  public void reset() {
+    count = 0;
+    stackSize = 1;
+    stack[0] = EMPTY_DOCUMENT;
+    deferredName = null;
+    deferredNameString = null;
+  }
+
+  private void checkName() {
+    if (deferredName != null || deferredNameString != null) {
+      throw new IllegalStateException("Dangling name");
+    }
+    int scope = stack[stackSize - 1];
+    if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT) {
+      throw new IllegalStateException("Nesting problem.");
+    }
+  }
+
+  private void beforeValue() throws IOException {
+    int scope = stack[stackSize - 1];
+    if (deferredName != null || deferredNameString != null) {
+      if (scope == NONEMPTY_OBJECT) {
+        writeByte(',');
+      }
+      if (deferredName != null) {
+        writeBytes(deferredName);
+        deferredName = null;
+      } else {
+        string(deferredNameString, replacements);
+        writeByte(':');
+        deferredNameString = null;
+      }
+      stack[stackSize - 1] = NONEMPTY_OBJECT;
+      return;
+    }
+    switch (scope) {
+      case EMPTY_DOCUMENT:
+        stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+        break;
+      case NONEMPTY_DOCUMENT:
+        writeByte('\n');
+        break;
+      case EMPTY_ARRAY:
+        stack[stackSize - 1] = NONEMPTY_ARRAY;
+        break;
+      case NONEMPTY_ARRAY:
+        writeByte(',');
+        break;
+      default:
+        throw new IllegalStateException("Nesting problem.");
+    }
+  }
+
+  private void push(int scope) {
+    if (stackSize == stack.length) {
+      stack = Arrays.copyOf(stack, stackSize * 2);
+    }
+    stack[stackSize++] = scope;
+  }
+
+  private Utf8JsonWriter close(int empty, int nonempty, char bracket) throws IOException {
+    int scope = stack[stackSize - 1];
+    if (scope != empty && scope != nonempty) {
+      throw new IllegalStateException("Nesting problem.");
+    }
+    stackSize--;
+    writeByte(bracket);
+    return this;
+  }
+
+  /** Writes {@code value} quoted, escaped with {@code replacements} and encoded as UTF-8. */
+  private void string(String value, byte[][] replacements) throws IOException {
+    writeByte('"');
+    int length = value.length();
+    int i = 0;
+    while (i < length) {
+      int end = Math.min(length, i + CHUNK);
+      // No char takes more than 6 bytes, the longest escape.
+      ensure((end - i) * 6);
+      byte[] buffer = this.buffer;
+      int count = this.count;
+      for (; i < end; i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          byte[] replacement = replacements[c];
+          if (replacement == null) {
+            buffer[count++] = (byte) c;
+          } else {
+            System.arraycopy(replacement, 0, buffer, count, replacement.length);
+            count += replacement.length;
+          }
+        } else if (c < 0x800) {
+          buffer[count++] = (byte) (0xc0 | c >> 6);
+          buffer[count++] = (byte) (0x80 | c & 0x3f);
+        } else if (c == '\u2028' || c == '\u2029') {
+          byte[] replacement = c == '\u2028' ? LINE_SEPARATOR : PARAGRAPH_SEPARATOR;
+          System.arraycopy(replacement, 0, buffer, count, replacement.length);
+          count += replacement.length;
+        } else if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          buffer[count++] = (byte) (0xf0 | codePoint >> 18);
+          buffer[count++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+          buffer[count++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+          buffer[count++] = (byte) (0x80 | codePoint & 0x3f);
+        } else if (Character.isSurrogate(c)) {
+          // Unpaired, replaced like an OutputStreamWriter does.
+          buffer[count++] = '?';
+        } else {
+          buffer[count++] = (byte) (0xe0 | c >> 12);
+          buffer[count++] = (byte) (0x80 | c >> 6 & 0x3f);
+          buffer[count++] = (byte) (0x80 | c & 0x3f);
+        }
+      }
+      this.count = count;
+    }
+    writeByte('"');
+  }
+
+  private void writeByte(char c) throws IOException {
+    ensure(1);
+    buffer[count++] = (byte) c;
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    ensure(bytes.length);
+    System.arraycopy(bytes, 0, buffer, count, bytes.length);
+    count += bytes.length;
+  }
+
+  /** Makes room for {@code length} more bytes. */
+  private void ensure(int length) throws IOException {
+    if (count + length <= buffer.length) {
+      return;
+    }
+    if (out != null) {
+      flushBuffer();
+      if (length <= buffer.length) {
+        return;
+      }
+    }
+    buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + length));
+  }
+
+  private void flushBuffer() throws IOException {
+    if (count > 0) {
+      out.write(buffer, 0, count);
+      count = 0;
+    }
+  }
+
+  private static byte[] ascii(String value) {
+    byte[] bytes = new byte[value.length()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) value.charAt(i);
+    }
+    return bytes;
+  }
+
+  /** Encodes what the {@link #jsonWriter()} writes into this writer's buffer. */
+  private final class EncodingWriter extends Writer {
+    private char highSurrogate;
+
+    @Override public void write(int c) throws IOException {
+      encode((char) c);
+    }
+
+    @Override public void write(char[] chars, int offset, int length) throws IOException {
+      for (int i = offset; i < offset + length; i++) {
+        encode(chars[i]);
+      }
+    }
+
+    @Override public void write(String string, int offset, int length) throws IOException {
+      for (int i = offset; i < offset + length; i++) {
+        encode(string.charAt(i));
+      }
+    }
+
+    private void encode(char c) throws IOException {
+      ensure(4);
+      if (highSurrogate != 0) {
+        char high = highSurrogate;
+        highSurrogate = 0;
+        if (Character.isLowSurrogate(c)) {
+          int codePoint = Character.toCodePoint(high, c);
+          buffer[count++] = (byte) (0xf0 | codePoint >> 18);
+          buffer[count++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+          buffer[count++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+          buffer[count++] = (byte) (0x80 | codePoint & 0x3f);
+          return;
+        }
+        buffer[count++] = '?';
+        ensure(3);
+      }
+      if (c < 0x80) {
+        buffer[count++] = (byte) c;
+      } else if (c < 0x800) {
+        buffer[count++] = (byte) (0xc0 | c >> 6);
+        buffer[count++] = (byte) (0x80 | c & 0x3f);
+      } else if (Character.isHighSurrogate(c)) {
+        highSurrogate = c;
+      } else if (Character.isSurrogate(c)) {
+        buffer[count++] = '?';
+      } else {
+        buffer[count++] = (byte) (0xe0 | c >> 12);
+        buffer[count++] = (byte) (0x80 | c >> 6 & 0x3f);
+        buffer[count++] = (byte) (0x80 | c & 0x3f);
+      }
+    }
+
+    @Override public void flush() {
+    }
+
+    @Override public void close() {
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.ryanharter.auto.value.gson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Implemented by the adapters generated with the {@code autovaluegson.utf8Writer} processor option,
+ * which can write their type as UTF-8 bytes directly instead of going through a {@code Writer}:
+ * <p>
+ * <code><pre>
+ *   TypeAdapter&lt;Foo&gt; adapter = gson.getAdapter(Foo.class);
+ *   if (adapter instanceof Utf8TypeAdapter) {
+ *     ((Utf8TypeAdapter&lt;Foo&gt;) adapter).writeTo(outputStream, foo);
+ *   }
+ * </pre></code>
+ * <p>
+ * The output is compact, like {@code Gson.toJson} without pretty printing, and honors the
+ * {@code serializeNulls} and HTML escaping settings of the {@code Gson} the adapter belongs to.
+ */
+public interface Utf8TypeAdapter<T> {
+
+  /** Writes {@code value}, which may be null, to {@code out}. */
+  void writeUtf8(Utf8JsonWriter out, T value) throws IOException;
+
+  /** Returns the JSON of {@code value}, which may be null, as UTF-8 bytes. */
+  byte[] toUtf8Bytes(T value) throws IOException;
+
+  /** Writes the JSON of {@code value}, which may be null, as UTF-8 bytes to {@code out}. */
+  void writeTo(OutputStream out, T value) throws IOException;
+}
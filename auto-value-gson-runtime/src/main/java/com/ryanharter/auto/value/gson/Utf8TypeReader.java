@@ -0,0 +1,52 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.JsonSyntaxException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by the adapters generated with the {@code autovaluegson.utf8Reader} processor option,
+ * which can read their type from UTF-8 bytes directly instead of going through a {@code Reader}:
+ * <p>
+ * <code><pre>
+ *   TypeAdapter&lt;Foo&gt; adapter = gson.getAdapter(Foo.class);
+ *   if (adapter instanceof Utf8TypeReader) {
+ *     Foo foo = ((Utf8TypeReader&lt;Foo&gt;) adapter).fromUtf8(responseBytes);
+ *   }
+ * </pre></code>
+ */
+public interface Utf8TypeReader<T> {
+
+  /** Reads a value, which may be null, from {@code in}. */
+  T readUtf8(Utf8JsonReader in) throws IOException;
+
+  /**
+   * Returns the value of the JSON document in {@code bytes}, failing like {@code Gson.fromJson} if
+   * it isn't one.
+   */
+  default T fromUtf8(byte[] bytes) throws IOException {
+    return fromUtf8(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Returns the value of the JSON document in the remaining bytes of {@code buffer}, failing like
+   * {@code Gson.fromJson} if it isn't one. The buffer's position isn't changed.
+   */
+  default T fromUtf8(ByteBuffer buffer) throws IOException {
+    Utf8JsonReader in = Utf8JsonReader.of(buffer);
+    try {
+      in.peek();
+    } catch (EOFException e) {
+      // Gson.fromJson returns null for empty documents.
+      return null;
+    }
+    try {
+      T value = readUtf8(in);
+      in.endDocument();
+      return value;
+    } catch (IllegalStateException | EOFException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+}
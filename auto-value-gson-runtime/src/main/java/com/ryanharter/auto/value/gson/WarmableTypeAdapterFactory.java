@@ -0,0 +1,17 @@
+package com.ryanharter.auto.value.gson;
+
+import com.google.gson.TypeAdapterFactory;
+import java.util.List;
+
+/**
+ * Implemented by the factories generated for {@link GsonTypeAdapterFactory}, so that
+ * {@link GsonWarmup} can create their adapters ahead of the first request.
+ */
+public interface WarmableTypeAdapterFactory extends TypeAdapterFactory {
+
+  /**
+   * Returns the binary names of the types this factory creates adapters for. They are names rather
+   * than classes so that listing them doesn't load every type.
+   */
+  List<String> knownTypeNames();
+}
@@ -0,0 +1,44 @@
+package com.ryanharter.auto.value.gson.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The index of {@code @GenerateTypeAdapter} adapters written by the extension at build time. Each
+ * annotated type gets a resource named {@link #RESOURCE_PREFIX} followed by its binary name, which
+ * holds the binary name of its generated adapter. This lets {@code GenerateTypeAdapter.FACTORY}
+ * find the adapter with a single resource lookup instead of probing class names.
+ */
+public final class AdapterIndex {
+  public static final String RESOURCE_PREFIX = "META-INF/auto-value-gson/adapters/";
+
+  private AdapterIndex() {
+  }
+
+  /**
+   * Returns the binary name of the adapter generated for {@code type}, or null if {@code type} has
+   * no index entry, e.g. because it was compiled by an older version of the extension.
+   */
+  @Nullable
+  public static String adapterName(Class<?> type) {
+    ClassLoader loader = type.getClassLoader();
+    if (loader == null) {
+      return null;
+    }
+    InputStream in = loader.getResourceAsStream(RESOURCE_PREFIX + type.getName());
+    if (in == null) {
+      return null;
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line = reader.readLine();
+      return line == null || line.trim().isEmpty() ? null : line.trim();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.ryanharter.auto.value.gson.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Creates instances of a generated adapter class through its {@code (Gson)} or
+ * {@code (Gson, Type[])} constructor. The constructor is bound to a {@link MethodHandle} once, so
+ * each instance costs a direct call instead of a reflective {@link Constructor#newInstance}, with a
+ * fallback to the latter where method handles aren't available (Android before API 26).
+ */
+public abstract class AdapterInstantiator {
+  private static final boolean METHOD_HANDLES_AVAILABLE = methodHandlesAvailable();
+
+  /** Returns an instantiator for {@code constructor}, which must be accessible. */
+  public static AdapterInstantiator create(Constructor<? extends TypeAdapter> constructor) {
+    if (METHOD_HANDLES_AVAILABLE) {
+      try {
+        return new MethodHandleInstantiator(constructor);
+      } catch (IllegalAccessException ignored) {
+        // Fall back to reflection, which reports the problem when it is used.
+      }
+    }
+    return new ReflectiveInstantiator(constructor);
+  }
+
+  AdapterInstantiator() {
+  }
+
+  /**
+   * Returns a new adapter for {@code type}, whose type arguments are passed to generic adapters.
+   */
+  public abstract TypeAdapter<?> newInstance(Gson gson, Type type);
+
+  private static boolean methodHandlesAvailable() {
+    try {
+      Class.forName("java.lang.invoke.MethodHandles");
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static RuntimeException rethrow(Constructor<?> constructor, Throwable cause) {
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new RuntimeException("Could not create generated TypeAdapter instance "
+        + constructor.getDeclaringClass().getName(), cause);
+  }
+
+  /** Only loaded where method handles exist. */
+  private static final class MethodHandleInstantiator extends AdapterInstantiator {
+    private final Constructor<?> constructor;
+    private final boolean generic;
+    private final MethodHandle handle;
+
+    MethodHandleInstantiator(Constructor<? extends TypeAdapter> constructor)
+        throws IllegalAccessException {
+      this.constructor = constructor;
+      this.generic = constructor.getParameterTypes().length == 2;
+      MethodType type = generic
+          ? MethodType.methodType(TypeAdapter.class, Gson.class, Type[].class)
+          : MethodType.methodType(TypeAdapter.class, Gson.class);
+      this.handle = MethodHandles.lookup().unreflectConstructor(constructor).asType(type);
+    }
+
+    @Override public TypeAdapter<?> newInstance(Gson gson, Type type) {
+      if (generic) {
+        Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
+        try {
+          return (TypeAdapter<?>) handle.invokeExact(gson, typeArguments);
+        } catch (Throwable e) {
+          throw rethrow(constructor, e);
+        }
+      }
+      try {
+        return (TypeAdapter<?>) handle.invokeExact(gson);
+      } catch (Throwable e) {
+        throw rethrow(constructor, e);
+      }
+    }
+  }
+
+  private static final class ReflectiveInstantiator extends AdapterInstantiator {
+    private final Constructor<? extends TypeAdapter> constructor;
+
+    ReflectiveInstantiator(Constructor<? extends TypeAdapter> constructor) {
+      this.constructor = constructor;
+    }
+
+    @Override public TypeAdapter<?> newInstance(Gson gson, Type type) {
+      //noinspection TryWithIdenticalCatches Resolves to API 19+ only type.
+      try {
+        if (constructor.getParameterTypes().length == 1) {
+          return constructor.newInstance(gson);
+        } else {
+          return constructor.newInstance(gson, ((ParameterizedType) type).getActualTypeArguments());
+        }
+      } catch (IllegalAccessException e) {
+        throw new RuntimeException("Unable to invoke " + constructor, e);
+      } catch (InstantiationException e) {
+        throw new RuntimeException("Unable to invoke " + constructor, e);
+      } catch (InvocationTargetException e) {
+        throw rethrow(constructor, e.getCause());
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.ryanharter.auto.value.gson.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A lock-free cache of values computed per class, including null ones. It's backed by a
+ * {@code ClassValue} where that's available, so it doesn't keep classes or their class loaders
+ * alive, and by a {@link ConcurrentHashMap} elsewhere (e.g. on older Android versions).
+ * <p>
+ * {@link #compute} may run more than once for the same class when threads race. Only one of the
+ * results is kept, so it must return equivalent values each time, but side effects such as
+ * counting calls are fine as long as repeating them is.
+ */
+public abstract class ClassCache<V> {
+  private static final boolean CLASS_VALUE_AVAILABLE = classValueAvailable();
+  private static final Object NULL = new Object();
+
+  private final Backing backing;
+
+  protected ClassCache() {
+    backing = CLASS_VALUE_AVAILABLE ? new ClassValueBacking(this) : new MapBacking(this);
+  }
+
+  /** Returns the value of {@code type}, computing it the first time. */
+  @SuppressWarnings("unchecked")
+  @Nullable
+  public final V get(Class<?> type) {
+    Object value = backing.get(type);
+    return value == NULL ? null : (V) value;
+  }
+
+  /** Computes the value of {@code type}, or null to cache that it has none. */
+  @Nullable
+  protected abstract V compute(Class<?> type);
+
+  final Object computeOrNull(Class<?> type) {
+    V value = compute(type);
+    return value == null ? NULL : value;
+  }
+
+  private static boolean classValueAvailable() {
+    try {
+      Class.forName("java.lang.ClassValue");
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private interface Backing {
+    Object get(Class<?> type);
+  }
+
+  /** Only loaded where {@code ClassValue} exists. */
+  private static final class ClassValueBacking extends ClassValue<Object> implements Backing {
+    private final ClassCache<?> cache;
+
+    ClassValueBacking(ClassCache<?> cache) {
+      this.cache = cache;
+    }
+
+    @Override protected Object computeValue(Class<?> type) {
+      return cache.computeOrNull(type);
+    }
+  }
+
+  private static final class MapBacking implements Backing {
+    private final ClassCache<?> cache;
+    private final ConcurrentMap<Class<?>, Object> values = new ConcurrentHashMap<>();
+
+    MapBacking(ClassCache<?> cache) {
+      this.cache = cache;
+    }
+
+    @Override public Object get(Class<?> type) {
+      Object value = values.get(type);
+      if (value == null) {
+        value = cache.computeOrNull(type);
+        Object raced = values.putIfAbsent(type, value);
+        if (raced != null) {
+          value = raced;
+        }
+      }
+      return value;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.ryanharter.auto.value.gson.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A counter for statistics that are updated on hot paths. It's backed by a {@code LongAdder} where
+ * that's available, so concurrent updates don't contend, and by an {@link AtomicLong} elsewhere
+ * (Android before API 24).
+ */
+public abstract class Counter {
+  private static final boolean LONG_ADDER_AVAILABLE = longAdderAvailable();
+
+  public static Counter create() {
+    return LONG_ADDER_AVAILABLE ? new LongAdderCounter() : new AtomicCounter();
+  }
+
+  Counter() {
+  }
+
+  public abstract void increment();
+
+  public abstract void add(long delta);
+
+  public abstract long sum();
+
+  private static boolean longAdderAvailable() {
+    try {
+      Class.forName("java.util.concurrent.atomic.LongAdder");
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  /** Only loaded where {@code LongAdder} exists. */
+  private static final class LongAdderCounter extends Counter {
+    private final LongAdder adder = new LongAdder();
+
+    @Override public void increment() {
+      adder.increment();
+    }
+
+    @Override public void add(long delta) {
+      adder.add(delta);
+    }
+
+    @Override public long sum() {
+      return adder.sum();
+    }
+  }
+
+  private static final class AtomicCounter extends Counter {
+    private final AtomicLong value = new AtomicLong();
+
+    @Override public void increment() {
+      value.incrementAndGet();
+    }
+
+    @Override public void add(long delta) {
+      value.addAndGet(delta);
+    }
+
+    @Override public long sum() {
+      return value.get();
+    }
+  }
+}
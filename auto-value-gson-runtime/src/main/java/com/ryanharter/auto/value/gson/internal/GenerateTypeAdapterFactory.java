@@ -0,0 +1,124 @@
+package com.ryanharter.auto.value.gson.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.ryanharter.auto.value.gson.GenerateTypeAdapter;
+import com.ryanharter.auto.value.gson.TypeLookupStatistics;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Type;
+
+/** The implementation of {@link GenerateTypeAdapter#FACTORY}. */
+public final class GenerateTypeAdapterFactory implements TypeAdapterFactory, TypeLookupStatistics {
+  /** The decision for generated AutoValue_ subtypes, whose adapter is that of their superclass. */
+  private static final Object DELEGATE_TO_SUPERCLASS = new Object();
+
+  private final Class<?> typeArrayClass = Array.newInstance(Type.class, 0).getClass();
+  private final Counter lookups = Counter.create();
+  private final Counter misses = Counter.create();
+
+  /**
+   * Whether each type Gson asked about is one of ours: an {@link AdapterInstantiator} if it is,
+   * {@link #DELEGATE_TO_SUPERCLASS}, or null if it isn't.
+   */
+  private final ClassCache<Object> decisions = new ClassCache<Object>() {
+    @Override protected Object compute(Class<?> cls) {
+      misses.increment();
+      return decide(cls);
+    }
+  };
+
+  private final ClassCache<AdapterInstantiator> instantiators =
+      new ClassCache<AdapterInstantiator>() {
+        @Override protected AdapterInstantiator compute(Class<?> cls) {
+          return findInstantiatorForClass(cls);
+        }
+      };
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+    lookups.increment();
+    Class<? super T> rawType = type.getRawType();
+    Object decision = decisions.get(rawType);
+    if (decision == null) {
+      return null;
+    }
+    if (decision == DELEGATE_TO_SUPERCLASS) {
+      // We might be a generated AutoValue_ subtype. Walk up until we hit the first class that
+      // isn't annotated with GenerateTypeAdapter.
+      return (TypeAdapter<T>) gson.getAdapter(rawType.getSuperclass());
+    }
+    return (TypeAdapter<T>) ((AdapterInstantiator) decision).newInstance(gson, type.getType());
+  }
+
+  @Override public long lookupHits() {
+    return lookups.sum() - misses.sum();
+  }
+
+  @Override public long lookupMisses() {
+    return misses.sum();
+  }
+
+  /** Computes the cached decision for {@code rawType}, see {@link #decisions}. */
+  private Object decide(Class<?> rawType) {
+    if (!rawType.isAnnotationPresent(GenerateTypeAdapter.class)) {
+      return null;
+    }
+    Class<?> superClass = rawType.getSuperclass();
+    if (superClass != null && superClass.isAnnotationPresent(GenerateTypeAdapter.class)) {
+      return DELEGATE_TO_SUPERCLASS;
+    }
+    return instantiators.get(rawType);
+  }
+
+  /** Computes the cached instantiator of {@code cls}, see {@link #instantiators}. */
+  private AdapterInstantiator findInstantiatorForClass(Class<?> cls) {
+    AdapterInstantiator instantiator;
+    String clsName = cls.getName();
+    if (clsName.startsWith("android.")
+        || clsName.startsWith("java.")
+        || clsName.startsWith("kotlin.")) {
+      return null;
+    }
+    String adapterName = AdapterIndex.adapterName(cls);
+    if (adapterName != null) {
+      // Indexed at build time, so there's no need to probe for the class.
+      try {
+        instantiator = AdapterInstantiator.create(adapterConstructor(
+            Class.forName(adapterName, false, cls.getClassLoader()), clsName));
+      } catch (ClassNotFoundException e) {
+        throw new RuntimeException("Unable to load " + adapterName + " for " + clsName, e);
+      }
+    } else {
+      // Compiled by an older version of the extension, or not ours at all.
+      try {
+        String nameAdjusted = cls.getName().replace("$", "_");
+        Class<?> bindingClass = cls.getClassLoader()
+            .loadClass(nameAdjusted + "_GsonTypeAdapter");
+        instantiator = AdapterInstantiator.create(adapterConstructor(bindingClass, clsName));
+      } catch (ClassNotFoundException e) {
+        Class<?> superClass = cls.getSuperclass();
+        instantiator = superClass != null ? instantiators.get(superClass) : null;
+      }
+    }
+    return instantiator;
+  }
+
+  /** Returns the gson or the gson + type[] constructor of {@code bindingClass}. */
+  @SuppressWarnings("unchecked")
+  private Constructor<? extends TypeAdapter> adapterConstructor(Class<?> bindingClass,
+      String clsName) {
+    for (Constructor<?> constructor : bindingClass.getDeclaredConstructors()) {
+      Class<?>[] params = constructor.getParameterTypes();
+      if (params.length > 0 && params[0] == Gson.class
+          && (params.length == 1 || (params.length == 2 && params[1] == typeArrayClass))) {
+        constructor.setAccessible(true);
+        return (Constructor<? extends TypeAdapter>) constructor;
+      }
+    }
+    throw new RuntimeException("Unable to find binding constructor for " + clsName);
+  }
+}
@@ -0,0 +1,125 @@
+package com.ryanharter.auto.value.gson.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.ryanharter.auto.value.gson.Utf8JsonReader;
+import java.io.IOException;
+
+/**
+ * Reads and writes {@code int}, {@code long}, {@code double}, {@code boolean} and {@code String}
+ * values exactly like Gson's built-in adapters do, but without boxing or a virtual call. Used by
+ * adapters generated with the {@code autovaluegson.specializePrimitives} option, and with the
+ * {@code autovaluegson.utf8Reader} option for {@link Utf8JsonReader}.
+ */
+public final class JsonPrimitives {
+  private static final Gson DEFAULT_GSON = new Gson();
+
+  private JsonPrimitives() {
+  }
+
+  /**
+   * Returns true if {@code gson} handles {@code type} with its built-in adapter, in which case the
+   * methods in this class can be used in its place. Returns false if the user registered their own
+   * adapter, or configured the built-in one differently (for example with a
+   * {@code LongSerializationPolicy}).
+   */
+  public static boolean usesDefaultAdapter(Gson gson, Class<?> type) {
+    return gson.getAdapter(type).getClass() == DEFAULT_GSON.getAdapter(type).getClass();
+  }
+
+  public static int readInt(JsonReader in) throws IOException {
+    try {
+      return in.nextInt();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  public static long readLong(JsonReader in) throws IOException {
+    try {
+      return in.nextLong();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  public static double readDouble(JsonReader in) throws IOException {
+    return in.nextDouble();
+  }
+
+  public static boolean readBoolean(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.STRING) {
+      // support strings for compatibility with GSON 1.7
+      return Boolean.parseBoolean(in.nextString());
+    }
+    return in.nextBoolean();
+  }
+
+  public static String readString(JsonReader in) throws IOException {
+    JsonToken peek = in.peek();
+    if (peek == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (peek == JsonToken.BOOLEAN) {
+      return Boolean.toString(in.nextBoolean());
+    }
+    return in.nextString();
+  }
+
+  public static int readInt(Utf8JsonReader in) throws IOException {
+    try {
+      return in.nextInt();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  public static long readLong(Utf8JsonReader in) throws IOException {
+    try {
+      return in.nextLong();
+    } catch (NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  public static double readDouble(Utf8JsonReader in) throws IOException {
+    return in.nextDouble();
+  }
+
+  public static boolean readBoolean(Utf8JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.STRING) {
+      return Boolean.parseBoolean(in.nextString());
+    }
+    return in.nextBoolean();
+  }
+
+  public static String readString(Utf8JsonReader in) throws IOException {
+    JsonToken peek = in.peek();
+    if (peek == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (peek == JsonToken.BOOLEAN) {
+      return Boolean.toString(in.nextBoolean());
+    }
+    return in.nextString();
+  }
+
+  /**
+   * Writes {@code value}, rejecting NaN and infinite values like the adapter of a {@code Gson}
+   * without {@code serializeSpecialFloatingPointValues()}. Gson uses a different adapter when that
+   * is enabled, so {@link #usesDefaultAdapter} is false and this method isn't used.
+   */
+  public static void writeDouble(JsonWriter out, double value) throws IOException {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new IllegalArgumentException(value
+          + " is not a valid double value as per JSON specification. To override this"
+          + " behavior, use GsonBuilder.serializeSpecialFloatingPointValues() method.");
+    }
+    out.value(value);
+  }
+}
@@ -0,0 +1,12 @@
+package com.ryanharter.auto.value.gson.internal;
+
+/**
+ * Implemented by the generated adapters which look up the adapters of their properties on first
+ * use. {@link #link()} looks up those that haven't been yet, so that {@code GsonWarmup} can move
+ * that work ahead of the first read or write.
+ */
+public interface LinkableAdapter {
+
+  /** Looks up the adapters of all properties which aren't known yet. */
+  void link();
+}
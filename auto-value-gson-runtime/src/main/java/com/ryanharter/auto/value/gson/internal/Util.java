@@ -40,25 +40,7 @@ public final class Util {
     Map<String, String> renamedFields = new LinkedHashMap<>();
     for (String fieldName : names) {
       if (fieldNamingStrategy instanceof FieldNamingPolicy) {
-        switch ((FieldNamingPolicy) fieldNamingStrategy) {
-          case UPPER_CAMEL_CASE:
-            renamedFields.put(fieldName, upperCaseFirstLetter(fieldName));
-            break;
-          case UPPER_CAMEL_CASE_WITH_SPACES:
-            renamedFields.put(fieldName, upperCaseFirstLetter(separateCamelCase(fieldName, " ")));
-            break;
-          case LOWER_CASE_WITH_UNDERSCORES:
-            renamedFields.put(fieldName, separateCamelCase(fieldName, "_").toLowerCase(Locale.ENGLISH));
-            break;
-          case LOWER_CASE_WITH_DASHES:
-            renamedFields.put(fieldName, separateCamelCase(fieldName, "-").toLowerCase(Locale.ENGLISH));
-            break;
-          case LOWER_CASE_WITH_DOTS:
-            renamedFields.put(fieldName, separateCamelCase(fieldName, ".").toLowerCase(Locale.ENGLISH));
-            break;
-          default:
-            renamedFields.put(fieldName, fieldName);
-        }
+        renamedFields.put(fieldName, translateName((FieldNamingPolicy) fieldNamingStrategy, fieldName));
       } else {
         try {
           renamedFields.put(fieldName, fieldNamingStrategy.translateName(targetClass.getDeclaredField(fieldName)));
@@ -69,6 +51,28 @@ public final class Util {
     }
     return renamedFields;
   }
+
+  /**
+   * Returns the name {@code fieldNamingPolicy} gives to a field named {@code fieldName}. This is
+   * used both at runtime and by the extension to resolve names at compile time.
+   */
+  public static String translateName(FieldNamingPolicy fieldNamingPolicy, String fieldName) {
+    switch (fieldNamingPolicy) {
+      case UPPER_CAMEL_CASE:
+        return upperCaseFirstLetter(fieldName);
+      case UPPER_CAMEL_CASE_WITH_SPACES:
+        return upperCaseFirstLetter(separateCamelCase(fieldName, " "));
+      case LOWER_CASE_WITH_UNDERSCORES:
+        return separateCamelCase(fieldName, "_").toLowerCase(Locale.ENGLISH);
+      case LOWER_CASE_WITH_DASHES:
+        return separateCamelCase(fieldName, "-").toLowerCase(Locale.ENGLISH);
+      case LOWER_CASE_WITH_DOTS:
+        return separateCamelCase(fieldName, ".").toLowerCase(Locale.ENGLISH);
+      default:
+        return fieldName;
+    }
+  }
+
   private static String separateCamelCase(String name, String separator) {
     StringBuilder translation = new StringBuilder();
     for (int i = 0, length = name.length(); i < length; i++) {
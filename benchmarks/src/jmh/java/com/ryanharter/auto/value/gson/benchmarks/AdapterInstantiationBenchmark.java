@@ -0,0 +1,46 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Creates a generated adapter through its constructor reflectively and through a bound method
+ * handle, the two ways {@code GenerateTypeAdapter.FACTORY} can instantiate adapters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdapterInstantiationBenchmark {
+  private final Gson gson = new Gson();
+  private Constructor<?> constructor;
+  private MethodHandle handle;
+
+  @Setup public void setUp() throws ReflectiveOperationException {
+    Class<?> adapterClass = Class.forName(Event.class.getName() + "_GsonTypeAdapter");
+    constructor = adapterClass.getDeclaredConstructor(Gson.class);
+    constructor.setAccessible(true);
+    handle = MethodHandles.lookup()
+        .unreflectConstructor(constructor)
+        .asType(MethodType.methodType(TypeAdapter.class, Gson.class));
+  }
+
+  @Benchmark public TypeAdapter<?> reflective() throws ReflectiveOperationException {
+    return (TypeAdapter<?>) constructor.newInstance(gson);
+  }
+
+  @Benchmark public TypeAdapter<?> methodHandle() throws Throwable {
+    return (TypeAdapter<?>) handle.invokeExact(gson);
+  }
+}
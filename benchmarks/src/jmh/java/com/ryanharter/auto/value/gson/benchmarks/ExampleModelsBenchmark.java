@@ -0,0 +1,157 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.ryanharter.auto.value.gson.benchmarks.ExamplePojos.AddressPojo;
+import com.ryanharter.auto.value.gson.benchmarks.ExamplePojos.GenericsExamplePojo;
+import com.ryanharter.auto.value.gson.benchmarks.ExamplePojos.PersonPojo;
+import com.ryanharter.auto.value.gson.benchmarks.ExamplePojos.WebResponsePojo;
+import com.ryanharter.auto.value.gson.example.Address;
+import com.ryanharter.auto.value.gson.example.BirthdateAdapter;
+import com.ryanharter.auto.value.gson.example.GenericsExample;
+import com.ryanharter.auto.value.gson.example.Person;
+import com.ryanharter.auto.value.gson.example.SampleAdapterFactory;
+import com.ryanharter.auto.value.gson.example.WebResponse;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reads and writes the {@code example} models with their generated adapters, and plain classes
+ * with the same properties with Gson's reflective adapter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExampleModelsBenchmark {
+  private static final String WEB_RESPONSE_JSON = "{"
+      + "\"status\":200,"
+      + "\"data\":{\"street-name\":\"Main Street\",\"city\":\"Springfield\"},"
+      + "\"dataList\":["
+      + "{\"street-name\":\"First Street\",\"city\":\"Shelbyville\"},"
+      + "{\"street-name\":\"Second Street\",\"city\":\"Ogdenville\"}],"
+      + "\"dataMap\":{\"home\":[{\"street-name\":\"Evergreen Terrace\",\"city\":\"Springfield\"}]}"
+      + "}";
+
+  private TypeAdapter<Person> generatedPerson;
+  private TypeAdapter<PersonPojo> reflectivePerson;
+  private Person person;
+  private PersonPojo personPojo;
+  private String generatedPersonJson;
+  private String reflectivePersonJson;
+
+  private TypeAdapter<WebResponse<Address>> generatedWebResponse;
+  private TypeAdapter<WebResponsePojo<AddressPojo>> reflectiveWebResponse;
+  private WebResponse<Address> webResponse;
+  private WebResponsePojo<AddressPojo> webResponsePojo;
+  private String reflectiveWebResponseJson;
+
+  private TypeAdapter<GenericsExample<String, Integer, Address>> generatedGenerics;
+  private TypeAdapter<GenericsExamplePojo<String, Integer, AddressPojo>> reflectiveGenerics;
+  private GenericsExample<String, Integer, Address> generics;
+  private GenericsExamplePojo<String, Integer, AddressPojo> genericsPojo;
+  private String generatedGenericsJson;
+  private String reflectiveGenericsJson;
+
+  @Setup public void setUp() throws IOException {
+    Gson generated = new GsonBuilder()
+        .registerTypeAdapter(Date.class, new BirthdateAdapter())
+        .registerTypeAdapterFactory(SampleAdapterFactory.create())
+        .create();
+    Gson reflective = new GsonBuilder()
+        .registerTypeAdapter(Date.class, new BirthdateAdapter())
+        .create();
+
+    generatedPerson = generated.getAdapter(Person.class);
+    reflectivePerson = reflective.getAdapter(PersonPojo.class);
+    person = Person.builder()
+        .name("Jane Doe")
+        .gender(1)
+        .age(42)
+        .birthdate(new Date(0))
+        .address(Address.create("Main Street", "Springfield"))
+        .build();
+    personPojo = PersonPojo.of(person);
+    generatedPersonJson = generatedPerson.toJson(person);
+    reflectivePersonJson = reflectivePerson.toJson(personPojo);
+
+    generatedWebResponse = generated.getAdapter(new TypeToken<WebResponse<Address>>() {});
+    reflectiveWebResponse =
+        reflective.getAdapter(new TypeToken<WebResponsePojo<AddressPojo>>() {});
+    webResponse = generatedWebResponse.fromJson(WEB_RESPONSE_JSON);
+    webResponsePojo = WebResponsePojo.of(webResponse);
+    reflectiveWebResponseJson = reflectiveWebResponse.toJson(webResponsePojo);
+
+    generatedGenerics =
+        generated.getAdapter(new TypeToken<GenericsExample<String, Integer, Address>>() {});
+    reflectiveGenerics = reflective.getAdapter(
+        new TypeToken<GenericsExamplePojo<String, Integer, AddressPojo>>() {});
+    generics = GenericsExample.<String, Integer, Address>builder()
+        .a("a")
+        .b(42)
+        .c(Address.create("Main Street", "Springfield"))
+        .build();
+    genericsPojo = GenericsExamplePojo.of(generics);
+    generatedGenericsJson = generatedGenerics.toJson(generics);
+    reflectiveGenericsJson = reflectiveGenerics.toJson(genericsPojo);
+  }
+
+  @Benchmark public String personWriteGenerated() {
+    return generatedPerson.toJson(person);
+  }
+
+  @Benchmark public String personWriteReflective() {
+    return reflectivePerson.toJson(personPojo);
+  }
+
+  @Benchmark public Person personReadGenerated() throws IOException {
+    return generatedPerson.fromJson(generatedPersonJson);
+  }
+
+  @Benchmark public PersonPojo personReadReflective() throws IOException {
+    return reflectivePerson.fromJson(reflectivePersonJson);
+  }
+
+  @Benchmark public String webResponseWriteGenerated() {
+    return generatedWebResponse.toJson(webResponse);
+  }
+
+  @Benchmark public String webResponseWriteReflective() {
+    return reflectiveWebResponse.toJson(webResponsePojo);
+  }
+
+  @Benchmark public WebResponse<Address> webResponseReadGenerated() throws IOException {
+    return generatedWebResponse.fromJson(WEB_RESPONSE_JSON);
+  }
+
+  @Benchmark public WebResponsePojo<AddressPojo> webResponseReadReflective() throws IOException {
+    return reflectiveWebResponse.fromJson(reflectiveWebResponseJson);
+  }
+
+  @Benchmark public String genericsWriteGenerated() {
+    return generatedGenerics.toJson(generics);
+  }
+
+  @Benchmark public String genericsWriteReflective() {
+    return reflectiveGenerics.toJson(genericsPojo);
+  }
+
+  @Benchmark public GenericsExample<String, Integer, Address> genericsReadGenerated()
+      throws IOException {
+    return generatedGenerics.fromJson(generatedGenericsJson);
+  }
+
+  @Benchmark public GenericsExamplePojo<String, Integer, AddressPojo> genericsReadReflective()
+      throws IOException {
+    return reflectiveGenerics.fromJson(reflectiveGenericsJson);
+  }
+}
@@ -0,0 +1,138 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.ryanharter.auto.value.gson.GenerateTypeAdapter;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Asks {@link GenerateTypeAdapter#FACTORY} for adapters from many threads at once, like many
+ * {@code Gson} instances starting together, and compares it with the factory as it was before it
+ * cached its lookups in a {@code ClassValue}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class FactoryLookupBenchmark {
+  @Param({"current", "synchronizedMap"})
+  public String factory;
+
+  private TypeAdapterFactory adapterFactory;
+  private Gson gson;
+  private final TypeToken<Event> event = TypeToken.get(Event.class);
+  private final TypeToken<String> string = TypeToken.get(String.class);
+  private final TypeToken<List<String>> list = new TypeToken<List<String>>() {};
+
+  @Setup public void setUp() {
+    adapterFactory = "current".equals(factory) ? GenerateTypeAdapter.FACTORY : new LegacyFactory();
+    gson = new Gson();
+  }
+
+  /** Creates the adapter of an annotated type. */
+  @Benchmark public TypeAdapter<Event> annotatedType() {
+    return adapterFactory.create(gson, event);
+  }
+
+  /** Gson asks every factory about every type, most of which aren't annotated. */
+  @Benchmark public TypeAdapter<String> foreignType() {
+    return adapterFactory.create(gson, string);
+  }
+
+  @Benchmark public TypeAdapter<List<String>> foreignGenericType() {
+    return adapterFactory.create(gson, list);
+  }
+
+  /** {@code GenerateTypeAdapter.FACTORY} as of auto-value-gson 1.3.1. */
+  static final class LegacyFactory implements TypeAdapterFactory {
+    private final Class<?> typeArrayClass = Array.newInstance(Type.class, 0).getClass();
+    private final Map<Class<?>, Constructor<? extends TypeAdapter>> adapters =
+        Collections.synchronizedMap(new LinkedHashMap<>());
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+      Class<? super T> rawType = type.getRawType();
+      if (!rawType.isAnnotationPresent(GenerateTypeAdapter.class)) {
+        return null;
+      }
+
+      Class<?> superClass = rawType.getSuperclass();
+      if (superClass.isAnnotationPresent(GenerateTypeAdapter.class)) {
+        return (TypeAdapter<T>) gson.getAdapter(superClass);
+      }
+
+      Constructor<? extends TypeAdapter> constructor = findConstructorForClass(rawType);
+      if (constructor == null) {
+        return null;
+      }
+      try {
+        if (constructor.getParameterTypes().length == 1) {
+          return constructor.newInstance(gson);
+        } else {
+          return constructor.newInstance(gson,
+              ((ParameterizedType) type.getType()).getActualTypeArguments());
+        }
+      } catch (IllegalAccessException | InstantiationException e) {
+        throw new RuntimeException("Unable to invoke " + constructor, e);
+      } catch (InvocationTargetException e) {
+        throw new RuntimeException(e.getCause());
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Constructor<? extends TypeAdapter> findConstructorForClass(Class<?> cls) {
+      Constructor<? extends TypeAdapter> adapterCtor = adapters.get(cls);
+      if (adapterCtor != null) {
+        return adapterCtor;
+      }
+      String clsName = cls.getName();
+      if (clsName.startsWith("android.")
+          || clsName.startsWith("java.")
+          || clsName.startsWith("kotlin.")) {
+        return null;
+      }
+      try {
+        String nameAdjusted = cls.getName().replace("$", "_");
+        Class<?> bindingClass = cls.getClassLoader()
+            .loadClass(nameAdjusted + "_GsonTypeAdapter");
+        try {
+          adapterCtor =
+              (Constructor<? extends TypeAdapter>) bindingClass.getDeclaredConstructor(Gson.class);
+          adapterCtor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+          adapterCtor =
+              (Constructor<? extends TypeAdapter>) bindingClass.getDeclaredConstructor(Gson.class,
+                  typeArrayClass);
+          adapterCtor.setAccessible(true);
+        }
+      } catch (ClassNotFoundException e) {
+        adapterCtor = findConstructorForClass(cls.getSuperclass());
+      } catch (NoSuchMethodException e) {
+        throw new RuntimeException("Unable to find binding constructor for " + clsName, e);
+      }
+      adapters.put(cls, adapterCtor);
+      return adapterCtor;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.GenerateTypeAdapter;
+import com.ryanharter.auto.value.gson.JsonLinesReader;
+import com.ryanharter.auto.value.gson.JsonLinesWriter;
+import com.ryanharter.auto.value.gson.ParallelJsonLines;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Decodes a JSON Lines file of a million events with {@link JsonLinesReader} on one thread, and
+ * with {@link ParallelJsonLines} on pools of 1 to 8 threads, to show how decoding scales with the
+ * cores. The adapters read the mapped bytes directly with {@code -PcodegenOptions=utf8Reader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonLinesBenchmark {
+  private static final int EVENTS = 1_000_000;
+
+  private TypeAdapter<Event> adapter;
+  private Path file;
+
+  @Setup public void setUp() throws IOException {
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapterFactory(GenerateTypeAdapter.FACTORY)
+        .create();
+    adapter = gson.getAdapter(Event.class);
+    file = Files.createTempFile("events", ".jsonl");
+    try (JsonLinesWriter<Event> writer =
+        JsonLinesWriter.of(gson, adapter, Files.newOutputStream(file))) {
+      for (int i = 0; i < EVENTS; i++) {
+        writer.write(Event.create(1_500_000_000_000L + i, "event-" + (i % 1000)));
+      }
+    }
+  }
+
+  @TearDown public void tearDown() throws IOException {
+    Files.delete(file);
+  }
+
+  @Benchmark public long sequential() throws IOException {
+    try (InputStream in = Files.newInputStream(file);
+        Stream<Event> events = JsonLinesReader.of(adapter, in).stream()) {
+      return events.count();
+    }
+  }
+
+  @Benchmark public long parallelOrdered(Pool pool) throws IOException {
+    try (Stream<Event> events = ParallelJsonLines.read(adapter, file, true, pool.pool)) {
+      return events.count();
+    }
+  }
+
+  @Benchmark public long parallelUnordered(Pool pool) throws IOException {
+    try (Stream<Event> events = ParallelJsonLines.read(adapter, file, false, pool.pool)) {
+      return events.count();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Pool {
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    ForkJoinPool pool;
+
+    @Setup public void setUp() {
+      pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown public void tearDown() {
+      pool.shutdown();
+    }
+  }
+}
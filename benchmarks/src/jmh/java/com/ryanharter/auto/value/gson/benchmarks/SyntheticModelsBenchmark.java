@@ -0,0 +1,240 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.EncodedNameJsonWriter;
+import com.ryanharter.auto.value.gson.JsonProjection;
+import com.ryanharter.auto.value.gson.LazyJson;
+import com.ryanharter.auto.value.gson.Utf8TypeReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Reads and writes a wide flat type and a deeply nested one with their generated adapters, and
+ * plain classes with the same properties with Gson's reflective adapter.
+ * <p>
+ * {@code wideWriteGeneratedEncodedNames} writes to an {@link EncodedNameJsonWriter}, which only
+ * skips escaping the names when the adapters are generated with
+ * {@code -PcodegenOptions=encodedNames}. {@code wideReadProjection} reads 3 of its 24 properties
+ * with a {@link JsonProjection}, which needs {@code -PcodegenOptions=projections}.
+ * <p>
+ * {@code flatReadGenerated} reads flat types of 8, 24 and 60 properties. Their adapters switch on
+ * the property names, unless generated with {@code -PcodegenOptions=useFieldNamePolicy}, which
+ * matches them with a chain of {@code equals()} calls instead. Comparing both runs shows how the
+ * cost per name grows with the number of properties.
+ * <p>
+ * The {@code envelopeRead} benchmarks read a {@link Wide} payload either right away or as a
+ * {@link LazyJson} property, without and then with decoding it. The {@code Utf8} ones read the
+ * same JSON as UTF-8 bytes, which needs {@code -PcodegenOptions=utf8Reader}; only they can keep
+ * the payload without parsing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SyntheticModelsBenchmark {
+  private TypeAdapter<Wide> generatedWide;
+  private TypeAdapter<Wide.Pojo> reflectiveWide;
+  private Wide wide;
+  private Wide.Pojo widePojo;
+  private String generatedWideJson;
+  private String reflectiveWideJson;
+
+  @Setup public void setUp() {
+    Gson generated = generatedGson();
+    Gson reflective = new Gson();
+
+    generatedWide = generated.getAdapter(Wide.class);
+    reflectiveWide = reflective.getAdapter(Wide.Pojo.class);
+    wide = Wide.create(42);
+    widePojo = Wide.Pojo.of(wide);
+    generatedWideJson = generatedWide.toJson(wide);
+    reflectiveWideJson = reflectiveWide.toJson(widePojo);
+  }
+
+  @Benchmark public String wideWriteGenerated() {
+    return generatedWide.toJson(wide);
+  }
+
+  @Benchmark public String wideWriteGeneratedEncodedNames() throws IOException {
+    StringWriter out = new StringWriter();
+    generatedWide.write(new EncodedNameJsonWriter(out), wide);
+    return out.toString();
+  }
+
+  @Benchmark public String wideWriteReflective() {
+    return reflectiveWide.toJson(widePojo);
+  }
+
+  @Benchmark public Wide wideReadGenerated() throws IOException {
+    return generatedWide.fromJson(generatedWideJson);
+  }
+
+  @Benchmark public Wide.Pojo wideReadReflective() throws IOException {
+    return reflectiveWide.fromJson(reflectiveWideJson);
+  }
+
+  @Benchmark public JsonProjection.Values wideReadProjection(Projection projection) {
+    return projection.projection.fromJson(generatedWideJson);
+  }
+
+  @Benchmark public Object flatReadGenerated(Flat flat) throws IOException {
+    return flat.adapter.fromJson(flat.json);
+  }
+
+  @Benchmark public Envelope.Eager envelopeReadEager(Envelopes envelopes) throws IOException {
+    return envelopes.eager.fromJson(envelopes.json);
+  }
+
+  @Benchmark public Envelope envelopeReadLazy(Envelopes envelopes) throws IOException {
+    return envelopes.lazy.fromJson(envelopes.json);
+  }
+
+  @Benchmark public Wide envelopeReadLazyThenGet(Envelopes envelopes) throws IOException {
+    return envelopes.lazy.fromJson(envelopes.json).payload().get();
+  }
+
+  @Benchmark public Envelope.Eager envelopeReadEagerUtf8(Utf8Envelopes envelopes)
+      throws IOException {
+    return envelopes.eager.fromUtf8(envelopes.json);
+  }
+
+  @Benchmark public Envelope envelopeReadLazyUtf8(Utf8Envelopes envelopes) throws IOException {
+    return envelopes.lazy.fromUtf8(envelopes.json);
+  }
+
+  @Benchmark public Wide envelopeReadLazyUtf8ThenGet(Utf8Envelopes envelopes) throws IOException {
+    return envelopes.lazy.fromUtf8(envelopes.json).payload().get();
+  }
+
+  @Benchmark public String deepWriteGenerated(Deep deep) {
+    return deep.generatedNode.toJson(deep.node);
+  }
+
+  @Benchmark public String deepWriteReflective(Deep deep) {
+    return deep.reflectiveNode.toJson(deep.nodePojo);
+  }
+
+  @Benchmark public Node deepReadGenerated(Deep deep) throws IOException {
+    return deep.generatedNode.fromJson(deep.generatedNodeJson);
+  }
+
+  @Benchmark public Node.Pojo deepReadReflective(Deep deep) throws IOException {
+    return deep.reflectiveNode.fromJson(deep.reflectiveNodeJson);
+  }
+
+  static Gson generatedGson() {
+    return new GsonBuilder()
+        .registerTypeAdapterFactory(BenchmarkAdapterFactory.create())
+        .create();
+  }
+
+  @State(Scope.Benchmark)
+  public static class Projection {
+    JsonProjection projection;
+
+    @Setup public void setUp() {
+      projection = JsonProjection.of(generatedGson().getAdapter(Wide.class),
+          "field00", "field04", "field12");
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Flat {
+    @Param({"8", "24", "60"})
+    public int propertyCount;
+
+    TypeAdapter<?> adapter;
+    String json;
+
+    @Setup public void setUp() {
+      Object value;
+      Class<?> type;
+      switch (propertyCount) {
+        case 8:
+          value = Wide8.create(42);
+          type = Wide8.class;
+          break;
+        case 24:
+          value = Wide.create(42);
+          type = Wide.class;
+          break;
+        case 60:
+          value = Wide60.create(42);
+          type = Wide60.class;
+          break;
+        default:
+          throw new IllegalArgumentException("No flat type with " + propertyCount + " properties");
+      }
+      Gson gson = generatedGson();
+      adapter = gson.getAdapter(type);
+      json = gson.toJson(value, type);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Envelopes {
+    TypeAdapter<Envelope> lazy;
+    TypeAdapter<Envelope.Eager> eager;
+    String json;
+
+    @Setup public void setUp() {
+      Gson gson = generatedGson();
+      lazy = gson.getAdapter(Envelope.class);
+      eager = gson.getAdapter(Envelope.Eager.class);
+      json = lazy.toJson(Envelope.create(42));
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Utf8Envelopes {
+    Utf8TypeReader<Envelope> lazy;
+    Utf8TypeReader<Envelope.Eager> eager;
+    byte[] json;
+
+    @SuppressWarnings("unchecked")
+    @Setup public void setUp() {
+      Gson gson = generatedGson();
+      TypeAdapter<Envelope> lazyAdapter = gson.getAdapter(Envelope.class);
+      TypeAdapter<Envelope.Eager> eagerAdapter = gson.getAdapter(Envelope.Eager.class);
+      if (!(lazyAdapter instanceof Utf8TypeReader) || !(eagerAdapter instanceof Utf8TypeReader)) {
+        throw new IllegalStateException("Needs -PcodegenOptions=utf8Reader");
+      }
+      lazy = (Utf8TypeReader<Envelope>) lazyAdapter;
+      eager = (Utf8TypeReader<Envelope.Eager>) eagerAdapter;
+      json = lazyAdapter.toJson(Envelope.create(42)).getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class Deep {
+    @Param({"4", "32"})
+    public int depth;
+
+    TypeAdapter<Node> generatedNode;
+    TypeAdapter<Node.Pojo> reflectiveNode;
+    Node node;
+    Node.Pojo nodePojo;
+    String generatedNodeJson;
+    String reflectiveNodeJson;
+
+    @Setup public void setUp() {
+      generatedNode = generatedGson().getAdapter(Node.class);
+      reflectiveNode = new Gson().getAdapter(Node.Pojo.class);
+      node = Node.chain(depth);
+      nodePojo = Node.Pojo.of(node);
+      generatedNodeJson = generatedNode.toJson(node);
+      reflectiveNodeJson = reflectiveNode.toJson(nodePojo);
+    }
+  }
+}
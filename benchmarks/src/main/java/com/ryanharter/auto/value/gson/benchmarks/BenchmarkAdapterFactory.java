@@ -0,0 +1,12 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.gson.TypeAdapterFactory;
+import com.ryanharter.auto.value.gson.GsonTypeAdapterFactory;
+
+@GsonTypeAdapterFactory
+public abstract class BenchmarkAdapterFactory implements TypeAdapterFactory {
+
+  public static TypeAdapterFactory create() {
+    return new AutoValueGson_BenchmarkAdapterFactory();
+  }
+}
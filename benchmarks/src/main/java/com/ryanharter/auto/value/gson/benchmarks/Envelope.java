@@ -0,0 +1,37 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.auto.value.AutoValue;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.LazyJson;
+import java.util.function.Supplier;
+
+/** A {@link Wide} payload decoded on first access, next to a property read right away. */
+@AutoValue
+public abstract class Envelope {
+  public abstract String id();
+
+  @LazyJson
+  public abstract Supplier<Wide> payload();
+
+  public static Envelope create(int seed) {
+    Wide payload = Wide.create(seed);
+    return new AutoValue_Envelope("envelope " + seed, () -> payload);
+  }
+
+  public static TypeAdapter<Envelope> typeAdapter(Gson gson) {
+    return new AutoValue_Envelope.GsonTypeAdapter(gson);
+  }
+
+  /** The same properties, with the payload decoded right away. */
+  @AutoValue
+  public abstract static class Eager {
+    public abstract String id();
+
+    public abstract Wide payload();
+
+    public static TypeAdapter<Eager> typeAdapter(Gson gson) {
+      return new AutoValue_Envelope_Eager.GsonTypeAdapter(gson);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.auto.value.AutoValue;
+import com.ryanharter.auto.value.gson.GenerateTypeAdapter;
+
+/** A type whose adapter is created by {@link GenerateTypeAdapter#FACTORY}. */
+@GenerateTypeAdapter
+@AutoValue
+public abstract class Event {
+  public abstract long timestamp();
+  public abstract String name();
+
+  public static Event create(long timestamp, String name) {
+    return new AutoValue_Event(timestamp, name);
+  }
+}
@@ -0,0 +1,94 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.gson.annotations.SerializedName;
+import com.ryanharter.auto.value.gson.example.Address;
+import com.ryanharter.auto.value.gson.example.GenericsExample;
+import com.ryanharter.auto.value.gson.example.Person;
+import com.ryanharter.auto.value.gson.example.WebResponse;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain classes with the same properties as the {@code example} models, for Gson's reflective
+ * adapter.
+ */
+public final class ExamplePojos {
+
+  private ExamplePojos() {
+  }
+
+  public static final class PersonPojo {
+    String name;
+    int gender;
+    int age;
+    Date birthdate;
+    AddressPojo address;
+
+    public static PersonPojo of(Person person) {
+      PersonPojo pojo = new PersonPojo();
+      pojo.name = person.name();
+      pojo.gender = person.gender();
+      pojo.age = person.age();
+      pojo.birthdate = person.birthdate();
+      pojo.address = person.address() != null ? AddressPojo.of(person.address()) : null;
+      return pojo;
+    }
+  }
+
+  public static final class AddressPojo {
+    @SerializedName("street-name") String streetName;
+    String city;
+
+    public static AddressPojo of(Address address) {
+      AddressPojo pojo = new AddressPojo();
+      pojo.streetName = address.streetName();
+      pojo.city = address.city();
+      return pojo;
+    }
+  }
+
+  public static final class WebResponsePojo<T> {
+    int status;
+    T data;
+    List<T> dataList;
+    Map<String, List<T>> dataMap;
+
+    public static WebResponsePojo<AddressPojo> of(WebResponse<Address> response) {
+      WebResponsePojo<AddressPojo> pojo = new WebResponsePojo<>();
+      pojo.status = response.status();
+      pojo.data = AddressPojo.of(response.data());
+      pojo.dataList = addresses(response.dataList());
+      pojo.dataMap = new LinkedHashMap<>();
+      for (Map.Entry<String, List<Address>> entry : response.dataMap().entrySet()) {
+        pojo.dataMap.put(entry.getKey(), addresses(entry.getValue()));
+      }
+      return pojo;
+    }
+
+    private static List<AddressPojo> addresses(List<Address> addresses) {
+      List<AddressPojo> pojos = new ArrayList<>(addresses.size());
+      for (Address address : addresses) {
+        pojos.add(AddressPojo.of(address));
+      }
+      return pojos;
+    }
+  }
+
+  public static final class GenericsExamplePojo<A, B, C> {
+    A a;
+    B b;
+    C c;
+
+    public static GenericsExamplePojo<String, Integer, AddressPojo> of(
+        GenericsExample<String, Integer, Address> example) {
+      GenericsExamplePojo<String, Integer, AddressPojo> pojo = new GenericsExamplePojo<>();
+      pojo.a = example.a();
+      pojo.b = example.b();
+      pojo.c = AddressPojo.of(example.c());
+      return pojo;
+    }
+  }
+}
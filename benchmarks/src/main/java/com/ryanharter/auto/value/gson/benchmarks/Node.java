@@ -0,0 +1,40 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.auto.value.AutoValue;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+
+/** A recursive type, nested as deep as a benchmark asks for. */
+@AutoValue
+public abstract class Node {
+  public abstract int id();
+  public abstract String label();
+  @Nullable public abstract Node child();
+
+  public static Node chain(int depth) {
+    Node node = null;
+    for (int i = depth - 1; i >= 0; i--) {
+      node = new AutoValue_Node(i, "node " + i, node);
+    }
+    return node;
+  }
+
+  public static TypeAdapter<Node> typeAdapter(Gson gson) {
+    return new AutoValue_Node.GsonTypeAdapter(gson);
+  }
+
+  /** The same properties in a plain class, for Gson's reflective adapter. */
+  public static final class Pojo {
+    int id;
+    String label;
+    Pojo child;
+
+    public static Pojo of(Node node) {
+      Pojo pojo = new Pojo();
+      pojo.id = node.id();
+      pojo.label = node.label();
+      pojo.child = node.child() != null ? of(node.child()) : null;
+      return pojo;
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+@Retention(CLASS)
+@interface Nullable {
+}
@@ -0,0 +1,273 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.auto.value.extension.AutoValueExtension;
+import com.google.auto.value.processor.AutoValueProcessor;
+import com.ryanharter.auto.value.gson.AutoValueGsonExtension;
+import com.ryanharter.auto.value.gson.factory.AutoValueGsonAdapterFactoryProcessor;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Measures how long the extension and the factory processor take to process a large codebase of
+ * {@code classCount} synthetic AutoValue classes, reporting the time per class and in total.
+ * Sources are only processed ({@code -proc:only}), so javac's code generation isn't measured.
+ * <p>
+ * Run it with {@code ./gradlew :benchmarks:processorBenchmark -PclassCount=5000}, or from the IDE
+ * with {@code classCount} and {@code iterations} as arguments.
+ */
+public final class ProcessorBenchmark {
+  private static final int WARMUP_ITERATIONS = 3;
+
+  public static void main(String[] args) throws IOException {
+    int classCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    List<JavaFileObject> sources = sources(classCount);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("No system Java compiler, run this on a JDK.");
+    }
+
+    List<Timings> results = new ArrayList<>();
+    for (int i = -WARMUP_ITERATIONS; i < iterations; i++) {
+      Timings timings = compile(compiler, sources);
+      if (i >= 0) {
+        results.add(timings);
+        System.out.println("Iteration " + (i + 1) + ": " + timings.format(classCount));
+      }
+    }
+    results.sort(Comparator.comparingLong(timings -> timings.totalNanos));
+    System.out.println(classCount + " classes, median: "
+        + results.get(results.size() / 2).format(classCount));
+  }
+
+  private static Timings compile(JavaCompiler compiler, List<JavaFileObject> sources)
+      throws IOException {
+    Path output = Files.createTempDirectory("processor-benchmark");
+    try {
+      Timings timings = new Timings();
+      List<String> options = Arrays.asList(
+          "-proc:only",
+          "-classpath", System.getProperty("java.class.path"),
+          "-s", output.toString(),
+          "-d", output.toString());
+      JavaCompiler.CompilationTask task =
+          compiler.getTask(null, null, null, options, null, sources);
+      task.setProcessors(Arrays.asList(
+          new AutoValueProcessor(Collections.singletonList(
+              new TimingExtension(new AutoValueGsonExtension(), timings))),
+          new TimingProcessor(new AutoValueGsonAdapterFactoryProcessor(), timings)));
+      long start = System.nanoTime();
+      if (!task.call()) {
+        throw new IllegalStateException("Compilation failed");
+      }
+      timings.totalNanos = System.nanoTime() - start;
+      return timings;
+    } finally {
+      delete(output);
+    }
+  }
+
+  /**
+   * Returns {@code classCount} AutoValue classes in packages of 100, with a mix of property types,
+   * {@code @SerializedName} properties, references between the classes, and
+   * {@code @GenerateTypeAdapter} classes, plus a {@code @GsonTypeAdapterFactory} for the others.
+   */
+  private static List<JavaFileObject> sources(int classCount) {
+    List<JavaFileObject> sources = new ArrayList<>(classCount + 1);
+    for (int i = 0; i < classCount; i++) {
+      String packageName = "bench.p" + (i / 100);
+      String name = "Model" + i;
+      boolean generateTypeAdapter = i % 10 == 0;
+      StringBuilder source = new StringBuilder()
+          .append("package ").append(packageName).append(";\n")
+          .append("import com.google.auto.value.AutoValue;\n")
+          .append("import com.google.gson.Gson;\n")
+          .append("import com.google.gson.TypeAdapter;\n")
+          .append("import com.google.gson.annotations.SerializedName;\n")
+          .append("import com.ryanharter.auto.value.gson.GenerateTypeAdapter;\n")
+          .append("import java.util.List;\n")
+          .append("import java.util.Map;\n");
+      if (generateTypeAdapter) {
+        source.append("@GenerateTypeAdapter\n");
+      }
+      source.append("@AutoValue public abstract class ").append(name).append(" {\n")
+          .append("  public abstract int id();\n")
+          .append("  public abstract long timestamp();\n")
+          .append("  @SerializedName(\"display_name\") public abstract String displayName();\n")
+          .append("  @SerializedName(value = \"score\", alternate = {\"rating\"})")
+          .append(" public abstract double score();\n")
+          .append("  public abstract boolean active();\n")
+          .append("  public abstract List<String> tags();\n")
+          .append("  public abstract Map<String, Integer> counts();\n");
+      if (i > 0) {
+        // A reference to an earlier class, often in another package.
+        int previous = (i * 31) % i;
+        source.append("  public abstract bench.p").append(previous / 100)
+            .append(".Model").append(previous).append(" related();\n");
+      }
+      if (!generateTypeAdapter) {
+        source.append("  public static TypeAdapter<").append(name)
+            .append("> typeAdapter(Gson gson) {\n")
+            .append("    return new AutoValue_").append(name).append(".GsonTypeAdapter(gson);\n")
+            .append("  }\n");
+      }
+      source.append("}\n");
+      sources.add(new Source(packageName + "." + name, source.toString()));
+    }
+    sources.add(new Source("bench.BenchAdapterFactory", ""
+        + "package bench;\n"
+        + "import com.google.gson.TypeAdapterFactory;\n"
+        + "import com.ryanharter.auto.value.gson.GsonTypeAdapterFactory;\n"
+        + "@GsonTypeAdapterFactory\n"
+        + "public abstract class BenchAdapterFactory implements TypeAdapterFactory {\n"
+        + "  public static TypeAdapterFactory create() {\n"
+        + "    return new AutoValueGson_BenchAdapterFactory();\n"
+        + "  }\n"
+        + "}\n"));
+    return sources;
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static final class Timings {
+    long extensionNanos;
+    long factoryNanos;
+    long totalNanos;
+
+    String format(int classCount) {
+      return String.format(Locale.US,
+          "extension %d ms (%.1f us/class), factory %d ms (%.1f us/class), javac total %d ms",
+          extensionNanos / 1_000_000, extensionNanos / 1000.0 / classCount,
+          factoryNanos / 1_000_000, factoryNanos / 1000.0 / classCount,
+          totalNanos / 1_000_000);
+    }
+  }
+
+  private static final class Source extends SimpleJavaFileObject {
+    private final String content;
+
+    Source(String qualifiedName, String content) {
+      super(new File(qualifiedName.replace('.', '/') + Kind.SOURCE.extension).toURI(),
+          Kind.SOURCE);
+      this.content = content;
+    }
+
+    @Override public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return content;
+    }
+  }
+
+  /** Times the calls AutoValue makes into the extension. */
+  private static final class TimingExtension extends AutoValueExtension {
+    private final AutoValueExtension delegate;
+    private final Timings timings;
+
+    TimingExtension(AutoValueExtension delegate, Timings timings) {
+      this.delegate = delegate;
+      this.timings = timings;
+    }
+
+    @Override public Set<String> getSupportedOptions() {
+      return delegate.getSupportedOptions();
+    }
+
+    @Override public IncrementalExtensionType incrementalType(ProcessingEnvironment env) {
+      return delegate.incrementalType(env);
+    }
+
+    @Override public boolean applicable(Context context) {
+      long start = System.nanoTime();
+      try {
+        return delegate.applicable(context);
+      } finally {
+        timings.extensionNanos += System.nanoTime() - start;
+      }
+    }
+
+    @Override public boolean mustBeFinal(Context context) {
+      return delegate.mustBeFinal(context);
+    }
+
+    @Override public String generateClass(Context context, String className,
+        String classToExtend, boolean isFinal) {
+      long start = System.nanoTime();
+      try {
+        return delegate.generateClass(context, className, classToExtend, isFinal);
+      } finally {
+        timings.extensionNanos += System.nanoTime() - start;
+      }
+    }
+  }
+
+  /** Times the rounds of the factory processor. */
+  private static final class TimingProcessor implements Processor {
+    private final Processor delegate;
+    private final Timings timings;
+
+    TimingProcessor(Processor delegate, Timings timings) {
+      this.delegate = delegate;
+      this.timings = timings;
+    }
+
+    @Override public Set<String> getSupportedOptions() {
+      return delegate.getSupportedOptions();
+    }
+
+    @Override public Set<String> getSupportedAnnotationTypes() {
+      return delegate.getSupportedAnnotationTypes();
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+      return delegate.getSupportedSourceVersion();
+    }
+
+    @Override public void init(ProcessingEnvironment processingEnv) {
+      delegate.init(processingEnv);
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations,
+        RoundEnvironment roundEnv) {
+      long start = System.nanoTime();
+      try {
+        return delegate.process(annotations, roundEnv);
+      } finally {
+        timings.factoryNanos += System.nanoTime() - start;
+      }
+    }
+
+    @Override public Iterable<? extends Completion> getCompletions(Element element,
+        AnnotationMirror annotation, ExecutableElement member, String userText) {
+      return delegate.getCompletions(element, annotation, member, userText);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.auto.value.AutoValue;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+
+/** A flat type with many primitive and string properties. */
+@AutoValue
+public abstract class Wide {
+  public abstract int field00();
+  public abstract long field01();
+  public abstract double field02();
+  public abstract boolean field03();
+  public abstract String field04();
+  public abstract int field05();
+  public abstract long field06();
+  public abstract String field07();
+  public abstract int field08();
+  public abstract long field09();
+  public abstract double field10();
+  public abstract boolean field11();
+  public abstract String field12();
+  public abstract int field13();
+  public abstract long field14();
+  public abstract String field15();
+  public abstract int field16();
+  public abstract long field17();
+  public abstract double field18();
+  public abstract boolean field19();
+  public abstract String field20();
+  public abstract int field21();
+  public abstract long field22();
+  public abstract String field23();
+
+  public static Wide create(int seed) {
+    return new AutoValue_Wide(
+        seed + 0,
+        seed * 1_000_000_007L + 1,
+        seed / 7.0 + 2,
+        (seed + 3) % 2 == 0,
+        "value " + seed + " of field04",
+        seed + 5,
+        seed * 1_000_000_007L + 6,
+        "value " + seed + " of field07",
+        seed + 8,
+        seed * 1_000_000_007L + 9,
+        seed / 7.0 + 10,
+        (seed + 11) % 2 == 0,
+        "value " + seed + " of field12",
+        seed + 13,
+        seed * 1_000_000_007L + 14,
+        "value " + seed + " of field15",
+        seed + 16,
+        seed * 1_000_000_007L + 17,
+        seed / 7.0 + 18,
+        (seed + 19) % 2 == 0,
+        "value " + seed + " of field20",
+        seed + 21,
+        seed * 1_000_000_007L + 22,
+        "value " + seed + " of field23");
+  }
+
+  public static TypeAdapter<Wide> typeAdapter(Gson gson) {
+    return new AutoValue_Wide.GsonTypeAdapter(gson);
+  }
+
+  /** The same properties in a plain class, for Gson's reflective adapter. */
+  public static final class Pojo {
+    int field00;
+    long field01;
+    double field02;
+    boolean field03;
+    String field04;
+    int field05;
+    long field06;
+    String field07;
+    int field08;
+    long field09;
+    double field10;
+    boolean field11;
+    String field12;
+    int field13;
+    long field14;
+    String field15;
+    int field16;
+    long field17;
+    double field18;
+    boolean field19;
+    String field20;
+    int field21;
+    long field22;
+    String field23;
+
+    public static Pojo of(Wide wide) {
+      Pojo pojo = new Pojo();
+      pojo.field00 = wide.field00();
+      pojo.field01 = wide.field01();
+      pojo.field02 = wide.field02();
+      pojo.field03 = wide.field03();
+      pojo.field04 = wide.field04();
+      pojo.field05 = wide.field05();
+      pojo.field06 = wide.field06();
+      pojo.field07 = wide.field07();
+      pojo.field08 = wide.field08();
+      pojo.field09 = wide.field09();
+      pojo.field10 = wide.field10();
+      pojo.field11 = wide.field11();
+      pojo.field12 = wide.field12();
+      pojo.field13 = wide.field13();
+      pojo.field14 = wide.field14();
+      pojo.field15 = wide.field15();
+      pojo.field16 = wide.field16();
+      pojo.field17 = wide.field17();
+      pojo.field18 = wide.field18();
+      pojo.field19 = wide.field19();
+      pojo.field20 = wide.field20();
+      pojo.field21 = wide.field21();
+      pojo.field22 = wide.field22();
+      pojo.field23 = wide.field23();
+      return pojo;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.auto.value.AutoValue;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+
+/** Like {@link Wide}, with 60 properties. */
+@AutoValue
+public abstract class Wide60 {
+  public abstract int field00();
+  public abstract long field01();
+  public abstract double field02();
+  public abstract boolean field03();
+  public abstract String field04();
+  public abstract int field05();
+  public abstract long field06();
+  public abstract String field07();
+  public abstract int field08();
+  public abstract long field09();
+  public abstract double field10();
+  public abstract boolean field11();
+  public abstract String field12();
+  public abstract int field13();
+  public abstract long field14();
+  public abstract String field15();
+  public abstract int field16();
+  public abstract long field17();
+  public abstract double field18();
+  public abstract boolean field19();
+  public abstract String field20();
+  public abstract int field21();
+  public abstract long field22();
+  public abstract String field23();
+  public abstract int field24();
+  public abstract long field25();
+  public abstract double field26();
+  public abstract boolean field27();
+  public abstract String field28();
+  public abstract int field29();
+  public abstract long field30();
+  public abstract String field31();
+  public abstract int field32();
+  public abstract long field33();
+  public abstract double field34();
+  public abstract boolean field35();
+  public abstract String field36();
+  public abstract int field37();
+  public abstract long field38();
+  public abstract String field39();
+  public abstract int field40();
+  public abstract long field41();
+  public abstract double field42();
+  public abstract boolean field43();
+  public abstract String field44();
+  public abstract int field45();
+  public abstract long field46();
+  public abstract String field47();
+  public abstract int field48();
+  public abstract long field49();
+  public abstract double field50();
+  public abstract boolean field51();
+  public abstract String field52();
+  public abstract int field53();
+  public abstract long field54();
+  public abstract String field55();
+  public abstract int field56();
+  public abstract long field57();
+  public abstract double field58();
+  public abstract boolean field59();
+
+  public static Wide60 create(int seed) {
+    return new AutoValue_Wide60(
+        seed + 0,
+        seed * 1_000_000_007L + 1,
+        seed / 7.0 + 2,
+        (seed + 3) % 2 == 0,
+        "value " + seed + " of field04",
+        seed + 5,
+        seed * 1_000_000_007L + 6,
+        "value " + seed + " of field07",
+        seed + 8,
+        seed * 1_000_000_007L + 9,
+        seed / 7.0 + 10,
+        (seed + 11) % 2 == 0,
+        "value " + seed + " of field12",
+        seed + 13,
+        seed * 1_000_000_007L + 14,
+        "value " + seed + " of field15",
+        seed + 16,
+        seed * 1_000_000_007L + 17,
+        seed / 7.0 + 18,
+        (seed + 19) % 2 == 0,
+        "value " + seed + " of field20",
+        seed + 21,
+        seed * 1_000_000_007L + 22,
+        "value " + seed + " of field23",
+        seed + 24,
+        seed * 1_000_000_007L + 25,
+        seed / 7.0 + 26,
+        (seed + 27) % 2 == 0,
+        "value " + seed + " of field28",
+        seed + 29,
+        seed * 1_000_000_007L + 30,
+        "value " + seed + " of field31",
+        seed + 32,
+        seed * 1_000_000_007L + 33,
+        seed / 7.0 + 34,
+        (seed + 35) % 2 == 0,
+        "value " + seed + " of field36",
+        seed + 37,
+        seed * 1_000_000_007L + 38,
+        "value " + seed + " of field39",
+        seed + 40,
+        seed * 1_000_000_007L + 41,
+        seed / 7.0 + 42,
+        (seed + 43) % 2 == 0,
+        "value " + seed + " of field44",
+        seed + 45,
+        seed * 1_000_000_007L + 46,
+        "value " + seed + " of field47",
+        seed + 48,
+        seed * 1_000_000_007L + 49,
+        seed / 7.0 + 50,
+        (seed + 51) % 2 == 0,
+        "value " + seed + " of field52",
+        seed + 53,
+        seed * 1_000_000_007L + 54,
+        "value " + seed + " of field55",
+        seed + 56,
+        seed * 1_000_000_007L + 57,
+        seed / 7.0 + 58,
+        (seed + 59) % 2 == 0);
+  }
+
+  public static TypeAdapter<Wide60> typeAdapter(Gson gson) {
+    return new AutoValue_Wide60.GsonTypeAdapter(gson);
+  }
+}
@@ -0,0 +1,34 @@
+package com.ryanharter.auto.value.gson.benchmarks;
+
+import com.google.auto.value.AutoValue;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+
+/** Like {@link Wide}, with 8 properties. */
+@AutoValue
+public abstract class Wide8 {
+  public abstract int field00();
+  public abstract long field01();
+  public abstract double field02();
+  public abstract boolean field03();
+  public abstract String field04();
+  public abstract int field05();
+  public abstract long field06();
+  public abstract String field07();
+
+  public static Wide8 create(int seed) {
+    return new AutoValue_Wide8(
+        seed + 0,
+        seed * 1_000_000_007L + 1,
+        seed / 7.0 + 2,
+        (seed + 3) % 2 == 0,
+        "value " + seed + " of field04",
+        seed + 5,
+        seed * 1_000_000_007L + 6,
+        "value " + seed + " of field07");
+  }
+
+  public static TypeAdapter<Wide8> typeAdapter(Gson gson) {
+    return new AutoValue_Wide8.GsonTypeAdapter(gson);
+  }
+}
@@ -0,0 +1,24 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.auto.value.AutoValue;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.LazyJson;
+import java.util.function.Supplier;
+
+@AutoValue
+public abstract class Order {
+
+    public static Order create(String id, Supplier<Address> shippingAddress) {
+        return new AutoValue_Order(id, shippingAddress);
+    }
+
+    public static TypeAdapter<Order> typeAdapter(Gson gson) {
+        return new AutoValue_Order.GsonTypeAdapter(gson);
+    }
+
+    public abstract String id();
+
+    @LazyJson
+    public abstract Supplier<Address> shippingAddress();
+}
@@ -18,6 +18,8 @@ public abstract class Person {
     @Nullable
     public abstract Address address();
 
+    public abstract Builder toBuilder();
+
     public static Builder builder() {
         return new AutoValue_Person.Builder()
             .name("Jane Doe")
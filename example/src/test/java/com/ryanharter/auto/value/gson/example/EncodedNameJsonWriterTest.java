@@ -0,0 +1,68 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.ryanharter.auto.value.gson.EncodedNameJsonWriter;
+import java.io.StringWriter;
+import java.util.Date;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class EncodedNameJsonWriterTest {
+
+    private static Gson createGson(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(Date.class, new BirthdateAdapter())
+                .registerTypeAdapterFactory(SampleAdapterFactory.create())
+                .create();
+    }
+
+    private static String toJson(Gson gson, Object value) {
+        StringWriter out = new StringWriter();
+        gson.toJson(value, value.getClass(), new EncodedNameJsonWriter(out));
+        return out.toString();
+    }
+
+    private static Person person(Address address) {
+        return Person.builder()
+                .name("Zo\u00eb \"<Z>\" \ud83d\ude00")
+                .gender(1)
+                .age(23)
+                .birthdate(new Date(0))
+                .address(address)
+                .build();
+    }
+
+    @Test
+    public void writesSameJsonAsGson() {
+        Gson gson = createGson(new GsonBuilder());
+        Person person = person(Address.create("street\n", "city"));
+
+        assertEquals(gson.toJson(person), toJson(gson, person));
+    }
+
+    @Test
+    public void honorsSerializeNullsAndHtmlEscaping() {
+        Person person = person(null);
+
+        Gson serializeNulls = createGson(new GsonBuilder().serializeNulls());
+        assertEquals(serializeNulls.toJson(person), toJson(serializeNulls, person));
+
+        Gson htmlUnsafe = createGson(new GsonBuilder().disableHtmlEscaping());
+        assertEquals(htmlUnsafe.toJson(person), toJson(htmlUnsafe, person));
+    }
+
+    @Test
+    public void writesEncodedNames() throws Exception {
+        StringWriter out = new StringWriter();
+        EncodedNameJsonWriter writer = new EncodedNameJsonWriter(out);
+        writer.beginObject();
+        writer.name(EncodedNameJsonWriter.encodeName("a\"b")).value(1);
+        writer.name("c").beginArray().value(true).nullValue().endArray();
+        writer.endObject();
+        writer.close();
+
+        assertEquals("{\"a\\\"b\":1,\"c\":[true,null]}", out.toString());
+    }
+}
@@ -4,11 +4,16 @@ import com.google.auto.value.AutoValue;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
 import com.ryanharter.auto.value.gson.GenerateTypeAdapter;
+import com.ryanharter.auto.value.gson.internal.AdapterIndex;
+import com.ryanharter.auto.value.gson.internal.GenerateTypeAdapterFactory;
 import java.io.IOException;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 public final class GenerateTypeAdapterTest {
@@ -49,6 +54,29 @@ public final class GenerateTypeAdapterTest {
     assertSame(adapter, generatedClassAdapter);
   }
 
+  @Test
+  public void cachesLookups() {
+    GenerateTypeAdapterFactory factory = new GenerateTypeAdapterFactory();
+    Gson gson = new Gson();
+
+    assertNotNull(factory.create(gson, TypeToken.get(Taco.class)));
+    assertNull(factory.create(gson, TypeToken.get(String.class)));
+    assertEquals(2, factory.lookupMisses());
+    assertEquals(0, factory.lookupHits());
+
+    assertNotNull(factory.create(new Gson(), TypeToken.get(Taco.class)));
+    assertNull(factory.create(gson, TypeToken.get(String.class)));
+    assertEquals(2, factory.lookupMisses());
+    assertEquals(2, factory.lookupHits());
+  }
+
+  @Test
+  public void adapterIsIndexed() {
+    assertEquals("com.ryanharter.auto.value.gson.example.GenerateTypeAdapterTest_Taco_GsonTypeAdapter",
+        AdapterIndex.adapterName(Taco.class));
+    assertNull(AdapterIndex.adapterName(AutoValue_GenerateTypeAdapterTest_Taco.class));
+  }
+
   @GenerateTypeAdapter
   @AutoValue
   public static abstract class Taco {
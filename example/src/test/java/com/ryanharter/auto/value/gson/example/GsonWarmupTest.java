@@ -0,0 +1,101 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.ryanharter.auto.value.gson.GsonWarmup;
+import com.ryanharter.auto.value.gson.WarmableTypeAdapterFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class GsonWarmupTest {
+
+    private final WarmableTypeAdapterFactory factory =
+            (WarmableTypeAdapterFactory) SampleAdapterFactory.create();
+
+    private Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Date.class, new BirthdateAdapter())
+                .registerTypeAdapterFactory(factory)
+                .create();
+    }
+
+    @Test
+    public void knowsFactoryTypes() {
+        assertTrue(factory.knownTypeNames().contains(Person.class.getName()));
+        assertTrue(factory.knownTypeNames().contains(Address.class.getName()));
+    }
+
+    @Test
+    public void warmUp() {
+        GsonWarmup.Result result = GsonWarmup.warmUp(createGson(), factory);
+
+        assertEquals(result.failures().toString(), 0, result.failures().size());
+        assertTrue(result.adapterCount() >= 2);
+        assertTrue(result.elapsed(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void warmUpLinksPropertyAdapters() throws IllegalAccessException {
+        Gson gson = createGson();
+        GsonWarmup.warmUp(gson, factory);
+
+        TypeAdapter<Person> adapter = gson.getAdapter(Person.class);
+        for (Field field : adapter.getClass().getDeclaredFields()) {
+            if (TypeAdapter.class.isAssignableFrom(field.getType())) {
+                field.setAccessible(true);
+                assertNotNull(field.getName(), field.get(adapter));
+            }
+        }
+    }
+
+    @Test
+    public void warmUpSkipsBuilders() {
+        Set<Type> requested = ConcurrentHashMap.newKeySet();
+        // Registered last, so that it's asked first.
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapter(Date.class, new BirthdateAdapter())
+                .registerTypeAdapterFactory(factory)
+                .registerTypeAdapterFactory(new TypeAdapterFactory() {
+                    @Override
+                    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                        requested.add(type.getType());
+                        return null;
+                    }
+                })
+                .create();
+
+        GsonWarmup.Result result = GsonWarmup.warmUp(gson, factory);
+
+        assertEquals(result.failures().toString(), 0, result.failures().size());
+        assertTrue(requested.contains(Address.class));
+        assertFalse(requested.contains(Person.Builder.class));
+    }
+
+    @Test
+    public void warmUpOnExecutor() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            GsonWarmup.Result result = GsonWarmup.warmUp(createGson(), factory, executor);
+
+            assertEquals(result.failures().toString(), 0, result.failures().size());
+            assertTrue(result.adapterCount() >= 2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.JsonArrayReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class JsonArrayReaderTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(SampleAdapterFactory.create())
+            .create();
+    private static final TypeAdapter<Address> ADAPTER = GSON.getAdapter(Address.class);
+
+    private static List<Address> addresses(int count) {
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            addresses.add(Address.create(i + " Main St", "Springfield"));
+        }
+        return addresses;
+    }
+
+    @Test
+    public void readsElementsOneAtATime() throws Exception {
+        List<Address> addresses = addresses(3);
+        List<Address> read = new ArrayList<>();
+        try (JsonArrayReader<Address> reader =
+                JsonArrayReader.of(ADAPTER, new StringReader(GSON.toJson(addresses)))) {
+            reader.forEachRemaining(read::add);
+        }
+
+        assertEquals(addresses, read);
+    }
+
+    @Test
+    public void readsInBatches() {
+        List<Address> addresses = addresses(2500);
+        byte[] json = GSON.toJson(addresses).getBytes(StandardCharsets.UTF_8);
+        List<List<Address>> batches = new ArrayList<>();
+        JsonArrayReader.of(ADAPTER, new ByteArrayInputStream(json))
+                .forEachBatch(1000, batches::add);
+
+        assertEquals(Arrays.asList(1000, 1000, 500),
+                batches.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(addresses, batches.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void streamsElements() {
+        String json = "[{\"street-name\":\"a\",\"city\":\"b\"}, null]";
+
+        assertEquals(Arrays.asList(Address.create("a", "b"), null),
+                JsonArrayReader.of(ADAPTER, new StringReader(json)).stream()
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void readsEmptyArray() {
+        assertFalse(JsonArrayReader.of(ADAPTER, new StringReader(" [ ] ")).hasNext());
+    }
+
+    @Test
+    public void failsIfNotAnArray() {
+        try {
+            JsonArrayReader.of(ADAPTER, new StringReader("{}")).hasNext();
+            fail();
+        } catch (JsonSyntaxException expected) {
+        }
+    }
+
+    @Test
+    public void failsOnTruncatedArray() {
+        JsonArrayReader<Address> reader = JsonArrayReader.of(ADAPTER,
+                new StringReader("[{\"street-name\":\"a\",\"city\":\"b\"}"));
+        reader.next();
+        try {
+            reader.hasNext();
+            fail();
+        } catch (JsonSyntaxException expected) {
+        }
+    }
+}
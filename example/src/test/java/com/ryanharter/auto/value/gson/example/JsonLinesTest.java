@@ -0,0 +1,96 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.JsonLinesReader;
+import com.ryanharter.auto.value.gson.JsonLinesWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class JsonLinesTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(SampleAdapterFactory.create())
+            .create();
+    private static final TypeAdapter<Address> ADAPTER = GSON.getAdapter(Address.class);
+
+    private static final List<Address> ADDRESSES = Arrays.asList(
+            Address.create("1 Main St", "Springfield"),
+            null,
+            Address.create("line\nbreak", "<city>"));
+
+    @Test
+    public void writesOneValuePerLine() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonLinesWriter<Address> writer = JsonLinesWriter.of(GSON, ADAPTER, out)) {
+            writer.writeAll(ADDRESSES);
+        }
+
+        StringBuilder expected = new StringBuilder();
+        for (Address address : ADDRESSES) {
+            expected.append(GSON.toJson(address)).append('\n');
+        }
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    public void readsWhatItWrites() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonLinesWriter<Address> writer = JsonLinesWriter.of(GSON, ADAPTER, out)) {
+            for (Address address : ADDRESSES) {
+                writer.write(address);
+            }
+        }
+
+        List<Address> read = new ArrayList<>();
+        try (JsonLinesReader<Address> reader =
+                JsonLinesReader.of(ADAPTER, new ByteArrayInputStream(out.toByteArray()))) {
+            while (reader.hasNext()) {
+                read.add(reader.next());
+            }
+        }
+        assertEquals(ADDRESSES, read);
+    }
+
+    @Test
+    public void streamsValuesAndSkipsBlankLines() {
+        String json = "\n{\"street-name\":\"a\",\"city\":\"b\"}\r\n"
+                + "\n{\"street-name\":\"c\",\"city\":\"d\"}";
+        List<Address> read = JsonLinesReader.of(ADAPTER, new ByteArrayInputStream(
+                json.getBytes(StandardCharsets.UTF_8))).stream().collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(Address.create("a", "b"), Address.create("c", "d")), read);
+    }
+
+    @Test
+    public void readsNothingFromEmptyInput() {
+        assertFalse(JsonLinesReader.of(ADAPTER, new StringReader("  \n")).hasNext());
+    }
+
+    @Test
+    public void failsOnTruncatedValue() {
+        JsonLinesReader<Address> reader =
+                JsonLinesReader.of(ADAPTER, new StringReader(
+                        "{\"street-name\":\"a\",\"city\":\"b\"}\n{\"city\":"));
+        reader.next();
+        try {
+            reader.next();
+            fail();
+        } catch (JsonSyntaxException expected) {
+        }
+    }
+}
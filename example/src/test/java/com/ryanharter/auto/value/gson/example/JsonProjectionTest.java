@@ -0,0 +1,80 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.ryanharter.auto.value.gson.JsonProjection;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonProjectionTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(SampleAdapterFactory.create())
+            .create();
+
+    @Test
+    public void readsSelectedProperties() {
+        JsonProjection projection = JsonProjection.of(GSON.getAdapter(Address.class), "city");
+
+        JsonProjection.Values values =
+                projection.fromJson(GSON.toJson(Address.create("1 Main St", "Springfield")));
+
+        assertTrue(values.has("city"));
+        assertEquals("Springfield", values.get("city"));
+    }
+
+    @Test
+    public void readsSerializedNames() {
+        JsonProjection projection =
+                JsonProjection.of(GSON.getAdapter(Address.class), "streetName", "city");
+
+        JsonProjection.Values values = projection.fromJson("{\"street-name\":\"1 Main St\"}");
+
+        assertEquals("1 Main St", values.get("streetName"));
+        assertFalse(values.has("city"));
+        assertNull(values.get("city"));
+    }
+
+    @Test
+    public void stopsAfterLastSelectedProperty() {
+        JsonProjection projection = JsonProjection.of(GSON.getAdapter(Address.class), "city");
+
+        JsonProjection.Values values =
+                projection.fromJson("{\"city\":\"Springfield\",\"street-name\":");
+
+        assertEquals("Springfield", values.get("city"));
+    }
+
+    @Test
+    public void readSkipsRestOfObject() throws Exception {
+        JsonProjection projection = JsonProjection.of(GSON.getAdapter(Address.class), "city");
+        String json = GSON.toJson(Arrays.asList(
+                Address.create("1 Main St", "Springfield"),
+                Address.create("2 Main St", "Shelbyville")));
+
+        List<String> cities = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                cities.add(projection.read(reader).get("city"));
+            }
+            reader.endArray();
+        }
+
+        assertEquals(Arrays.asList("Springfield", "Shelbyville"), cities);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownProperties() {
+        JsonProjection.of(GSON.getAdapter(Address.class), "zip");
+    }
+}
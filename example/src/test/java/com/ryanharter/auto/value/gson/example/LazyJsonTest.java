@@ -0,0 +1,99 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.LazyJsonValue;
+import com.ryanharter.auto.value.gson.Utf8TypeReader;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LazyJsonTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(SampleAdapterFactory.create())
+            .create();
+    private static final String JSON = "{\"id\":\"1\","
+            + "\"shippingAddress\":{\"street-name\":\"1 Main St\",\"city\":\"Springfield\"}}";
+
+    @Test
+    public void decodesOnFirstAccess() {
+        Order order = GSON.fromJson(JSON, Order.class);
+
+        LazyJsonValue<Address> address = (LazyJsonValue<Address>) order.shippingAddress();
+        assertEquals("1", order.id());
+        assertFalse(address.isDecoded());
+        assertEquals(Address.create("1 Main St", "Springfield"), address.get());
+        assertTrue(address.isDecoded());
+        assertEquals(address.get(), address.get());
+    }
+
+    @Test
+    public void decodesFromUtf8() throws Exception {
+        TypeAdapter<Order> adapter = GSON.getAdapter(Order.class);
+        assertTrue(adapter instanceof Utf8TypeReader);
+
+        Order order = ((Utf8TypeReader<Order>) adapter)
+                .fromUtf8(JSON.getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(((LazyJsonValue<Address>) order.shippingAddress()).isDecoded());
+        assertEquals(Address.create("1 Main St", "Springfield"), order.shippingAddress().get());
+    }
+
+    @Test
+    public void writesUndecodedJsonAsRead() {
+        Order order = GSON.fromJson(JSON, Order.class);
+
+        assertEquals(JSON, GSON.toJson(order));
+        assertFalse(((LazyJsonValue<Address>) order.shippingAddress()).isDecoded());
+    }
+
+    @Test
+    public void writesUndecodedJsonToTree() {
+        Order order = GSON.fromJson(JSON, Order.class);
+
+        assertEquals(new JsonParser().parse(JSON), GSON.toJsonTree(order));
+        assertFalse(((LazyJsonValue<Address>) order.shippingAddress()).isDecoded());
+    }
+
+    @Test
+    public void writesUndecodedUtf8JsonToTree() throws Exception {
+        Order order = ((Utf8TypeReader<Order>) GSON.getAdapter(Order.class))
+                .fromUtf8(JSON.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(new JsonParser().parse(JSON), GSON.toJsonTree(order));
+        assertFalse(((LazyJsonValue<Address>) order.shippingAddress()).isDecoded());
+    }
+
+    @Test
+    public void writesSuppliedValues() {
+        Order order = Order.create("1", () -> Address.create("1 Main St", "Springfield"));
+
+        assertEquals(JSON, GSON.toJson(order));
+    }
+
+    @Test
+    public void equalsDecodedValues() {
+        Order order = GSON.fromJson(JSON, Order.class);
+
+        assertEquals(GSON.fromJson(JSON, Order.class), order);
+    }
+
+    @Test
+    public void failsOnAccessForMismatchedJson() {
+        Order order = GSON.fromJson("{\"id\":\"1\",\"shippingAddress\":[1]}", Order.class);
+
+        try {
+            order.shippingAddress().get();
+            fail();
+        } catch (JsonSyntaxException expected) {
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.JsonLinesWriter;
+import com.ryanharter.auto.value.gson.ParallelJsonLines;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ParallelJsonLinesTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(SampleAdapterFactory.create())
+            .create();
+    private static final TypeAdapter<Address> ADAPTER = GSON.getAdapter(Address.class);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final List<Address> addresses = new ArrayList<>();
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        // Large enough for several chunks.
+        for (int i = 0; i < 20000; i++) {
+            addresses.add(Address.create(i + " Main St", "City " + (i % 100)));
+        }
+        file = Files.createTempFile("addresses", ".jsonl");
+        try (JsonLinesWriter<Address> writer =
+                JsonLinesWriter.of(GSON, ADAPTER, Files.newOutputStream(file))) {
+            writer.writeAll(addresses);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdown();
+        Files.delete(file);
+    }
+
+    @Test
+    public void readsInOrder() throws Exception {
+        try (Stream<Address> read = ParallelJsonLines.read(ADAPTER, file, true, pool)) {
+            assertEquals(addresses, read.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void readsUnordered() throws Exception {
+        try (Stream<Address> read = ParallelJsonLines.read(ADAPTER, file, false, pool)) {
+            List<Address> values = read.collect(Collectors.toList());
+            assertEquals(addresses.size(), values.size());
+            assertEquals(new HashSet<>(addresses), new HashSet<>(values));
+        }
+    }
+
+    @Test
+    public void readsThroughJsonLinesReader() throws Exception {
+        // Not a Utf8TypeReader, so each chunk is read with a JsonLinesReader.
+        TypeAdapter<JsonObject> adapter = GSON.getAdapter(JsonObject.class);
+        List<JsonObject> objects = new ArrayList<>();
+        StringBuilder json = new StringBuilder();
+        // The first chunk ends after the first newline past 64 KiB, so the last line of objects
+        // ends the first chunk and the second one is only whitespace.
+        for (int i = 0; json.length() <= 1 << 16; i++) {
+            JsonObject object = new JsonObject();
+            object.addProperty("id", i);
+            object.addProperty("name", "Object " + i);
+            objects.add(object);
+            json.append(adapter.toJson(object)).append('\n');
+        }
+        json.append("  \n\t\n \n");
+        Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+
+        try (Stream<JsonObject> read = ParallelJsonLines.read(adapter, file, true, pool)) {
+            assertEquals(objects, read.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void readsEmptyFile() throws Exception {
+        Files.write(file, new byte[0]);
+
+        try (Stream<Address> read = ParallelJsonLines.read(ADAPTER, file, true)) {
+            assertEquals(0, read.count());
+        }
+    }
+
+    @Test
+    public void failsOnMalformedLine() throws Exception {
+        Files.write(file, "{\"street-name\":\"a\",\"city\":\"b\"}\n{\"city\"\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        try (Stream<Address> read = ParallelJsonLines.read(ADAPTER, file, true, pool)) {
+            read.count();
+            fail();
+        } catch (JsonSyntaxException expected) {
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.Utf8JsonWriter;
+import com.ryanharter.auto.value.gson.Utf8TypeAdapter;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class Utf8TypeAdapterTest {
+
+    private static Gson createGson(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(Date.class, new BirthdateAdapter())
+                .registerTypeAdapterFactory(SampleAdapterFactory.create())
+                .create();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Utf8TypeAdapter<T> utf8Adapter(Gson gson, Class<T> type) {
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        assertTrue(adapter instanceof Utf8TypeAdapter);
+        return (Utf8TypeAdapter<T>) adapter;
+    }
+
+    private static Person person(Address address) {
+        return Person.builder()
+                .name("Zo\u00eb \"<Z>\" \ud83d\ude00")
+                .gender(1)
+                .age(23)
+                .birthdate(new Date(0))
+                .address(address)
+                .build();
+    }
+
+    @Test
+    public void writesSameBytesAsGson() throws Exception {
+        Gson gson = createGson(new GsonBuilder());
+        Person person = person(Address.create("street\n", "city"));
+
+        byte[] expected = gson.toJson(person).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, utf8Adapter(gson, Person.class).toUtf8Bytes(person));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        utf8Adapter(gson, Person.class).writeTo(out, person);
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void honorsSerializeNulls() throws Exception {
+        Person person = person(null);
+
+        Gson gson = createGson(new GsonBuilder());
+        assertEquals(gson.toJson(person), new String(
+                utf8Adapter(gson, Person.class).toUtf8Bytes(person), StandardCharsets.UTF_8));
+
+        Gson serializeNulls = createGson(new GsonBuilder().serializeNulls());
+        assertEquals(serializeNulls.toJson(person), new String(
+                utf8Adapter(serializeNulls, Person.class).toUtf8Bytes(person),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void honorsHtmlEscaping() throws Exception {
+        Gson gson = createGson(new GsonBuilder().disableHtmlEscaping());
+        Person person = person(Address.create("<a & b>", "c='d'"));
+
+        assertEquals(gson.toJson(person), new String(
+                utf8Adapter(gson, Person.class).toUtf8Bytes(person), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writesNull() throws Exception {
+        Gson gson = createGson(new GsonBuilder());
+
+        assertEquals("null", new String(
+                utf8Adapter(gson, Person.class).toUtf8Bytes(null), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writesLongs() throws Exception {
+        Gson gson = new Gson();
+        long[] values = {0, 7, -7, 10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+        Utf8JsonWriter writer = Utf8JsonWriter.create(gson);
+        writer.beginArray();
+        for (long value : values) {
+            writer.value(value);
+        }
+        writer.endArray();
+
+        assertEquals(gson.toJson(values),
+                new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
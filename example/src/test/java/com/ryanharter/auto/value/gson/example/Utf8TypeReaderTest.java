@@ -0,0 +1,107 @@
+package com.ryanharter.auto.value.gson.example;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.ryanharter.auto.value.gson.Utf8JsonReader;
+import com.ryanharter.auto.value.gson.Utf8TypeReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class Utf8TypeReaderTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new BirthdateAdapter())
+            .registerTypeAdapterFactory(SampleAdapterFactory.create())
+            .create();
+
+    @SuppressWarnings("unchecked")
+    private static <T> Utf8TypeReader<T> utf8Reader(Class<T> type) {
+        TypeAdapter<T> adapter = GSON.getAdapter(type);
+        assertTrue(adapter instanceof Utf8TypeReader);
+        return (Utf8TypeReader<T>) adapter;
+    }
+
+    private static Person person(Address address) {
+        return Person.builder()
+                .name("Zo\u00eb \"<Z>\" \ud83d\ude00")
+                .gender(1)
+                .age(23)
+                .birthdate(new Date(0))
+                .address(address)
+                .build();
+    }
+
+    @Test
+    public void readsWhatGsonWrites() throws Exception {
+        Person person = person(Address.create("street\n", "city"));
+        byte[] json = GSON.toJson(person).getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(person, utf8Reader(Person.class).fromUtf8(json));
+    }
+
+    @Test
+    public void readsDirectBuffers() throws Exception {
+        Person person = person(null);
+        byte[] json = GSON.toJson(person).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(json.length);
+        buffer.put(json).flip();
+
+        assertEquals(person, utf8Reader(Person.class).fromUtf8(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void skipsUnknownNames() throws Exception {
+        String json = "{\"unknown\":{\"a\":[1,2,{\"b\":null}]},\"street-name\":\"s\","
+                + "\"\\u0063ity\":\"c\",\"other\":\"x\"}";
+
+        assertEquals(GSON.fromJson(json, Address.class),
+                utf8Reader(Address.class).fromUtf8(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void readsNull() throws Exception {
+        assertNull(utf8Reader(Person.class).fromUtf8("null".getBytes(StandardCharsets.UTF_8)));
+        assertNull(utf8Reader(Person.class).fromUtf8(new byte[0]));
+    }
+
+    @Test
+    public void rejectsTrailingData() throws Exception {
+        try {
+            utf8Reader(Address.class).fromUtf8("{}{}".getBytes(StandardCharsets.UTF_8));
+            fail();
+        } catch (RuntimeException expected) {
+        }
+    }
+
+    @Test
+    public void rejectsMalformedJson() throws Exception {
+        try {
+            utf8Reader(Address.class).fromUtf8("{\"city\":".getBytes(StandardCharsets.UTF_8));
+            fail();
+        } catch (JsonSyntaxException expected) {
+        }
+    }
+
+    @Test
+    public void readsSeveralValues() throws Exception {
+        Address first = Address.create("a", "b");
+        Address second = Address.create("c", "d");
+        byte[] json = (GSON.toJson(first) + "\n" + GSON.toJson(second))
+                .getBytes(StandardCharsets.UTF_8);
+        Utf8JsonReader reader = Utf8JsonReader.of(json);
+
+        assertEquals(first, utf8Reader(Address.class).readUtf8(reader));
+        assertEquals(second, utf8Reader(Address.class).readUtf8(reader));
+        reader.endDocument();
+    }
+}